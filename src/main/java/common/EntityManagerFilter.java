@@ -0,0 +1,80 @@
+package common;
+
+import dal.EntityManagerContext;
+import dal.PoolMetrics;
+import java.io.IOException;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+
+/**
+ * closes the EntityManagers a request left bound to its thread.
+ *
+ * every DAL transaction binds its EntityManager to the calling thread through {@link EntityManagerContext} and
+ * normally unbinds it when the transaction is closed. if a request fails half way through a transaction this filter
+ * rolls it back and closes it once the request is done, so the next request served by the same container thread
+ * starts clean.
+ *
+ * the connections each request takes are counted in {@link PoolMetrics}. a request that went async is counted when it
+ * completes, after the executor did its work.
+ */
+@WebFilter( filterName = "EntityManagerFilter", urlPatterns = { "/*" }, asyncSupported = true )
+public class EntityManagerFilter implements Filter {
+
+    @Override
+    public void doFilter( ServletRequest request, ServletResponse response, FilterChain chain )
+            throws IOException, ServletException {
+        PoolMetrics.RequestUsage usage = PoolMetrics.requestStarted();
+        try {
+            chain.doFilter( request, response );
+        } finally {
+            if( EntityManagerContext.isActive() ){
+                EntityManagerContext.release();
+            }
+            PoolMetrics.setCurrentRequest( null );
+            if( request.isAsyncStarted() ){
+                request.getAsyncContext().addListener( new RequestDone( usage ) );
+            } else {
+                PoolMetrics.requestDone( usage );
+            }
+        }
+    }
+
+    /**
+     * counts an async request once it is over, whether it completed, failed or timed out
+     */
+    private static final class RequestDone implements AsyncListener {
+
+        private final PoolMetrics.RequestUsage usage;
+
+        RequestDone( PoolMetrics.RequestUsage usage ) {
+            this.usage = usage;
+        }
+
+        @Override
+        public void onComplete( AsyncEvent event ) {
+            PoolMetrics.requestDone( usage );
+        }
+
+        @Override
+        public void onTimeout( AsyncEvent event ) {
+            //onComplete follows once the container ends the request
+        }
+
+        @Override
+        public void onError( AsyncEvent event ) {
+            //onComplete follows once the container ends the request
+        }
+
+        @Override
+        public void onStartAsync( AsyncEvent event ) {
+            //a new async cycle of the same request, it is still counted once on complete
+            event.getAsyncContext().addListener( this );
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package common;
 
+import dal.PoolMetrics;
+import dal.QueryMetrics;
+import javax.servlet.ServletContext;
 import javax.servlet.ServletContextEvent;
 import javax.servlet.ServletContextListener;
 import javax.servlet.annotation.WebListener;
+import logic.LogicFactory;
+import logic.SearchBackend;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.hibernate.SessionFactory;
 
 /**
  * do not modify this class
@@ -24,6 +30,39 @@ public class ServletListener implements ServletContextListener {
 
     private static final Logger LOG = LogManager.getLogger();
 
+    /**
+     * name of the context-param in web.xml which selects the persistence unit
+     */
+    public static final String PERSISTENCE_UNIT_PARAM = "persistenceUnit";
+
+    /**
+     * name of the context-param in web.xml which selects where searches look for rows, LIKE when not set
+     */
+    public static final String SEARCH_BACKEND_PARAM = "searchBackend";
+
+    /**
+     * names of the context-params in web.xml which size the executor of the async table views
+     */
+    public static final String ASYNC_THREADS_PARAM = "asyncThreads";
+    public static final String ASYNC_QUEUE_PARAM = "asyncQueue";
+    public static final String ASYNC_VIRTUAL_PARAM = "asyncVirtualThreads";
+
+    /**
+     * name of the context-param in web.xml with the milliseconds after which a DAL operation is logged as slow
+     */
+    public static final String SLOW_QUERY_PARAM = "slowQueryMillis";
+
+    private static final int DEFAULT_SLOW_QUERY_MILLIS = 1000;
+
+    /**
+     * name of the context-param in web.xml which turns on the hibernate statistics shown by /CacheStats, off when not
+     * set
+     */
+    public static final String CACHE_STATISTICS_PARAM = "cacheStatistics";
+
+    private static final int DEFAULT_ASYNC_THREADS = 32;
+    private static final int DEFAULT_ASYNC_QUEUE = 256;
+
     /**
      * this method is triggered when the web application is starting the initialization. This will be invoked before any
      * of the filters and servlets are initialized.
@@ -32,9 +71,63 @@ public class ServletListener implements ServletContextListener {
      */
     @Override
     public void contextInitialized( ServletContextEvent sce ) {
+        //optional context-param to pick another persistence unit, for example simplebloodbank-PU-pooled
+        String puName = sce.getServletContext().getInitParameter( PERSISTENCE_UNIT_PARAM );
+        if( puName != null && !puName.isEmpty() ){
+            LOG.debug( "Using persistence unit {}", puName );
+            EMFactory.setPUName( puName );
+        }
+        QueryMetrics.setSlowQueryMillis( intParam( sce.getServletContext(), SLOW_QUERY_PARAM,
+                DEFAULT_SLOW_QUERY_MILLIS ) );
         LOG.debug( "Initializing EMF" );
         EMFactory.initializeEMF();
         LOG.debug( "EMF initialized" );
+        if( Boolean.parseBoolean( sce.getServletContext().getInitParameter( CACHE_STATISTICS_PARAM ) ) ){
+            LOG.debug( "Enabling hibernate statistics" );
+            EMFactory.getEMF().unwrap( SessionFactory.class ).getStatistics().setStatisticsEnabled( true );
+        }
+        SearchBackend backend = SearchBackend.of( sce.getServletContext().getInitParameter( SEARCH_BACKEND_PARAM ),
+                SearchBackend.LIKE );
+        if( backend != SearchBackend.LIKE ){
+            LOG.debug( "Initializing {} search", backend );
+            LogicFactory.initSearch( backend );
+            LOG.debug( "{} search initialized", backend );
+        }
+        LOG.debug( "Loading typeahead lists" );
+        LogicFactory.initSuggestions();
+        LOG.debug( "Typeahead lists loaded" );
+        LOG.debug( "Loading blood inventory" );
+        LogicFactory.initInventory();
+        LOG.debug( "Blood inventory loaded" );
+        LOG.debug( "Loading donation matcher" );
+        LogicFactory.initMatcher();
+        LOG.debug( "Donation matcher loaded" );
+        LOG.debug( "Loading donor eligibility" );
+        LogicFactory.initEligibility();
+        LOG.debug( "Donor eligibility loaded" );
+        LOG.debug( "Starting expiry tracker" );
+        LogicFactory.startExpiry();
+        LOG.debug( "Expiry tracker started" );
+        ServletContext context = sce.getServletContext();
+        int threads = intParam( context, ASYNC_THREADS_PARAM, DEFAULT_ASYNC_THREADS );
+        int queue = intParam( context, ASYNC_QUEUE_PARAM, DEFAULT_ASYNC_QUEUE );
+        boolean virtual = Boolean.parseBoolean( context.getInitParameter( ASYNC_VIRTUAL_PARAM ) );
+        LOG.debug( "Starting async executor, {} threads, {} queued, virtual {}", threads, queue, virtual );
+        LogicFactory.startAsync( threads, queue, virtual );
+        LOG.debug( "Async executor started" );
+    }
+
+    private static int intParam( ServletContext context, String name, int defaultValue ) {
+        String value = context.getInitParameter( name );
+        if( value == null || value.isEmpty() ){
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt( value.trim() );
+        } catch( NumberFormatException ex ) {
+            LOG.warn( "Context-param {} is not a number: {}, using {}", name, value, defaultValue );
+            return defaultValue;
+        }
     }
 
     /**
@@ -45,6 +138,16 @@ public class ServletListener implements ServletContextListener {
      */
     @Override
     public void contextDestroyed( ServletContextEvent sce ) {
+        LOG.debug( "Stopping async executor" );
+        LogicFactory.stopAsync();
+        LOG.debug( "Async executor stopped" );
+        LOG.debug( "Stopping expiry tracker" );
+        LogicFactory.stopExpiry();
+        LOG.debug( "Expiry tracker stopped" );
+        PoolMetrics.Advice advice = PoolMetrics.advise();
+        if( advice != null ){
+            LOG.info( "Connection pool limits advised from this run: {}", advice );
+        }
         LOG.debug( "Destroying EMF" );
         EMFactory.closeEMF();
         LOG.debug( "EMF Destroyed" );
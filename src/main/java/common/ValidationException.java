@@ -1,24 +1,62 @@
 package common;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
+ * a value given by the user is wrong. it is an IllegalArgumentException so code catching bad arguments catches it too.
  *
  * @author Shariar (Shawn) Emami
  */
-public class ValidationException extends RuntimeException {
+public class ValidationException extends IllegalArgumentException {
+
+    private final Map<String, String> errors;
 
     public ValidationException() {
         super();
+        errors = Collections.emptyMap();
     }
 
     public ValidationException(String message) {
         super(message);
+        errors = Collections.emptyMap();
     }
 
     public ValidationException(Throwable t) {
         super(t);
+        errors = Collections.emptyMap();
     }
 
     public ValidationException(String message, Throwable t) {
         super(message, t);
+        errors = Collections.emptyMap();
+    }
+
+    /**
+     * @param errors - what is wrong with each value, keyed by the name of the form field
+     */
+    public ValidationException(Map<String, String> errors) {
+        super(toMessage(errors));
+        this.errors = Collections.unmodifiableMap(new LinkedHashMap<>(errors));
+    }
+
+    /**
+     * @return what is wrong with each value keyed by the name of the form field, empty if the exception was not
+     * created with a map
+     */
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+
+    private static String toMessage(Map<String, String> errors) {
+        StringBuilder message = new StringBuilder();
+        errors.forEach((key, error) -> {
+            if (message.length() > 0) {
+                message.append(", ");
+            }
+            message.append(key).append(": ").append(error);
+        });
+        return message.toString();
     }
 }
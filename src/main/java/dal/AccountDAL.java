@@ -70,4 +70,14 @@ public class AccountDAL extends GenericDAL<Account> {
         map.put( "password", pass );
         return findResult( "Account.validateUser", map );
     }
+
+    /**
+     * search the FULLTEXT index of name, nickname and username
+     * @param search
+     * @return accounts containing the String
+     */
+    @Override
+    public List<Account> findFullText( String search ) {
+        return findFullText( "Account.fullTextIds", search );
+    }
 }
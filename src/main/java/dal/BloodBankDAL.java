@@ -17,10 +17,10 @@ public class BloodBankDAL extends GenericDAL <BloodBank> {
    
     /**
      *  BloodBankDAL constructor simply calls GenericDAL super() with 
-     *   BloodBank.class
+     *   BloodBank.class and the graph loading the owner for the table views
      */
     public BloodBankDAL() {
-        super(BloodBank.class);
+        super(BloodBank.class, "BloodBank.withOwner");
     }
     
     /**
@@ -29,7 +29,7 @@ public class BloodBankDAL extends GenericDAL <BloodBank> {
      */
     @Override
     public List<BloodBank> findAll() {
-        return findResults( "BloodBank.findAll", null );
+        return findResults( "BloodBank.findAll", null, true );
     }
 
     /**
@@ -42,7 +42,7 @@ public class BloodBankDAL extends GenericDAL <BloodBank> {
         Map<String, Object> map = new HashMap<>();
         map.put( "bankId", bankId );
       
-        return findResult( "BloodBank.findByBankId", map );
+        return findResult( "BloodBank.findByBankId", map, true );
     }    
     
     /**
@@ -53,7 +53,7 @@ public class BloodBankDAL extends GenericDAL <BloodBank> {
     public BloodBank findByName(String name) {
         Map<String, Object> map = new HashMap<>();
         map.put( "name", name );
-        return findResult( "BloodBank.findByName", map );
+        return findResult( "BloodBank.findByName", map, true );
     }
    
     /**
@@ -65,7 +65,7 @@ public class BloodBankDAL extends GenericDAL <BloodBank> {
     public List<BloodBank> findByPrivatelyOwned(boolean privatelyOwned) {
         Map<String, Object> map = new HashMap<>();
         map.put( "privatelyOwned", privatelyOwned );
-        return findResults( "BloodBank.findByPrivatelyOwned", map );
+        return findResults( "BloodBank.findByPrivatelyOwned", map, true );
     }
     
     /**
@@ -77,7 +77,7 @@ public class BloodBankDAL extends GenericDAL <BloodBank> {
     public List<BloodBank> findByEstablished(Date established) {
         Map<String, Object> map = new HashMap<>();
         map.put( "established", established );
-        return findResults( "BloodBank.findByEstablished", map );
+        return findResults( "BloodBank.findByEstablished", map, true );
     }
     
     /**
@@ -89,7 +89,7 @@ public class BloodBankDAL extends GenericDAL <BloodBank> {
     public List<BloodBank> findByEmployeeCount(int employeeCount) {
         Map<String, Object> map = new HashMap<>();
         map.put( "employeeCount", employeeCount );
-        return findResults( "BloodBank.findByEmployeeCount", map );
+        return findResults( "BloodBank.findByEmployeeCount", map, true );
     }
     
     /**
@@ -100,7 +100,7 @@ public class BloodBankDAL extends GenericDAL <BloodBank> {
     public BloodBank findByOwner(int ownerId) {
         Map<String, Object> map = new HashMap<>();
         map.put( "ownerId", ownerId );
-        return findResult( "BloodBank.findByOwner", map );
+        return findResult( "BloodBank.findByOwner", map, true );
     }
     
     /**
@@ -111,6 +111,16 @@ public class BloodBankDAL extends GenericDAL <BloodBank> {
     public List<BloodBank> findContaining(String search) {
         Map<String, Object> map = new HashMap<>();
         map.put( "search", search );
-        return findResults( "BloodBank.findContaining", map );
-    }        
+        return findResults( "BloodBank.findContaining", map, true );
+    }
+
+    /**
+     * findFullText : searches the FULLTEXT index of name, employeeCount is not searched
+     * @param search- search term to match when searching databse
+     * @return list of BloodBanks in database with a name containing the search term
+     */
+    @Override
+    public List<BloodBank> findFullText( String search ) {
+        return findFullText( "BloodBank.fullTextIds", search );
+    }
 }
@@ -3,10 +3,14 @@ package dal;
 import entity.BloodDonation;
 import entity.BloodGroup;
 import entity.RhesusFactor;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import javax.persistence.LockModeType;
+import javax.persistence.TemporalType;
 
 /**
  * BONUS: This class implements the search functionality bonus
@@ -15,19 +19,19 @@ import java.util.Map;
 public class BloodDonationDAL extends GenericDAL<BloodDonation> {
 
     public BloodDonationDAL() {
-        super( BloodDonation.class );
+        super( BloodDonation.class, "BloodDonation.withBloodBank" );
     }
 
     @Override
     public List<BloodDonation> findAll() {
-        return findResults( "BloodDonation.findAll", null );
+        return findResults( "BloodDonation.findAll", null, true );
     }
 
     @Override
     public BloodDonation findById( int id ) {
         Map<String, Object> map = new HashMap<>();
         map.put( "donationId", id );
-        return findResult( "BloodDonation.findByDonationId", map );
+        return findResult( "BloodDonation.findByDonationId", map, true );
     }
 
     public List<BloodDonation> findByMilliliters( int milliliters ) {
@@ -57,12 +61,73 @@ public class BloodDonationDAL extends GenericDAL<BloodDonation> {
     public List<BloodDonation> findByBloodBank( int bloodBankId ) {
         Map<String, Object> map = new HashMap<>();
         map.put( "bloodBankId", bloodBankId );
-        return findResults( "BloodDonation.findByBloodBank", map );
+        return findResults( "BloodDonation.findByBloodBank", map, true );
     }
     
     public List<BloodDonation> findContaining( String search ) {
         Map<String, Object> map = new HashMap<>();
         map.put( "search", search );
-        return findResults( "BloodDonation.findContaining", map );
+        return findResults( "BloodDonation.findContaining", map, true );
+    }
+
+    /**
+     * milliliters and number of donations per blood bank, blood group and rhesus factor, in one GROUP BY query.
+     * donations without a blood bank are left out.
+     *
+     * @return rows of bank id, blood group, rhesus factor, sum of milliliters (Long) and count (Long)
+     */
+    public List<Object[]> sumByBankAndType() {
+        return timed( "BloodDonation.inventory", null,
+                () -> em().createNamedQuery( "BloodDonation.inventory", Object[].class ).getResultList() );
+    }
+
+    /**
+     * id, bank, blood type and creation time of the donations held by a blood bank, without loading entities.
+     *
+     * @param since - only donations created after this time
+     * @return rows of donation id, bank id, blood group, rhesus factor and created
+     */
+    public List<Object[]> findInBanksSince( Date since ) {
+        return timed( "BloodDonation.inBanksSince", since, () -> em()
+                .createNamedQuery( "BloodDonation.inBanksSince", Object[].class )
+                .setParameter( "since", since, TemporalType.TIMESTAMP ).getResultList() );
+    }
+
+    /**
+     * id and creation time of the donations not marked expired yet, without loading entities.
+     *
+     * @return rows of donation id and created
+     */
+    public List<Object[]> findUnexpired() {
+        return timed( "BloodDonation.unexpired", null,
+                () -> em().createNamedQuery( "BloodDonation.unexpired", Object[].class ).getResultList() );
+    }
+
+    /**
+     * mark donations expired with one UPDATE per {@link #IDS_PER_QUERY} ids. must run in a transaction.
+     *
+     * @param ids - primary keys of the donations
+     * @return number of donations changed, those already marked are not counted
+     */
+    public int markExpired( int[] ids ) {
+        int updated = 0;
+        for( int from = 0; from < ids.length; from += IDS_PER_QUERY ) {
+            List<Integer> chunk = Arrays.stream( ids, from, Math.min( from + IDS_PER_QUERY, ids.length ) ).boxed()
+                    .collect( Collectors.toList() );
+            updated += timed( "BloodDonation.markExpired", null, () -> em()
+                    .createNamedQuery( "BloodDonation.markExpired" ).setParameter( "ids", chunk ).executeUpdate() );
+        }
+        return updated;
+    }
+
+    /**
+     * read a donation and lock its row until the transaction ends, so no other transaction can change it in between.
+     *
+     * @param id - primary key of the donation
+     * @return the donation, null if there is none with the id
+     */
+    public BloodDonation findLocked( int id ) {
+        return timed( "BloodDonation.findLocked", id,
+                () -> em().find( BloodDonation.class, id, LockModeType.PESSIMISTIC_WRITE ) );
     }
 }
@@ -1,6 +1,8 @@
 package dal;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  *
@@ -12,6 +14,36 @@ public interface DataAccessLayer <E>{
     List<E> findAll();
     
     E findById( int id);
+
+    /**
+     * get the rows with one of the given keys, unknown keys are skipped.
+     * @param ids - primary keys
+     * @return rows ordered by primary key
+     */
+    List<E> findByIds( int[] ids );
+
+    /**
+     * get all rows where one of the searchable columns contains the text, using the "[Entity].findContaining" named
+     * query.
+     * @param search - text to find
+     * @return matching rows
+     */
+    List<E> findContaining( String search );
+
+    /**
+     * same as {@link #findContaining} but answered by the FULLTEXT index of the table, if it has one. only text columns
+     * are searched.
+     * @param search - text to find
+     * @return matching rows
+     * @see <a href="https://dev.mysql.com/doc/refman/8.0/en/fulltext-search-ngram.html">ngram Full-Text Parser</a>
+     */
+    List<E> findFullText( String search );
+
+    /**
+     * @param entity - entity of this table
+     * @return primary key of the entity, null if it has none yet
+     */
+    Integer getId( E entity );
     
     void beginTransaction();
 
@@ -42,6 +74,15 @@ public interface DataAccessLayer <E>{
      */
     void save(E entity);
 
+    /**
+     * save all entities, flushing and clearing the entity manager every batchSize entities. with JDBC batching
+     * enabled each flush is sent to the DB as one batch and the persistence context never holds more than batchSize
+     * entities.
+     * @param entities - new entity objects to be saved before commit
+     * @param batchSize - number of entities per flush
+     */
+    void saveAll(Collection<E> entities, int batchSize);
+
     /**
      * delete this entity
      * @param entity - entity object to be removed
@@ -57,6 +98,13 @@ public interface DataAccessLayer <E>{
     
     void detach( E entity);
 
+    /**
+     * remove this entity from the second level cache so the next read of it goes to the DB. does nothing if the
+     * entity is not cached. can be called outside of a transaction.
+     * @param entity - entity to be evicted
+     */
+    void evict( E entity );
+
     /**
      * get the entity with given key
      * @param entityID = primary key
@@ -69,4 +117,41 @@ public interface DataAccessLayer <E>{
      * @return list of all rows
      */
     List<E> findAllCQ();
+
+    /**
+     * get one page of rows ordered by primary key using keyset pagination. rows are selected relative to the key of
+     * the last row already seen instead of an offset, so the cost of a page does not grow with the size of the table.
+     *
+     * @param afterId - primary key to continue from (exclusive), null to start at the beginning (or end) of the table
+     * @param limit - maximum number of rows in the page
+     * @param sort - ASCENDING returns rows with a key greater than afterId, DESCENDING rows with a key less than it
+     * @return list of at most limit rows in the requested order
+     */
+    List<E> findPage( Integer afterId, int limit, SortOrder sort );
+
+    /**
+     * same page as {@link #findPage} but as plain column values instead of entities. the columns are selected by the
+     * named queries "[Entity].rowsAscending" and "[Entity].rowsDescending", in the order of getColumnCodes of the
+     * logic. no entity is created so nothing is tracked by the entity manager.
+     *
+     * @param afterId - primary key to continue from (exclusive), null to start at the beginning (or end) of the table
+     * @param limit - maximum number of rows in the page
+     * @param sort - direction of the walk over the primary key
+     * @return list of at most limit rows in the requested order
+     */
+    List<Object[]> findRows( Integer afterId, int limit, SortOrder sort );
+
+    /**
+     * walk all rows of this table through a forward only JDBC cursor. rows are fetched fetchSize at a time and the
+     * entity manager is cleared every fetchSize rows, so memory stays flat no matter how big the table is. entities
+     * handed out by the stream are read only and are detached once the next batch is fetched.
+     *
+     * must be called between beginTransaction and closeTransaction, and the stream must be closed before the
+     * transaction is closed. it cannot be called inside a unit of work, clearing the entity manager would detach the
+     * changes of the unit that are not flushed yet.
+     *
+     * @param fetchSize - number of rows fetched per round trip and kept in the entity manager at once
+     * @return lazy stream of all rows, close it to release the cursor
+     */
+    Stream<E> streamAll( int fetchSize );
 }
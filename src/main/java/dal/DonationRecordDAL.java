@@ -1,11 +1,13 @@
 package dal;
 
 import entity.DonationRecord;
+import entity.Person;
 import java.util.Date;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import javax.persistence.LockModeType;
 /**
  *
  * @author aksha
@@ -13,18 +15,18 @@ import java.util.Map;
 public class DonationRecordDAL extends GenericDAL<DonationRecord>{
     
     public DonationRecordDAL() {
-        super(DonationRecord.class);
+        super(DonationRecord.class, "DonationRecord.withPersonAndDonation");
     }
     @Override
     public List<DonationRecord> findAll() {
-        return findResults("DonationRecord.findAll",null); 
+        return findResults("DonationRecord.findAll",null, true); 
     }
     
     @Override
     public DonationRecord findById(int id) {
         Map<String, Object> map = new HashMap<>();
         map.put( "recordId", id );
-        return findResult("DonationRecord.findByRecordId" , map);
+        return findResult("DonationRecord.findByRecordId" , map, true);
     }
     
     public List<DonationRecord> findByPersonId( int person_id ) {
@@ -66,6 +68,42 @@ public class DonationRecordDAL extends GenericDAL<DonationRecord>{
     public List<DonationRecord> findContaining( String search ) {
         Map<String, Object> map = new HashMap<>();
         map.put( "search", search );
-        return findResults( "DonationRecord.findContaining", map );
+        return findResults( "DonationRecord.findContaining", map, true );
+    }
+
+    /**
+     * time of the last donation of each person, in one GROUP BY query. records without a person are left out.
+     *
+     * @return rows of person id and created of the newest record
+     */
+    public List<Object[]> findLastByPerson() {
+        return timed( "DonationRecord.lastByPerson", null,
+                () -> em().createNamedQuery( "DonationRecord.lastByPerson", Object[].class ).getResultList() );
+    }
+
+    /**
+     * lock the row of a person until the transaction ends and read the time of their last donation, so two
+     * transactions adding a donation of one person read it one after the other. lock before any other read of the
+     * transaction, a snapshot taken earlier would not see a donation committed while waiting for the lock.
+     *
+     * @param personId - id of the person
+     * @return created of the newest record of the person, null if they never gave
+     */
+    public Date findLastOfPersonLocked( int personId ) {
+        return timed( "DonationRecord.lastOfPerson", personId, () -> {
+            em().find( Person.class, personId, LockModeType.PESSIMISTIC_WRITE );
+            return em().createNamedQuery( "DonationRecord.lastOfPerson", Date.class )
+                    .setParameter( "personId", personId ).getSingleResult();
+        } );
+    }
+
+    /**
+     * search the FULLTEXT index of administrator and hospital, the person is not searched
+     * @param search
+     * @return records containing the String
+     */
+    @Override
+    public List<DonationRecord> findFullText( String search ) {
+        return findFullText( "DonationRecord.fullTextIds", search );
     }
 }
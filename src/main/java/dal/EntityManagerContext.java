@@ -0,0 +1,198 @@
+package dal;
+
+import common.EMFactory;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.persistence.EntityManager;
+import javax.persistence.RollbackException;
+
+/**
+ * holds the EntityManagers of the transactions running on the current thread.
+ *
+ * the DAL classes used to keep their EntityManager in a field which beginTransaction overwrote, so a DAL (and the
+ * logic owning it) could not be shared between threads. now beginTransaction binds a new EntityManager to the calling
+ * thread and closeTransaction unbinds it, the DAL objects themselves have no mutable state. transactions can still be
+ * nested, each beginTransaction pushes a new EntityManager and closeTransaction pops it.
+ *
+ * a unit of work (see {@link #beginUnit()}) binds one EntityManager and transaction for a group of DAL calls. while
+ * it is open every DAL transaction on the thread joins it: beginTransaction and closeTransaction do nothing, commit is
+ * left to the end of the unit and rollback marks the unit for rollback.
+ *
+ * {@link common.EntityManagerFilter} calls {@link #release()} at the end of every request so an EntityManager left
+ * open by a failed request never leaks into the next request served by the same pooled thread.
+ *
+ * @see GenericDAL
+ */
+public final class EntityManagerContext {
+
+    private static final Logger LOG = Logger.getLogger( EntityManagerContext.class.getName() );
+
+    private static final ThreadLocal<Deque<EntityManager>> STACK = ThreadLocal.withInitial( ArrayDeque::new );
+
+    /**
+     * nesting depth of units of work on the current thread, null when no unit is open
+     */
+    private static final ThreadLocal<int[]> UNIT_DEPTH = new ThreadLocal<>();
+
+    private EntityManagerContext() {
+    }
+
+    /**
+     * create a new EntityManager, bind it to the current thread and start its transaction. if the transaction does not
+     * start, e.g. the pool gave no connection, the EntityManager is unbound and closed before the exception is thrown,
+     * so threads without {@link #release()} at the end of their work do not keep it.
+     *
+     * @return the new EntityManager
+     */
+    static EntityManager begin() {
+        EntityManager em = EMFactory.getEMF().createEntityManager();
+        STACK.get().push( em );
+        try {
+            em.getTransaction().begin();
+        } catch( RuntimeException ex ) {
+            try {
+                close();
+            } catch( RuntimeException closeEx ) {
+                ex.addSuppressed( closeEx );
+            }
+            throw ex;
+        }
+        return em;
+    }
+
+    /**
+     * @return EntityManager of the innermost transaction on the current thread
+     * @throws IllegalStateException if no transaction was started on this thread
+     */
+    static EntityManager current() {
+        EntityManager em = STACK.get().peek();
+        if( em == null ){
+            throw new IllegalStateException( "No transaction on this thread, call beginTransaction first" );
+        }
+        return em;
+    }
+
+    /**
+     * unbind and close the EntityManager of the innermost transaction on the current thread. a transaction that was
+     * not committed, i.e. one that only read, is rolled back first. closing an EntityManager does not end its
+     * transaction, so without this the JDBC connection would stay checked out until the pool reclaims it.
+     */
+    static void close() {
+        Deque<EntityManager> stack = STACK.get();
+        EntityManager em = stack.poll();
+        if( stack.isEmpty() ){
+            STACK.remove();
+        }
+        if( em != null && em.isOpen() ){
+            try {
+                if( em.getTransaction().isActive() ){
+                    em.getTransaction().rollback();
+                }
+            } finally {
+                em.close();
+            }
+        }
+    }
+
+    /**
+     * @return true if a transaction was started on this thread and not closed yet
+     */
+    public static boolean isActive() {
+        return !STACK.get().isEmpty();
+    }
+
+    /**
+     * @return true if a unit of work is open on the current thread
+     */
+    public static boolean inUnit() {
+        return UNIT_DEPTH.get() != null;
+    }
+
+    /**
+     * open a unit of work on the current thread, or join the one already open. the outermost call creates the
+     * EntityManager and starts its transaction.
+     */
+    public static void beginUnit() {
+        int[] depth = UNIT_DEPTH.get();
+        if( depth != null ){
+            depth[ 0 ]++;
+            return;
+        }
+        begin();
+        UNIT_DEPTH.set( new int[]{ 1 } );
+    }
+
+    /**
+     * leave the unit of work opened by the matching {@link #beginUnit()}. a failed inner unit marks the whole unit for
+     * rollback, the outermost call commits or rolls back the transaction and closes the EntityManager.
+     *
+     * @param success - false if the work of this unit failed
+     * @return true if this call committed the transaction
+     * @throws IllegalStateException if no unit is open on this thread
+     * @throws RollbackException if the commit fails or an inner call marked the unit for rollback
+     */
+    public static boolean endUnit( boolean success ) {
+        int[] depth = UNIT_DEPTH.get();
+        if( depth == null ){
+            throw new IllegalStateException( "No unit of work on this thread" );
+        }
+        EntityManager em = current();
+        if( --depth[ 0 ] > 0 ){
+            if( !success && em.getTransaction().isActive() ){
+                em.getTransaction().setRollbackOnly();
+            }
+            return false;
+        }
+        UNIT_DEPTH.remove();
+        try {
+            if( !em.getTransaction().isActive() ){
+                return false;
+            }
+            if( !success ){
+                em.getTransaction().rollback();
+                return false;
+            }
+            if( em.getTransaction().getRollbackOnly() ){
+                //an inner unit or DAL call failed and the caller carried on, do not let it believe all was saved
+                em.getTransaction().rollback();
+                throw new RollbackException( "Unit of work was marked for rollback by a failed inner call" );
+            }
+            em.getTransaction().commit();
+            return true;
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * roll back and close every EntityManager still bound to the current thread.
+     *
+     * @return number of EntityManagers that were left open
+     */
+    public static int release() {
+        Deque<EntityManager> stack = STACK.get();
+        int leaked = stack.size();
+        EntityManager em;
+        while( ( em = stack.poll() ) != null ) {
+            try {
+                if( em.isOpen() ){
+                    if( em.getTransaction().isActive() ){
+                        em.getTransaction().rollback();
+                    }
+                    em.close();
+                }
+            } catch( RuntimeException ex ) {
+                LOG.log( Level.WARNING, "Failed to release EntityManager", ex );
+            }
+        }
+        STACK.remove();
+        UNIT_DEPTH.remove();
+        if( leaked > 0 ){
+            LOG.log( Level.WARNING, "Released {0} EntityManager(s) left open on thread {1}",
+                    new Object[]{ leaked, Thread.currentThread().getName() } );
+        }
+        return leaked;
+    }
+}
@@ -1,18 +1,39 @@
-  
 package dal;
 
 import common.EMFactory;
 import entity.DonationRecord;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.NoResultException;
 import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.graph.GraphSemantic;
+import org.hibernate.query.Query;
 
 /**
  *
@@ -21,15 +42,56 @@ import javax.persistence.criteria.CriteriaQuery;
  */
 abstract class GenericDAL<T> implements DataAccessLayer<T> {
 
+    /**
+     * the bound parameters are logged at trace, turn on the "dal" logger in log4j2.xml to see them
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
     /**
      * entity class type of this DAO
      */
     private final Class<T> entityClass;
 
     /**
-     * entity manager used in this DAO
+     * most keys in the IN list of one query
+     */
+    protected static final int IDS_PER_QUERY = 1000;
+
+    /**
+     * name of the entity graph used by queries that load many rows for display, null if none
+     */
+    private final String fetchGraph;
+
+    /**
+     * named queries used by findRows
+     */
+    private final String rowsAscending;
+    private final String rowsDescending;
+
+    /**
+     * names of the queries and writes in {@link QueryMetrics} that are not named queries
+     */
+    private final String findOperation;
+    private final String findAllOperation;
+    private final String findByIdsOperation;
+    private final String findPageOperation;
+    private final String streamOperation;
+    private final String saveOperation;
+    private final String saveAllOperation;
+    private final String updateOperation;
+    private final String deleteOperation;
+
+    /**
+     * true if entityClass is in the second level cache, null until the first named query looks it up. the persistence
+     * unit decides it, so it does not change once known and a race only looks it up twice.
+     */
+    private volatile Boolean cached;
+
+    /**
+     * names of the transaction steps in {@link QueryMetrics}, shared by every DAO
      */
-    private EntityManager em;
+    private static final String BEGIN_OPERATION = "transaction.begin";
+    private static final String COMMIT_OPERATION = "transaction.commit";
 
     /**
      * create a DAO and initialize the Entity class type
@@ -37,38 +99,137 @@ abstract class GenericDAL<T> implements DataAccessLayer<T> {
      * @param entityClass
      */
     GenericDAL( Class<T> entityClass ) {
+        this( entityClass, null );
+    }
+
+    /**
+     * create a DAO whose list queries load the associations named in an entity graph with the same select, so
+     * reading them after the transaction is closed needs no more queries.
+     *
+     * @param entityClass
+     * @param fetchGraph - name of a {@link javax.persistence.NamedEntityGraph} of entityClass
+     */
+    GenericDAL( Class<T> entityClass, String fetchGraph ) {
         this.entityClass = entityClass;
+        this.fetchGraph = fetchGraph;
+        this.rowsAscending = entityClass.getSimpleName() + ".rowsAscending";
+        this.rowsDescending = entityClass.getSimpleName() + ".rowsDescending";
+        this.findOperation = entityClass.getSimpleName() + ".find";
+        this.findAllOperation = entityClass.getSimpleName() + ".findAllCQ";
+        this.findByIdsOperation = entityClass.getSimpleName() + ".findByIds";
+        this.findPageOperation = entityClass.getSimpleName() + ".findPage";
+        this.streamOperation = entityClass.getSimpleName() + ".streamAll";
+        this.saveOperation = entityClass.getSimpleName() + ".save";
+        this.saveAllOperation = entityClass.getSimpleName() + ".saveAll";
+        this.updateOperation = entityClass.getSimpleName() + ".update";
+        this.deleteOperation = entityClass.getSimpleName() + ".delete";
     }
 
     /**
-     * start the transaction.
+     * load the associations of the fetch graph given to the constructor with this query, if there is one.
+     *
+     * @param query - query returning entities of this DAO
+     * @param em - entity manager the query was created with
+     */
+    private void applyFetchGraph( TypedQuery<T> query, EntityManager em ) {
+        if( fetchGraph != null ){
+            query.setHint( GraphSemantic.FETCH.getJpaHintName(), em.getEntityGraph( fetchGraph ) );
+        }
+    }
+
+    /**
+     * run one query or write of the DAL and record its time in {@link QueryMetrics}. a query finding no row is not an
+     * error.
+     *
+     * @param <R> - type of the result
+     * @param operation - named query or name of the operation
+     * @param parameters - logged if the call is slow, may be null
+     * @param call - the query or write
+     * @return result of call
+     */
+    protected <R> R timed( String operation, Object parameters, Supplier<R> call ) {
+        long start = System.nanoTime();
+        boolean done = false;
+        try {
+            R result = call.get();
+            done = true;
+            return result;
+        } catch( NoResultException e ) {
+            done = true;
+            throw e;
+        } finally {
+            QueryMetrics.record( operation, start, parameters, !done );
+        }
+    }
+
+    /**
+     * same as {@link #timed(String, Object, Supplier)} for a call with no result
+     */
+    protected void timed( String operation, Object parameters, Runnable call ) {
+        timed( operation, parameters, () -> {
+            call.run();
+            return null;
+        } );
+    }
+
+    /**
+     * entity manager of the transaction running on the current thread. it is not kept in a field so the same DAO can
+     * be used by many threads at once.
+     *
+     * @return current entity manager
+     * @see EntityManagerContext
+     */
+    protected EntityManager em() {
+        return EntityManagerContext.current();
+    }
+
+    /**
+     * start the transaction. inside a unit of work the transaction of the unit is used instead.
      */
     public void beginTransaction() {
-        // get an entity manager from the factory
-        em = EMFactory.getEMF().createEntityManager();
-        //start the transaction
-        em.getTransaction().begin();
+        if( EntityManagerContext.inUnit() ){
+            return;
+        }
+        // get an entity manager from the factory, bind it to this thread and start the transaction
+        timed( BEGIN_OPERATION, null, () -> {
+            EntityManagerContext.begin();
+        } );
     }
 
     /**
-     * commit changes to theDB
+     * commit changes to theDB. inside a unit of work the commit is left to the end of the unit.
      */
     public void commit() {
-        em.getTransaction().commit();
+        if( EntityManagerContext.inUnit() ){
+            return;
+        }
+        timed( COMMIT_OPERATION, null, () -> em().getTransaction().commit() );
     }
 
     /**
-     * roll back the changed before the commit
+     * roll back the changed before the commit. does nothing if the transaction is no longer active, for example when
+     * a failed commit already rolled it back. inside a unit of work the whole unit is marked for rollback.
      */
     public void rollback() {
-        em.getTransaction().rollback();
+        EntityManager em = em();
+        if( !em.getTransaction().isActive() ){
+            return;
+        }
+        if( EntityManagerContext.inUnit() ){
+            em.getTransaction().setRollbackOnly();
+        } else {
+            em.getTransaction().rollback();
+        }
     }
 
     /**
-     * close the transaction and entity manager
+     * close the transaction and entity manager. inside a unit of work they stay open until the end of the unit.
      */
     public void closeTransaction() {
-        em.close();
+        if( EntityManagerContext.inUnit() ){
+            return;
+        }
+        EntityManagerContext.close();
     }
 
     /**
@@ -85,7 +246,31 @@ abstract class GenericDAL<T> implements DataAccessLayer<T> {
      * @param entity - entity object to be saved before commit
      */
     public void save( T entity ) {
-        em.persist( entity );
+        timed( saveOperation, null, () -> em().persist( entity ) );
+    }
+
+    /**
+     * save all entities, flushing and clearing the entity manager every batchSize entities.
+     *
+     * @param entities - new entity objects to be saved before commit
+     * @param batchSize - number of entities per flush
+     */
+    public void saveAll( Collection<T> entities, int batchSize ) {
+        if( batchSize < 1 ){
+            throw new IllegalArgumentException( "batchSize must be positive: " + batchSize );
+        }
+        timed( saveAllOperation, null, () -> {
+            EntityManager em = em();
+            int count = 0;
+            for( T entity: entities ) {
+                em.persist( entity );
+                if( ++count % batchSize == 0 ){
+                    //send this batch to the DB and forget about it so the persistence context does not keep growing
+                    em.flush();
+                    em.clear();
+                }
+            }
+        } );
     }
 
     /**
@@ -95,7 +280,7 @@ abstract class GenericDAL<T> implements DataAccessLayer<T> {
      * @return persistence instate of given entity
      */
     public T update( T entity ) {
-        return em.<T>merge( entity );
+        return timed( updateOperation, null, () -> em().<T>merge( entity ) );
     }
 
     /**
@@ -104,14 +289,51 @@ abstract class GenericDAL<T> implements DataAccessLayer<T> {
      * @param entity - entity object to be removed
      */
     public void delete( T entity ) {
-        //by merging this entity is tracked by entitymanger and if needed it can cascade remove
-        T entityToBeRemoved = em.<T>merge( entity );
-        //remove entity
-        em.remove( entityToBeRemoved );
+        timed( deleteOperation, null, () -> {
+            //by merging this entity is tracked by entitymanger and if needed it can cascade remove
+            T entityToBeRemoved = em().<T>merge( entity );
+            //remove entity
+            em().remove( entityToBeRemoved );
+        } );
     }
 
     public void detach( T entity ) {
-        em.detach( entity );
+        em().detach( entity );
+    }
+
+    /**
+     * remove this entity from the second level cache. hibernate already refreshes the cached copy when a change is
+     * committed, evicting it as well means the next read comes from the DB and sees any value the DB set itself.
+     *
+     * @param entity - entity to be evicted
+     */
+    public void evict( T entity ) {
+        EntityManagerFactory emf = EMFactory.getEMF();
+        Object id = emf.getPersistenceUnitUtil().getIdentifier( entity );
+        if( id != null ){
+            emf.getCache().evict( entityClass, id );
+        }
+    }
+
+    /**
+     * @param entity - entity of this table
+     * @return primary key of the entity, null if it has none yet
+     */
+    public Integer getId( T entity ) {
+        return (Integer)EMFactory.getEMF().getPersistenceUnitUtil().getIdentifier( entity );
+    }
+
+    /**
+     * @return true if this entity is listed for the second level cache in persistence.xml
+     */
+    private boolean isCached( EntityManager em ) {
+        Boolean result = cached;
+        if( result == null ){
+            result = em.getEntityManagerFactory().unwrap( SessionFactoryImplementor.class )
+                    .getMetamodel().entityPersister( entityClass ).canReadFromCache();
+            cached = result;
+        }
+        return result;
     }
 
     /**
@@ -121,7 +343,7 @@ abstract class GenericDAL<T> implements DataAccessLayer<T> {
      * @return entity object or null of not found
      */
     public T find( Object entityID ) {
-        return em.<T>find( entityClass, entityID );
+        return timed( findOperation, entityID, () -> em().<T>find( entityClass, entityID ) );
     }
 
     /**
@@ -130,12 +352,186 @@ abstract class GenericDAL<T> implements DataAccessLayer<T> {
      * @return list of all rows
      */
     public List<T> findAllCQ() {
-        //using the builder create a CriteriaQuery of type entityClass
-        CriteriaQuery<T> cq = em.getCriteriaBuilder().<T>createQuery( entityClass );
-        //select everything form entityClass
+        return timed( findAllOperation, null, () -> {
+            EntityManager em = em();
+            //using the builder create a CriteriaQuery of type entityClass
+            CriteriaQuery<T> cq = em.getCriteriaBuilder().<T>createQuery( entityClass );
+            //select everything form entityClass
+            cq.select( cq.<T>from( entityClass ) );
+            //create the query based on CriteriaQuery, exeucte and return the results
+            return em.<T>createQuery( cq ).getResultList();
+        } );
+    }
+
+    /**
+     * get the rows with one of the given keys, IN lists are split so no query has more than {@value #IDS_PER_QUERY}
+     * keys. the associations of the fetch graph are loaded with them.
+     *
+     * @param ids - primary keys
+     * @return rows ordered by primary key
+     */
+    public List<T> findByIds( int[] ids ) {
+        List<T> result = new ArrayList<>( ids.length );
+        if( ids.length == 0 ){
+            return result;
+        }
+        EntityManager em = em();
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        int[] sorted = ids.clone();
+        Arrays.sort( sorted );
+        for( int from = 0; from < sorted.length; from += IDS_PER_QUERY ) {
+            int to = Math.min( from + IDS_PER_QUERY, sorted.length );
+            CriteriaQuery<T> cq = cb.<T>createQuery( entityClass );
+            Root<T> root = cq.<T>from( entityClass );
+            Path<Integer> id = root.get( em.getMetamodel().entity( entityClass ).getId( Integer.class ) );
+            cq.select( root )
+                    .where( id.in( Arrays.stream( sorted, from, to ).boxed().collect( Collectors.toList() ) ) )
+                    .orderBy( cb.asc( id ) );
+            TypedQuery<T> query = em.<T>createQuery( cq );
+            applyFetchGraph( query, em );
+            result.addAll( timed( findByIdsOperation, null, query::getResultList ) );
+        }
+        return result;
+    }
+
+    /**
+     * tables without a FULLTEXT index are searched with findContaining.
+     *
+     * @param search - text to find
+     * @return matching rows
+     */
+    public List<T> findFullText( String search ) {
+        return findContaining( search );
+    }
+
+    /**
+     * search the FULLTEXT index of this table for rows containing the text. the named native query gets the text as a
+     * quoted phrase in the parameter "search" and selects only primary keys, the rows are then loaded with
+     * {@link #findByIds(int[])} so they come with their fetch graph. text shorter than the ngram token size, 2 by
+     * default, has no token in the index and is searched with findContaining.
+     *
+     * @param namedNativeQuery - name of a native query returning the primary keys matching :search
+     * @param search - text to find
+     * @return matching rows
+     */
+    protected List<T> findFullText( String namedNativeQuery, String search ) {
+        //quotes would end the phrase, boolean operators inside a phrase are plain text
+        String text = search == null ? "" : search.replace( "\"", " " ).trim();
+        if( text.length() < 2 ){
+            return findContaining( search );
+        }
+        List<?> keys = timed( namedNativeQuery, text, () -> em().createNamedQuery( namedNativeQuery )
+                .setParameter( "search", '"' + text + '"' )
+                .getResultList() );
+        int[] ids = new int[ keys.size() ];
+        for( int i = 0; i < ids.length; i++ ) {
+            ids[ i ] = ( (Number)keys.get( i ) ).intValue();
+        }
+        return findByIds( ids );
+    }
+
+    /**
+     * get one page of rows ordered by primary key using keyset pagination.
+     *
+     * @param afterId - primary key to continue from (exclusive), null to start at the beginning (or end) of the table
+     * @param limit - maximum number of rows in the page
+     * @param sort - direction of the walk over the primary key
+     * @return list of at most limit rows
+     */
+    public List<T> findPage( Integer afterId, int limit, SortOrder sort ) {
+        EntityManager em = em();
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<T> cq = cb.<T>createQuery( entityClass );
+        Root<T> root = cq.<T>from( entityClass );
+        //all entities in this project use an Integer primary key, the name of it comes from the metamodel
+        Path<Integer> id = root.get( em.getMetamodel().entity( entityClass ).getId( Integer.class ) );
+        boolean ascending = sort != SortOrder.DESCENDING;
+        if( afterId != null ){
+            cq.where( ascending ? cb.greaterThan( id, afterId ) : cb.lessThan( id, afterId ) );
+        }
+        cq.select( root ).orderBy( ascending ? cb.asc( id ) : cb.desc( id ) );
+        TypedQuery<T> query = em.<T>createQuery( cq ).setMaxResults( limit );
+        applyFetchGraph( query, em );
+        return timed( findPageOperation, afterId, query::getResultList );
+    }
+
+    /**
+     * get one page of rows ordered by primary key as column values.
+     *
+     * @param afterId - primary key to continue from (exclusive), null to start at the beginning (or end) of the table
+     * @param limit - maximum number of rows in the page
+     * @param sort - direction of the walk over the primary key
+     * @return list of at most limit rows
+     */
+    public List<Object[]> findRows( Integer afterId, int limit, SortOrder sort ) {
+        boolean ascending = sort != SortOrder.DESCENDING;
+        //all keys are positive AUTO_INCREMENT values, so the first page starts past either end
+        int after = afterId != null ? afterId : ascending ? 0 : Integer.MAX_VALUE;
+        String namedQuery = ascending ? rowsAscending : rowsDescending;
+        return timed( namedQuery, after, () -> em().createNamedQuery( namedQuery, Object[].class )
+                .setParameter( "afterId", after )
+                .setMaxResults( limit )
+                .getResultList() );
+    }
+
+    /**
+     * walk all rows of this table through a forward only JDBC cursor, clearing the entity manager every fetchSize
+     * rows.
+     *
+     * @param fetchSize - number of rows fetched per round trip and kept in the entity manager at once
+     * @return lazy stream of all rows, close it to release the cursor
+     * @throws IllegalStateException if called inside a unit of work
+     */
+    public Stream<T> streamAll( int fetchSize ) {
+        if( fetchSize < 1 ){
+            throw new IllegalArgumentException( "fetchSize must be positive: " + fetchSize );
+        }
+        if( EntityManagerContext.inUnit() ){
+            throw new IllegalStateException( "streamAll clears the EntityManager, it cannot run inside a unit of work" );
+        }
+        final EntityManager manager = em();
+        CriteriaQuery<T> cq = manager.getCriteriaBuilder().<T>createQuery( entityClass );
         cq.select( cq.<T>from( entityClass ) );
-        //create the query based on CriteriaQuery, exeucte and return the results
-        return em.<T>createQuery( cq ).getResultList();
+        @SuppressWarnings( "unchecked" )
+        Query<T> query = manager.<T>createQuery( cq ).unwrap( Query.class );
+        applyFetchGraph( query, manager );
+        //read only entities have no dirty checking snapshot and the cache is not filled with every row of the table
+        query.setReadOnly( true );
+        query.setCacheMode( CacheMode.IGNORE );
+        query.setFetchSize( fetchSize );
+        //only opening the cursor is timed, the rows are read as the caller walks the stream
+        ScrollableResults results = timed( streamOperation, null, () -> query.scroll( ScrollMode.FORWARD_ONLY ) );
+        Iterator<T> iterator = new Iterator<T>() {
+            private int count;
+            private boolean advanced;
+            private boolean hasNext;
+
+            @Override
+            public boolean hasNext() {
+                if( !advanced ){
+                    //detach the previous batch before the cursor loads the first row of the next one
+                    if( count > 0 && count % fetchSize == 0 ){
+                        manager.clear();
+                    }
+                    hasNext = results.next();
+                    advanced = true;
+                }
+                return hasNext;
+            }
+
+            @Override
+            @SuppressWarnings( "unchecked" )
+            public T next() {
+                if( !hasNext() ){
+                    throw new NoSuchElementException();
+                }
+                advanced = false;
+                count++;
+                return (T)results.get( 0 );
+            }
+        };
+        return StreamSupport.stream( Spliterators.spliteratorUnknownSize( iterator, Spliterator.ORDERED | Spliterator.NONNULL ), false )
+                .onClose( results::close );
     }
 
     /**
@@ -147,18 +543,35 @@ abstract class GenericDAL<T> implements DataAccessLayer<T> {
      * @return one result
      */
     protected T findResult( String namedQuery, Map<String, Object> parameters ) {
+        return findResult( namedQuery, parameters, false );
+    }
+
+    /**
+     * find one result using the named query and given parameters, timed in {@link QueryMetrics} under the name of the
+     * query
+     *
+     * @param namedQuery - named query defined in entity class
+     * @param parameters - parameters to be set in named query, a map of keys (name place holder in named query) and
+     * value (value to replace the place holder in named query)
+     * @param withFetchGraph - true to load the associations of the fetch graph of this DAO in the same select, use it
+     * when the caller reads them after the transaction is closed
+     * @return one result
+     */
+    protected T findResult( String namedQuery, Map<String, Object> parameters, boolean withFetchGraph ) {
         T result = null;
         try {
             TypedQuery<T> query = checkCreateAndSetTypedQuery( namedQuery );
             query = setParameters( query, parameters );
+            if( withFetchGraph ){
+                applyFetchGraph( query, em() );
+            }
 
-            result = query.getSingleResult();
+            result = timed( namedQuery, parameters, query::getSingleResult );
 
         } catch( NoResultException e ) {
-            String message = "No result found for named query: " + namedQuery;
-            Logger.getLogger( GenericDAL.class.getName() ).log( Level.WARNING, message, e );
+            LOG.warn( "No result found for named query: {}", namedQuery, e );
         } catch( Exception e ) {
-            Logger.getLogger( GenericDAL.class.getName() ).log( Level.SEVERE, null, e );
+            LOG.error( "Named query failed: {}", namedQuery, e );
         }
         return result;
     }
@@ -172,17 +585,34 @@ abstract class GenericDAL<T> implements DataAccessLayer<T> {
      * @return List result
      */
     protected List<T> findResults( String namedQuery, Map<String, Object> parameters ) {
+        return findResults( namedQuery, parameters, false );
+    }
+
+    /**
+     * find list of results using the named query and given parameters, timed in {@link QueryMetrics} under the name of
+     * the query
+     *
+     * @param namedQuery - named query defined in entity class
+     * @param parameters - parameters to be set in named query, a map of keys (name place holder in named query) and
+     * value (value to replace the place holder in named query)
+     * @param withFetchGraph - true to load the associations of the fetch graph of this DAO in the same select, use it
+     * for results that are shown in tables
+     * @return List result
+     */
+    protected List<T> findResults( String namedQuery, Map<String, Object> parameters, boolean withFetchGraph ) {
         List<T> result = null;
         try {
             TypedQuery<T> query = checkCreateAndSetTypedQuery( namedQuery );
             query = setParameters( query, parameters );
+            if( withFetchGraph ){
+                applyFetchGraph( query, em() );
+            }
 
-            result = query.getResultList();
+            result = timed( namedQuery, parameters, query::getResultList );
         } catch( NoResultException e ) {
-            String message = "No result found for named query: " + namedQuery;
-            Logger.getLogger( GenericDAL.class.getName() ).log( Level.WARNING, message, e );
+            LOG.warn( "No result found for named query: {}", namedQuery, e );
         } catch( Exception e ) {
-            Logger.getLogger( GenericDAL.class.getName() ).log( Level.SEVERE, null, e );
+            LOG.error( "Named query failed: {}", namedQuery, e );
         }
         if( result == null ) {
             result = Collections.emptyList();
@@ -198,11 +628,18 @@ abstract class GenericDAL<T> implements DataAccessLayer<T> {
      */
     private TypedQuery<T> checkCreateAndSetTypedQuery( String namedQuery ) {
         Objects.requireNonNull( namedQuery, "named query cannot be null" );
-        return em.<T>createNamedQuery( namedQuery, entityClass );
+        EntityManager em = em();
+        TypedQuery<T> query = em.<T>createNamedQuery( namedQuery, entityClass );
+        //results of cached entities go to the query cache, hibernate drops them whenever the table changes
+        if( isCached( em ) ){
+            query.setHint( QueryHints.CACHEABLE, true );
+        }
+        return query;
     }
 
     /**
-     * if parameters is not null or empty add to query
+     * if parameters is not null or empty add to query. the level is checked once so nothing is built for the log when
+     * trace is off.
      *
      * @param query - query to be modified
      * @param parameters - parameters to be set in named query, a map of keys (name place holder in named query) and
@@ -211,10 +648,13 @@ abstract class GenericDAL<T> implements DataAccessLayer<T> {
      */
     private TypedQuery<T> setParameters( TypedQuery<T> query, Map<String, Object> parameters ) {
         if( parameters != null && !parameters.isEmpty() ){
-            parameters.entrySet().forEach( ( entry ) -> {
-                Logger.getLogger( getClass().getName() ).log( Level.INFO, "setParameters: {0}", new String[]{ entry.toString() } );
+            boolean trace = LOG.isTraceEnabled();
+            for( Map.Entry<String, Object> entry: parameters.entrySet() ) {
+                if( trace ){
+                    LOG.trace( "setParameters: {} = {}", entry.getKey(), entry.getValue() );
+                }
                 query.setParameter( entry.getKey(), entry.getValue() );
-            } );
+            }
         }
         return query;
     }
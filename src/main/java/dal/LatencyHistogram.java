@@ -0,0 +1,81 @@
+package dal;
+
+import java.io.PrintWriter;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * histogram of elapsed times with {@value #BUCKETS} buckets, bucket k counts the times of at most 2^(k+10) nanoseconds,
+ * about 1 microsecond to 17 seconds, and the last one counts the rest. the bucket is found with one
+ * numberOfLeadingZeros and the counters are {@link LongAdder}s, so recording takes no lock and allocates nothing.
+ */
+final class LatencyHistogram {
+
+    /**
+     * buckets of each histogram, the last one has no upper bound
+     */
+    static final int BUCKETS = 26;
+
+    /**
+     * bucket 0 ends at 2^FIRST_BUCKET_SHIFT nanoseconds
+     */
+    private static final int FIRST_BUCKET_SHIFT = 10;
+
+    private final LongAdder[] buckets = new LongAdder[ BUCKETS ];
+    private final LongAdder nanos = new LongAdder();
+
+    LatencyHistogram() {
+        for( int i = 0; i < BUCKETS; i++ ) {
+            buckets[ i ] = new LongAdder();
+        }
+    }
+
+    void record( long elapsed ) {
+        buckets[ bucket( elapsed ) ].increment();
+        nanos.add( elapsed );
+    }
+
+    /**
+     * @return number of times recorded
+     */
+    long count() {
+        long count = 0;
+        for( LongAdder bucket: buckets ) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * @param nanos - elapsed time
+     * @return index of the bucket counting nanos
+     */
+    static int bucket( long nanos ) {
+        if( nanos <= 1L << FIRST_BUCKET_SHIFT ){
+            return 0;
+        }
+        //ceiling of log2, 2^k is the upper bound of bucket k - FIRST_BUCKET_SHIFT
+        int index = Long.SIZE - Long.numberOfLeadingZeros( nanos - 1 ) - FIRST_BUCKET_SHIFT;
+        return Math.min( index, BUCKETS - 1 );
+    }
+
+    /**
+     * print the buckets, sum and count lines of a Prometheus histogram in seconds
+     *
+     * @param out - where the lines are printed, they end with \n as the format requires
+     * @param name - name of the histogram
+     * @param labels - labels of every line without braces, like operation="Person.findById", or empty for none
+     */
+    void write( PrintWriter out, String name, String labels ) {
+        String bucketLabels = labels.isEmpty() ? "{" : "{" + labels + ",";
+        String otherLabels = labels.isEmpty() ? "" : "{" + labels + "}";
+        //count is the sum of the buckets so the +Inf bucket and the count always agree
+        long count = 0;
+        for( int i = 0; i < BUCKETS; i++ ) {
+            count += buckets[ i ].sum();
+            String le = i == BUCKETS - 1 ? "+Inf" : Double.toString( ( 1L << ( i + FIRST_BUCKET_SHIFT ) ) / 1e9 );
+            out.printf( "%s_bucket%sle=\"%s\"} %d\n", name, bucketLabels, le, count );
+        }
+        out.printf( "%s_sum%s %s\n", name, otherLabels, Double.toString( nanos.sum() / 1e9 ) );
+        out.printf( "%s_count%s %d\n", name, otherLabels, count );
+    }
+}
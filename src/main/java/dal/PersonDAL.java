@@ -13,7 +13,7 @@ import java.util.Date;
 public class PersonDAL extends GenericDAL<Person> {
 
     public PersonDAL() {
-        super(Person.class);
+        super(Person.class, "Person.withBloodBank");
     }
 
     /**
@@ -24,7 +24,7 @@ public class PersonDAL extends GenericDAL<Person> {
      */
     @Override
     public List<Person> findAll() {
-        return findResults("Person.findAll", null);
+        return findResults("Person.findAll", null, true);
     }
     /**
      * parameter names "id" and value is put to map
@@ -95,7 +95,16 @@ public class PersonDAL extends GenericDAL<Person> {
     public List<Person> findContaining(String search) {
         Map<String, Object> map = new HashMap<>();
         map.put("search", search);
-        return findResults("Person.findContaining", map);
+        return findResults("Person.findContaining", map, true);
     }
 
+    /**
+    * search the FULLTEXT index of first name, last name and phone
+    * @param search
+    * @return Persons with a name or phone containing the String
+    */
+    @Override
+    public List<Person> findFullText(String search) {
+        return findFullText("Person.fullTextIds", search);
+    }
 }
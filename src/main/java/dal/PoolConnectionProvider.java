@@ -0,0 +1,45 @@
+package dal;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import org.hibernate.engine.jdbc.connections.internal.DatasourceConnectionProviderImpl;
+
+/**
+ * connections of the non-jta-data-source, like the default provider of hibernate, with every checkout and return
+ * reported to {@link PoolMetrics}. set by hibernate.connection.provider_class in persistence.xml.
+ */
+public class PoolConnectionProvider extends DatasourceConnectionProviderImpl {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    @SuppressWarnings( "rawtypes" )
+    public void configure( Map configValues ) {
+        super.configure( configValues );
+        PoolMetrics.register( getDataSource() );
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection;
+        try {
+            connection = super.getConnection();
+        } catch( SQLException | RuntimeException ex ) {
+            PoolMetrics.checkoutFailed( start );
+            throw ex;
+        }
+        PoolMetrics.checkedOut( start );
+        return connection;
+    }
+
+    @Override
+    public void closeConnection( Connection connection ) throws SQLException {
+        try {
+            super.closeConnection( connection );
+        } finally {
+            PoolMetrics.checkedIn();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package dal;
+
+import java.io.PrintWriter;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+import org.apache.tomcat.jdbc.pool.DataSourceProxy;
+
+/**
+ * telemetry of the jdbc/SimpleBloodBank connection pool. {@link PoolConnectionProvider} reports every connection
+ * hibernate takes from the pool and gives back, from which the time spent waiting for a connection, the connections
+ * in use at once and the checkouts per request are kept. a request is only counted if it took a connection, on its own
+ * thread or on the executor threads working for it, see {@link RequestUsage}. the live counts of the pool, active,
+ * idle and waiting threads, are read from the tomcat pool when /metrics is asked.
+ * <p>
+ * {@link #advise()} turns the connections used at once into pool limits, so context.xml can be tuned from what the
+ * application really needs instead of guesses.
+ */
+public final class PoolMetrics {
+
+    /**
+     * head room over the most connections ever in use at once, for bursts not seen yet
+     */
+    private static final double HEADROOM = 1.5;
+
+    private static final long STARTED = System.nanoTime();
+
+    private static final LatencyHistogram WAIT = new LatencyHistogram();
+    private static final LongAdder FAILURES = new LongAdder();
+    private static final LongAdder REQUESTS = new LongAdder();
+    private static final LongAdder REQUEST_CHECKOUTS = new LongAdder();
+
+    /**
+     * request the connections taken by the thread are counted for, null when the thread is not serving one
+     */
+    private static final ThreadLocal<RequestUsage> CURRENT = new ThreadLocal<>();
+
+    /**
+     * sums of the times, since STARTED, connections were taken and given back. the busy time of all connections is
+     * returned - taken + in use * now, the sums may overflow but their difference does not.
+     */
+    private static final LongAdder TAKEN_AT = new LongAdder();
+    private static final LongAdder RETURNED_AT = new LongAdder();
+
+    private static final AtomicInteger IN_USE = new AtomicInteger();
+    private static final AtomicInteger PEAK = new AtomicInteger();
+
+    private static volatile DataSource dataSource;
+
+    private PoolMetrics() {
+    }
+
+    /**
+     * @param source - data source hibernate takes its connections from
+     */
+    static void register( DataSource source ) {
+        dataSource = source;
+    }
+
+    /**
+     * @param start - {@link System#nanoTime()} before the connection was asked for
+     */
+    static void checkedOut( long start ) {
+        long now = System.nanoTime();
+        WAIT.record( now - start );
+        TAKEN_AT.add( now - STARTED );
+        RequestUsage usage = CURRENT.get();
+        if( usage != null ){
+            usage.checkouts.incrementAndGet();
+        }
+        int inUse = IN_USE.incrementAndGet();
+        if( inUse > PEAK.get() ){
+            PEAK.accumulateAndGet( inUse, Math::max );
+        }
+    }
+
+    /**
+     * the pool gave no connection, most likely maxWait passed
+     *
+     * @param start - {@link System#nanoTime()} before the connection was asked for
+     */
+    static void checkoutFailed( long start ) {
+        WAIT.record( System.nanoTime() - start );
+        FAILURES.increment();
+    }
+
+    static void checkedIn() {
+        RETURNED_AT.add( System.nanoTime() - STARTED );
+        IN_USE.decrementAndGet();
+    }
+
+    /**
+     * count the connections this thread takes from now on for a new request
+     *
+     * @return usage of the request, give it to {@link #requestDone(RequestUsage)} once the request is over
+     */
+    public static RequestUsage requestStarted() {
+        RequestUsage usage = new RequestUsage();
+        CURRENT.set( usage );
+        return usage;
+    }
+
+    /**
+     * @return usage of the request this thread is serving, null if none
+     */
+    public static RequestUsage currentRequest() {
+        return CURRENT.get();
+    }
+
+    /**
+     * count the connections this thread takes for usage, for work done for a request on another thread
+     *
+     * @param usage - request to count for, null to stop counting
+     */
+    public static void setCurrentRequest( RequestUsage usage ) {
+        if( usage == null ){
+            CURRENT.remove();
+        } else {
+            CURRENT.set( usage );
+        }
+    }
+
+    /**
+     * count the request if it took a connection. call it once all the work of the request is done, for an async
+     * request that is when it completes.
+     *
+     * @param usage - returned by {@link #requestStarted()}
+     */
+    public static void requestDone( RequestUsage usage ) {
+        int checkouts = usage.checkouts.get();
+        if( checkouts > 0 ){
+            REQUESTS.increment();
+            REQUEST_CHECKOUTS.add( checkouts );
+        }
+    }
+
+    /**
+     * @return requests counted by {@link #requestDone(RequestUsage)} since the start
+     */
+    static long requests() {
+        return REQUESTS.sum();
+    }
+
+    /**
+     * @return the most connections in use at once since the start
+     */
+    static int peakInUse() {
+        return PEAK.get();
+    }
+
+    /**
+     * @return connections in use on average since the start, the busy time of all connections over the uptime
+     */
+    static double averageInUse() {
+        long now = System.nanoTime() - STARTED;
+        if( now <= 0 ){
+            return 0;
+        }
+        long busy = RETURNED_AT.sum() - TAKEN_AT.sum() + IN_USE.get() * now;
+        return Math.max( 0, busy ) / (double) now;
+    }
+
+    /**
+     * @return limits for the pool from what was used since the start, null if no connection was taken yet
+     */
+    public static Advice advise() {
+        return advise( peakInUse(), averageInUse() );
+    }
+
+    /**
+     * @param peak - most connections in use at once
+     * @param average - connections in use on average
+     * @return limits for the pool, null if peak is zero
+     */
+    static Advice advise( int peak, double average ) {
+        if( peak < 1 ){
+            return null;
+        }
+        //keep warm what is used all the time, keep idle what a burst used and allow more than the biggest burst
+        int minIdle = Math.max( 1, (int) Math.ceil( average ) );
+        int maxIdle = Math.max( minIdle, peak );
+        int maxActive = Math.max( maxIdle + 1, (int) Math.ceil( peak * HEADROOM ) );
+        return new Advice( minIdle, maxIdle, maxActive );
+    }
+
+    /**
+     * @param out - where the pool gauges, the wait histogram, the counters and the advice are printed, lines end with
+     * \n as the format requires
+     */
+    public static void writePrometheus( PrintWriter out ) {
+        DataSource source = dataSource;
+        if( source instanceof DataSourceProxy ){
+            DataSourceProxy pool = (DataSourceProxy) source;
+            gauge( out, "db_pool_active", "Connections of the pool in use.", pool.getActive() );
+            gauge( out, "db_pool_idle", "Connections of the pool waiting to be used.", pool.getIdle() );
+            gauge( out, "db_pool_waiters", "Threads waiting for a connection.", pool.getWaitCount() );
+            gauge( out, "db_pool_max_active", "maxActive of the pool.", pool.getMaxActive() );
+            gauge( out, "db_pool_min_idle", "minIdle of the pool.", pool.getMinIdle() );
+            gauge( out, "db_pool_max_idle", "maxIdle of the pool.", pool.getMaxIdle() );
+        }
+        out.print( "# HELP db_pool_wait_seconds Time hibernate waited for a connection of the pool.\n" );
+        out.print( "# TYPE db_pool_wait_seconds histogram\n" );
+        WAIT.write( out, "db_pool_wait_seconds", "" );
+        long checkouts = WAIT.count() - FAILURES.sum();
+        long requests = REQUESTS.sum();
+        counter( out, "db_pool_checkouts_total", "Connections hibernate took from the pool.", checkouts );
+        counter( out, "db_pool_checkout_failures_total", "Times the pool gave no connection.", FAILURES.sum() );
+        counter( out, "db_pool_requests_total", "Requests served since the start that took a connection.", requests );
+        gauge( out, "db_pool_checkouts_per_request", "Connections taken per request that took one.",
+                requests == 0 ? 0 : REQUEST_CHECKOUTS.sum() / (double) requests );
+        gauge( out, "db_pool_in_use_peak", "Most connections in use at once since the start.", peakInUse() );
+        gauge( out, "db_pool_in_use_average", "Connections in use on average since the start.", averageInUse() );
+        Advice advice = advise();
+        if( advice != null ){
+            gauge( out, "db_pool_advised_min_idle", "minIdle advised from the connections used.", advice.getMinIdle() );
+            gauge( out, "db_pool_advised_max_idle", "maxIdle advised from the connections used.", advice.getMaxIdle() );
+            gauge( out, "db_pool_advised_max_active", "maxActive advised from the connections used.",
+                    advice.getMaxActive() );
+        }
+    }
+
+    private static void gauge( PrintWriter out, String name, String help, double value ) {
+        out.printf( "# HELP %s %s\n# TYPE %s gauge\n%s %s\n", name, help, name, name, Double.toString( value ) );
+    }
+
+    private static void counter( PrintWriter out, String name, String help, long value ) {
+        out.printf( "# HELP %s %s\n# TYPE %s counter\n%s %d\n", name, help, name, name, value );
+    }
+
+    /**
+     * connections taken while one request is served. it is shared by the container thread and the executor threads
+     * working for the request, so it is counted atomically.
+     */
+    public static final class RequestUsage {
+
+        private final AtomicInteger checkouts = new AtomicInteger();
+
+        RequestUsage() {
+        }
+    }
+
+    /**
+     * limits of the pool advised by {@link PoolMetrics#advise()}, named like the attributes of context.xml
+     */
+    public static final class Advice {
+
+        private final int minIdle;
+        private final int maxIdle;
+        private final int maxActive;
+
+        Advice( int minIdle, int maxIdle, int maxActive ) {
+            this.minIdle = minIdle;
+            this.maxIdle = maxIdle;
+            this.maxActive = maxActive;
+        }
+
+        public int getMinIdle() {
+            return minIdle;
+        }
+
+        public int getMaxIdle() {
+            return maxIdle;
+        }
+
+        public int getMaxActive() {
+            return maxActive;
+        }
+
+        @Override
+        public String toString() {
+            return "minIdle=" + minIdle + ", maxIdle=" + maxIdle + ", maxActive=" + maxActive;
+        }
+    }
+}
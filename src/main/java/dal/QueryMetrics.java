@@ -0,0 +1,92 @@
+package dal;
+
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * latency, count and errors of every query, write and transaction of {@link GenericDAL} and its subclasses, all sent
+ * through GenericDAL.timed. kept in memory from the start of the application and printed in the Prometheus text format
+ * by view.MetricsView.
+ * <p>
+ * each operation has a {@link LatencyHistogram} and an error counter, so recording costs two nanoTime calls, one map
+ * lookup and two adds, and threads do not wait on each other.
+ * <p>
+ * an operation slower than the slow query threshold is logged at warn with its parameters.
+ */
+public final class QueryMetrics {
+
+    private static final Logger LOG = LogManager.getLogger();
+
+    private static final long DEFAULT_SLOW_MILLIS = 1000;
+
+    private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+
+    private static volatile long slowNanos = TimeUnit.MILLISECONDS.toNanos( DEFAULT_SLOW_MILLIS );
+
+    private QueryMetrics() {
+    }
+
+    /**
+     * @param millis - operations taking longer are logged, zero or less logs none
+     */
+    public static void setSlowQueryMillis( long millis ) {
+        slowNanos = millis > 0 ? TimeUnit.MILLISECONDS.toNanos( millis ) : Long.MAX_VALUE;
+    }
+
+    /**
+     * @param operation - named query or name of the operation
+     * @param start - {@link System#nanoTime()} when the operation started
+     * @param parameters - logged with a slow operation, may be null
+     * @param failed - true if the operation threw
+     */
+    public static void record( String operation, long start, Object parameters, boolean failed ) {
+        long elapsed = System.nanoTime() - start;
+        Timer timer = TIMERS.get( operation );
+        if( timer == null ){
+            timer = TIMERS.computeIfAbsent( operation, name -> new Timer() );
+        }
+        timer.histogram.record( elapsed );
+        if( failed ){
+            timer.errors.increment();
+        }
+        if( elapsed > slowNanos ){
+            LOG.warn( "Slow {} took {} ms, parameters {}", operation, TimeUnit.NANOSECONDS.toMillis( elapsed ),
+                    parameters );
+        }
+    }
+
+    /**
+     * @param out - where the dal_operation_seconds histograms and dal_operation_errors_total counters are printed,
+     * sorted by operation, lines end with \n as the format requires
+     */
+    public static void writePrometheus( PrintWriter out ) {
+        Map<String, Timer> timers = new TreeMap<>( TIMERS );
+        out.print( "# HELP dal_operation_seconds Time of the queries, writes and transactions of the DAL.\n" );
+        out.print( "# TYPE dal_operation_seconds histogram\n" );
+        for( Map.Entry<String, Timer> entry: timers.entrySet() ) {
+            //operations are named queries, entity names and fixed names, none need escaping
+            entry.getValue().histogram.write( out, "dal_operation_seconds", "operation=\"" + entry.getKey() + "\"" );
+        }
+        out.print( "# HELP dal_operation_errors_total Operations of the DAL that threw.\n" );
+        out.print( "# TYPE dal_operation_errors_total counter\n" );
+        for( Map.Entry<String, Timer> entry: timers.entrySet() ) {
+            out.printf( "dal_operation_errors_total{operation=\"%s\"} %d\n", entry.getKey(),
+                    entry.getValue().errors.sum() );
+        }
+    }
+
+    /**
+     * counters of one operation
+     */
+    private static final class Timer {
+
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+    }
+}
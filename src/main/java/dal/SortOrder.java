@@ -0,0 +1,10 @@
+package dal;
+
+/**
+ * direction in which a page of rows is walked over the primary key.
+ *
+ * @see DataAccessLayer#findPage(java.lang.Integer, int, dal.SortOrder)
+ */
+public enum SortOrder {
+    ASCENDING, DESCENDING
+}
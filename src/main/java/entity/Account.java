@@ -7,6 +7,7 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.NamedNativeQuery;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.Table;
@@ -27,8 +28,12 @@ import javax.validation.constraints.Size;
     @NamedQuery( name = "Account.findByNickname", query = "SELECT a FROM Account a WHERE a.nickname = :nickname" ),
     @NamedQuery( name = "Account.findByName", query = "SELECT a FROM Account a WHERE a.name = :name" ),
     @NamedQuery( name = "Account.validateUser", query = "SELECT a FROM Account a WHERE a.password = :password and a.username = :username" ),
-    @NamedQuery( name = "Account.findContaining", query = "SELECT a FROM Account a WHERE a.name like CONCAT('%', :search, '%') or a.nickname like CONCAT('%', :search, '%') or a.username like CONCAT('%', :search, '%')" )
+    @NamedQuery( name = "Account.findContaining", query = "SELECT a FROM Account a WHERE a.name like CONCAT('%', :search, '%') or a.nickname like CONCAT('%', :search, '%') or a.username like CONCAT('%', :search, '%')" ),
+    @NamedQuery( name = "Account.rowsAscending", query = "SELECT a.id, a.name, a.nickname, a.username, a.password FROM Account a WHERE a.id > :afterId ORDER BY a.id" ),
+    @NamedQuery( name = "Account.rowsDescending", query = "SELECT a.id, a.name, a.nickname, a.username, a.password FROM Account a WHERE a.id < :afterId ORDER BY a.id DESC" )
 } )
+//needs the FULLTEXT index of META-INF/sql/simplebloodbank-fulltext.sql
+@NamedNativeQuery( name = "Account.fullTextIds", query = "SELECT a.id FROM simplebloodbank.account a WHERE MATCH( a.name, a.nickname, a.username ) AGAINST( :search IN BOOLEAN MODE )" )
 public class Account implements Serializable {
 
     private static final long serialVersionUID = 1L;
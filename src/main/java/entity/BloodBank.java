@@ -11,6 +11,9 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedNativeQuery;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.OneToMany;
@@ -30,6 +33,7 @@ import javax.validation.constraints.Size;
 @Table( name = "blood_bank", catalog = "simplebloodbank", schema = "", uniqueConstraints = {
     @UniqueConstraint( columnNames = { "bank_id" } ),
     @UniqueConstraint( columnNames = { "name" } ) } )
+@NamedEntityGraph( name = "BloodBank.withOwner", attributeNodes = { @NamedAttributeNode( "owner" ) } )
 @NamedQueries( {
     @NamedQuery( name = "BloodBank.findAll", query = "SELECT b FROM BloodBank b" ),
     @NamedQuery( name = "BloodBank.findByBankId", query = "SELECT b FROM BloodBank b WHERE b.bankId = :bankId" ),
@@ -38,8 +42,12 @@ import javax.validation.constraints.Size;
     @NamedQuery( name = "BloodBank.findByEstablished", query = "SELECT b FROM BloodBank b WHERE b.established = :established" ),
     @NamedQuery( name = "BloodBank.findByOwner", query = "SELECT b FROM BloodBank b WHERE b.owner.id = :ownerId" ),
     @NamedQuery( name = "BloodBank.findByEmployeeCount", query = "SELECT b FROM BloodBank b WHERE b.employeeCount = :employeeCount" ), 
-    @NamedQuery( name = "BloodBank.findContaining", query = "SELECT b FROM BloodBank b WHERE b.name like CONCAT('%', :search, '%') or b.employeeCount like CONCAT('%', :search, '%')" )
+    @NamedQuery( name = "BloodBank.findContaining", query = "SELECT b FROM BloodBank b WHERE b.name like CONCAT('%', :search, '%') or b.employeeCount like CONCAT('%', :search, '%')" ),
+    @NamedQuery( name = "BloodBank.rowsAscending", query = "SELECT b.bankId, b.employeeCount, b.name, b.established, b.privatelyOwned, COALESCE( b.owner.id, 0 ) FROM BloodBank b WHERE b.bankId > :afterId ORDER BY b.bankId" ),
+    @NamedQuery( name = "BloodBank.rowsDescending", query = "SELECT b.bankId, b.employeeCount, b.name, b.established, b.privatelyOwned, COALESCE( b.owner.id, 0 ) FROM BloodBank b WHERE b.bankId < :afterId ORDER BY b.bankId DESC" )
 } )
+//needs the FULLTEXT index of META-INF/sql/simplebloodbank-fulltext.sql
+@NamedNativeQuery( name = "BloodBank.fullTextIds", query = "SELECT b.bank_id FROM simplebloodbank.blood_bank b WHERE MATCH( b.name ) AGAINST( :search IN BOOLEAN MODE )" )
 public class BloodBank implements Serializable {
 
     @Id
@@ -15,6 +15,8 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.OneToMany;
@@ -31,6 +33,7 @@ import javax.validation.constraints.NotNull;
 @Entity
 @Table( name = "blood_donation", catalog = "simplebloodbank", schema = "", uniqueConstraints = {
     @UniqueConstraint( columnNames = { "donation_id" } ) } )
+@NamedEntityGraph( name = "BloodDonation.withBloodBank", attributeNodes = { @NamedAttributeNode( "bloodBank" ) } )
 @NamedQueries( {
     @NamedQuery( name = "BloodDonation.findAll",            query = "SELECT b FROM BloodDonation b" ),
     @NamedQuery( name = "BloodDonation.findByDonationId",   query = "SELECT b FROM BloodDonation b WHERE b.donationId = :donationId" ),
@@ -39,7 +42,13 @@ import javax.validation.constraints.NotNull;
     @NamedQuery( name = "BloodDonation.findByRhd",          query = "SELECT b FROM BloodDonation b WHERE b.rhd = :rhd" ),
     @NamedQuery( name = "BloodDonation.findByBloodBank",    query = "SELECT b FROM BloodDonation b WHERE b.bloodBank.bankId = :bloodBankId" ),
     @NamedQuery( name = "BloodDonation.findByCreated",      query = "SELECT b FROM BloodDonation b WHERE b.created = :created" ),
-    @NamedQuery( name = "BloodDonation.findContaining",     query = "SELECT b FROM BloodDonation b WHERE b.rhd like CONCAT('%', :search, '%') or b.bloodGroup like CONCAT('%', :search, '%') or b.milliliters like CONCAT('%', :search, '%')" )
+    @NamedQuery( name = "BloodDonation.findContaining",     query = "SELECT b FROM BloodDonation b WHERE b.rhd like CONCAT('%', :search, '%') or b.bloodGroup like CONCAT('%', :search, '%') or b.milliliters like CONCAT('%', :search, '%')" ),
+    @NamedQuery( name = "BloodDonation.inBanksSince",       query = "SELECT b.donationId, b.bloodBank.bankId, b.bloodGroup, b.rhd, b.created FROM BloodDonation b WHERE b.bloodBank IS NOT NULL AND b.created > :since" ),
+    @NamedQuery( name = "BloodDonation.unexpired",          query = "SELECT b.donationId, b.created FROM BloodDonation b WHERE b.expired = false" ),
+    @NamedQuery( name = "BloodDonation.markExpired",        query = "UPDATE BloodDonation b SET b.expired = true WHERE b.donationId IN :ids AND b.expired = false" ),
+    @NamedQuery( name = "BloodDonation.inventory",          query = "SELECT b.bloodBank.bankId, b.bloodGroup, b.rhd, SUM(b.milliliters), COUNT(b) FROM BloodDonation b WHERE b.bloodBank IS NOT NULL GROUP BY b.bloodBank.bankId, b.bloodGroup, b.rhd" ),
+    @NamedQuery( name = "BloodDonation.rowsAscending", query = "SELECT b.donationId, b.bloodBank.bankId, b.milliliters, b.bloodGroup, b.rhd, b.created FROM BloodDonation b WHERE b.donationId > :afterId ORDER BY b.donationId" ),
+    @NamedQuery( name = "BloodDonation.rowsDescending", query = "SELECT b.donationId, b.bloodBank.bankId, b.milliliters, b.bloodGroup, b.rhd, b.created FROM BloodDonation b WHERE b.donationId < :afterId ORDER BY b.donationId DESC" )
 } )
 public class BloodDonation implements Serializable {
 
@@ -68,6 +77,10 @@ public class BloodDonation implements Serializable {
     @Column( name = "created", nullable = false )
     @Temporal( TemporalType.TIMESTAMP )
     private Date created;
+    //an existing DB gets the column from META-INF/sql/simplebloodbank-migrate-expired.sql
+    @Basic( optional = false )
+    @Column( name = "expired", nullable = false )
+    private boolean expired;
     @JoinColumn( name = "bank_id", referencedColumnName = "bank_id" )
     @ManyToOne( fetch = FetchType.LAZY )
     private BloodBank bloodBank;
@@ -130,6 +143,17 @@ public class BloodDonation implements Serializable {
     public void setCreated( Date created ) {
         this.created = created;
     }
+
+    /**
+     * @return true once the shelf life of the donation is over, set by the expiry tracker
+     */
+    public boolean isExpired() {
+        return expired;
+    }
+
+    public void setExpired( boolean expired ) {
+        this.expired = expired;
+    }
     
 //    public Integer getBankId() {
 ////        return bankId;
@@ -11,8 +11,12 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedNativeQuery;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.NamedSubgraph;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
@@ -27,6 +31,10 @@ import javax.validation.constraints.Size;
 @Entity
 @Table( name = "donation_record", catalog = "simplebloodbank", schema = "", uniqueConstraints = {
     @UniqueConstraint( columnNames = { "record_id" } ) } )
+@NamedEntityGraph( name = "DonationRecord.withPersonAndDonation",
+        attributeNodes = { @NamedAttributeNode( value = "person", subgraph = "person" ), @NamedAttributeNode( "bloodDonation" ) },
+        //same as Person.withBloodBank, the inverse one to one would be selected once per person
+        subgraphs = @NamedSubgraph( name = "person", attributeNodes = @NamedAttributeNode( "bloodBank" ) ) )
 @NamedQueries( {
     @NamedQuery( name = "DonationRecord.findAll", query = "SELECT d FROM DonationRecord d" ),
     @NamedQuery( name = "DonationRecord.findByRecordId", query = "SELECT d FROM DonationRecord d WHERE d.recordId = :recordId" ),
@@ -36,8 +44,14 @@ import javax.validation.constraints.Size;
     @NamedQuery( name = "DonationRecord.findByPerson", query = "SELECT d FROM DonationRecord d WHERE d.person.id = :personId" ),
     @NamedQuery( name = "DonationRecord.findByDonation", query = "SELECT d FROM DonationRecord d WHERE d.bloodDonation.donationId = :donationId" ),
     @NamedQuery( name = "DonationRecord.findByCreated", query = "SELECT d FROM DonationRecord d WHERE d.created = :created" ),
-    @NamedQuery( name = "DonationRecord.findContaining", query = "SELECT d FROM DonationRecord d WHERE d.administrator like CONCAT('%', :search, '%') or d.hospital like CONCAT('%', :search, '%') or d.person like CONCAT('%', :search, '%')" )
+    @NamedQuery( name = "DonationRecord.findContaining", query = "SELECT d FROM DonationRecord d WHERE d.administrator like CONCAT('%', :search, '%') or d.hospital like CONCAT('%', :search, '%') or d.person like CONCAT('%', :search, '%')" ),
+    @NamedQuery( name = "DonationRecord.lastByPerson", query = "SELECT d.person.id, MAX(d.created) FROM DonationRecord d WHERE d.person IS NOT NULL GROUP BY d.person.id" ),
+    @NamedQuery( name = "DonationRecord.lastOfPerson", query = "SELECT MAX(d.created) FROM DonationRecord d WHERE d.person.id = :personId" ),
+    @NamedQuery( name = "DonationRecord.rowsAscending", query = "SELECT d.recordId, d.person.id, d.bloodDonation.donationId, d.tested, d.administrator, d.hospital, d.created FROM DonationRecord d WHERE d.recordId > :afterId ORDER BY d.recordId" ),
+    @NamedQuery( name = "DonationRecord.rowsDescending", query = "SELECT d.recordId, d.person.id, d.bloodDonation.donationId, d.tested, d.administrator, d.hospital, d.created FROM DonationRecord d WHERE d.recordId < :afterId ORDER BY d.recordId DESC" )
 } )
+//needs the FULLTEXT index of META-INF/sql/simplebloodbank-fulltext.sql
+@NamedNativeQuery( name = "DonationRecord.fullTextIds", query = "SELECT d.record_id FROM simplebloodbank.donation_record d WHERE MATCH( d.administrator, d.hospital ) AGAINST( :search IN BOOLEAN MODE )" )
 public class DonationRecord implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -10,6 +10,9 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedNativeQuery;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.OneToMany;
@@ -28,6 +31,8 @@ import javax.validation.constraints.Size;
 @Entity
 @Table( name = "person", catalog = "simplebloodbank", schema = "", uniqueConstraints = {
     @UniqueConstraint( columnNames = { "id" } ) } )
+//the blood bank is the inverse side of a one to one, without the graph hibernate selects it for every person it loads
+@NamedEntityGraph( name = "Person.withBloodBank", attributeNodes = { @NamedAttributeNode( "bloodBank" ) } )
 @NamedQueries( {
     @NamedQuery( name = "Person.findAll", query = "SELECT p FROM Person p" ),
     @NamedQuery( name = "Person.findById", query = "SELECT p FROM Person p WHERE p.id = :id" ),
@@ -36,8 +41,12 @@ import javax.validation.constraints.Size;
     @NamedQuery( name = "Person.findByPhone", query = "SELECT p FROM Person p WHERE p.phone = :phone" ),
     @NamedQuery( name = "Person.findByAddress", query = "SELECT p FROM Person p WHERE p.address = :address" ),
     @NamedQuery( name = "Person.findByBirth", query = "SELECT p FROM Person p WHERE p.birth = :birth" ) ,
-    @NamedQuery( name = "Person.findContaining", query = "SELECT p FROM Person p WHERE p.firstName like CONCAT('%', :search, '%') or p.lastName like CONCAT('%', :search, '%') or p.phone like CONCAT('%', :search, '%')" )
+    @NamedQuery( name = "Person.findContaining", query = "SELECT p FROM Person p WHERE p.firstName like CONCAT('%', :search, '%') or p.lastName like CONCAT('%', :search, '%') or p.phone like CONCAT('%', :search, '%')" ),
+    @NamedQuery( name = "Person.rowsAscending", query = "SELECT p.id, p.firstName, p.lastName, p.phone, p.address, p.birth FROM Person p WHERE p.id > :afterId ORDER BY p.id" ),
+    @NamedQuery( name = "Person.rowsDescending", query = "SELECT p.id, p.firstName, p.lastName, p.phone, p.address, p.birth FROM Person p WHERE p.id < :afterId ORDER BY p.id DESC" )
 } )
+//needs the FULLTEXT index of META-INF/sql/simplebloodbank-fulltext.sql
+@NamedNativeQuery( name = "Person.fullTextIds", query = "SELECT p.id FROM simplebloodbank.person p WHERE MATCH( p.first_name, p.last_name, p.phone ) AGAINST( :search IN BOOLEAN MODE )" )
 public class Person implements Serializable {
 
     private static final long serialVersionUID = 1L;
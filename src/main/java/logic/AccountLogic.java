@@ -1,13 +1,11 @@
 package logic;
 
-import common.ValidationException;
 import dal.AccountDAL;
 import entity.Account;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.function.ObjIntConsumer;
 
 /**
  *
@@ -28,6 +26,17 @@ public class AccountLogic extends GenericLogic<Account, AccountDAL> {
     public static final String NAME = "name";
     public static final String ID = "id";
 
+    /**
+     * fields of the create and edit forms, limits are the ones of {@link Account}
+     */
+    private static final EntityBinder<Account> BINDER = EntityBinder.of( Account.class, Account::new )
+            .id( ID, Account::setId )
+            .text( NAME, "name", Account::setName )
+            .nonBlankText( NICKNAME, "nickname", Account::setDisplayname )
+            .text( USERNAME, "username", Account::setUsername )
+            .text( PASSWORD, "password", Account::setPassword )
+            .build();
+
     AccountLogic() {
         super( new AccountDAL() );
     }
@@ -63,77 +72,15 @@ public class AccountLogic extends GenericLogic<Account, AccountDAL> {
     }
 
     @Override
-    public List<Account> search( String search ) {
-        return get( () -> dal().findContaining( search ) );
+    protected String[] searchValues( Account e ) {
+        return new String[]{ e.getName(), e.getNickname(), e.getUsername() };
     }
 
     @Override
     public Account createEntity( Map<String, String[]> parameterMap ) {
         //do not create any logic classes in this method.
-
-//        return new AccountBuilder().SetData( parameterMap ).build();
         Objects.requireNonNull( parameterMap, "parameterMap cannot be null" );
-        //same as if condition below
-//        if (parameterMap == null) {
-//            throw new NullPointerException("parameterMap cannot be null");
-//        }
-
-        //create a new Entity object
-        Account entity = new Account();
-
-        //ID is generated, so if it exists add it to the entity object
-        //otherwise it does not matter as mysql will create an if for it.
-        //the only time that we will have id is for update behaviour.
-        if( parameterMap.containsKey( ID ) ){
-            try {
-                entity.setId( Integer.parseInt( parameterMap.get( ID )[ 0 ] ) );
-            } catch( java.lang.NumberFormatException ex ) {
-                throw new ValidationException( ex );
-            }
-        }
-
-        //before using the values in the map, make sure to do error checking.
-        //simple lambda to validate a string, this can also be place in another
-        //method to be shared amoung all logic classes.
-        ObjIntConsumer< String> validator = ( value, length ) -> {
-            if( value == null || value.trim().isEmpty() || value.length() > length ){
-                String error = "";
-                if( value == null || value.trim().isEmpty() ){
-                    error = "value cannot be null or empty: " + value;
-                }
-                if( value.length() > length ){
-                    error = "string length is " + value.length() + " > " + length;
-                }
-                throw new ValidationException( error );
-            }
-        };
-
-        //extract the date from map first.
-        //everything in the parameterMap is string so it must first be
-        //converted to appropriate type. have in mind that values are
-        //stored in an array of String; almost always the value is at
-        //index zero unless you have used duplicated key/name somewhere.
-        String displayname = null;
-        if( parameterMap.containsKey( NAME ) ){
-            displayname = parameterMap.get( NICKNAME )[ 0 ];
-            validator.accept( displayname, 45 );
-        }
-        String username = parameterMap.get( USERNAME )[ 0 ];
-        String password = parameterMap.get( PASSWORD )[ 0 ];
-        String name = parameterMap.get( NAME )[ 0 ];
-
-        //validate the data
-        validator.accept( username, 45 );
-        validator.accept( password, 45 );
-        validator.accept( name, 45 );
-
-        //set values on entity
-        entity.setDisplayname( displayname );
-        entity.setUsername( username );
-        entity.setPassword( password );
-        entity.setName( name );
-
-        return entity;
+        return BINDER.create( parameterMap );
     }
 
     /**
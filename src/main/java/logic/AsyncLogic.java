@@ -0,0 +1,106 @@
+package logic;
+
+import dal.EntityManagerContext;
+import dal.PoolMetrics;
+import dal.SortOrder;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * non blocking view of a {@link Logic}. every method hands the call to a bounded executor shared by all logics and
+ * returns at once, so a servlet thread does not wait for the DB. get one with {@link LogicFactory#getAsyncFor(String)}.
+ *
+ * the calls run on executor threads, each task closes whatever EntityManager it left bound to its thread like
+ * {@link common.EntityManagerFilter} does for requests. the connections a task takes are counted in {@link PoolMetrics}
+ * for the request that started it. when the executor is full the returned future fails with
+ * {@link RejectedExecutionException}, callers should answer "busy" instead of waiting.
+ *
+ * @param <E> - entity type
+ */
+public final class AsyncLogic<E> {
+
+    private final Logic<E> logic;
+    private final Executor executor;
+
+    /**
+     * @param logic - logic doing the work
+     * @param executor - where the calls run, it should refuse tasks with {@link RejectedExecutionException} when full
+     */
+    public AsyncLogic( Logic<E> logic, Executor executor ) {
+        this.logic = logic;
+        this.executor = executor;
+    }
+
+    /**
+     * @return logic this view calls
+     */
+    public Logic<E> getLogic() {
+        return logic;
+    }
+
+    /**
+     * @return future of {@link Logic#getAll()}
+     */
+    public CompletableFuture<List<E>> getAllAsync() {
+        return supply( logic::getAll );
+    }
+
+    /**
+     * @param id - primary key
+     * @return future of {@link Logic#getWithId(int)}
+     */
+    public CompletableFuture<E> getWithIdAsync( int id ) {
+        return supply( () -> logic.getWithId( id ) );
+    }
+
+    /**
+     * @param entity - new entity
+     * @return future of the entity once added, its id is set
+     */
+    public CompletableFuture<E> addAsync( E entity ) {
+        return supply( () -> {
+            logic.add( entity );
+            return entity;
+        } );
+    }
+
+    /**
+     * @param search - text to look for
+     * @return future of {@link Logic#search(String)}
+     */
+    public CompletableFuture<List<E>> searchAsync( String search ) {
+        return supply( () -> logic.search( search ) );
+    }
+
+    /**
+     * @param afterId - id to continue from (exclusive), null for the first page
+     * @param limit - maximum number of rows in the page
+     * @param sort - direction in which ids are walked
+     * @return future of {@link Logic#getRows(Integer, int, SortOrder)}
+     */
+    public CompletableFuture<List<List<?>>> getRowsAsync( Integer afterId, int limit, SortOrder sort ) {
+        return supply( () -> logic.getRows( afterId, limit, sort ) );
+    }
+
+    private <T> CompletableFuture<T> supply( Supplier<T> call ) {
+        PoolMetrics.RequestUsage usage = PoolMetrics.currentRequest();
+        try {
+            return CompletableFuture.supplyAsync( () -> {
+                PoolMetrics.setCurrentRequest( usage );
+                try {
+                    return call.get();
+                } finally {
+                    if( EntityManagerContext.isActive() ){
+                        EntityManagerContext.release();
+                    }
+                    PoolMetrics.setCurrentRequest( null );
+                }
+            }, executor );
+        } catch( RejectedExecutionException ex ) {
+            return CompletableFuture.failedFuture( ex );
+        }
+    }
+}
@@ -9,7 +9,6 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.function.ObjIntConsumer;
 
 /**
  *  BloodBankLogic
@@ -27,7 +26,18 @@ public class BloodBankLogic extends GenericLogic <BloodBank, BloodBankDAL> {
     public static final String ID = "id";
     
     // construct logic and attach BloodBankDAL
-    public BloodBankLogic() {
+    /**
+     * fields of the create and edit forms, limits are the ones of {@link BloodBank}
+     */
+    private static final EntityBinder<BloodBank> BINDER = EntityBinder.of( BloodBank.class, BloodBank::new )
+            .id( ID, BloodBank::setId )
+            .text( NAME, "name", BloodBank::setName )
+            .integer( EMPLOYEE_COUNT, "employeeCount", BloodBank::setEmployeeCount )
+            .date( ESTABLISHED, "established", BloodBank::setEstablished )
+            .bool( PRIVATELY_OWNED, "privatelyOwned", BloodBank::setPrivatelyOwned )
+            .build();
+
+    BloodBankLogic() {
         super (new BloodBankDAL());
     }    
     
@@ -99,15 +109,30 @@ public class BloodBankLogic extends GenericLogic <BloodBank, BloodBankDAL> {
         return get( () -> dal().findByEmployeeCount( count ) );
     }    
     
-    /** Search for BloodBanks based on search term
+    /** values searched for a BloodBank, same as the BloodBank.findContaining query
      * 
-     * @param search  string containing term to search for
-     * @return All BloodBanks that match the search term
+     * @param e  BloodBank to index
+     * @return name and employee count of the BloodBank
      */
     @Override
-    public List<BloodBank> search( String search ) {
-        return get( () -> dal().findContaining( search ) );
+    protected String[] searchValues( BloodBank e ) {
+        return new String[]{ e.getName(), String.valueOf( e.getEmployeeCount() ) };
     }    
+
+    @Override
+    protected boolean hasSuggestions() {
+        return true;
+    }
+
+    @Override
+    protected String[] suggestValues( BloodBank e ) {
+        return new String[]{ e.getName() };
+    }
+
+    @Override
+    protected String suggestLabel( BloodBank e ) {
+        return e.getName();
+    }
     
     /**
      *  Update the BloodBank through the JSP
@@ -122,27 +147,13 @@ public class BloodBankLogic extends GenericLogic <BloodBank, BloodBankDAL> {
          int originalID = Integer.parseInt(parameterMap.get(ID)[0]);
          BloodBank bbToUpdate = getWithId(originalID);
          
-         // update the name if it has changed
-         String updatedName = parameterMap.get(NAME)[0];
-         if(!updatedName.equals(bbToUpdate.getName()))
-            bbToUpdate.setName(updatedName);         
-         
-        int newEmployeeCount = Integer.parseInt(parameterMap.get(EMPLOYEE_COUNT)[0]);
-        if (newEmployeeCount != bbToUpdate.getEmployeeCount())
-            bbToUpdate.setEmployeeCount(newEmployeeCount);         
-         
-         // if parameterMap established is invalid date, it should assume todays date
-         Date newEstablished = convertStringToDate(parameterMap.get(ESTABLISHED)[0]);
-         if (newEstablished.compareTo(bbToUpdate.getEstablished()) != 0)
-            bbToUpdate.setEstablished(newEstablished);
-         
-         boolean wasPrivate = bbToUpdate.getPrivatelyOwned();
          int oldOwnerId = 0;
-         if (wasPrivate && bbToUpdate.getOwner() != null)
+         if (bbToUpdate.getPrivatelyOwned() && bbToUpdate.getOwner() != null)
              oldOwnerId = bbToUpdate.getOwner().getId();
-         
-         boolean isPrivate = Boolean.parseBoolean(parameterMap.get(PRIVATELY_OWNED)[0]);
-         bbToUpdate.setPrivatelyOwned(isPrivate);
+
+         // name, employee count, established and ownership, all checked before any is reported
+         BINDER.update(parameterMap, bbToUpdate);
+         boolean isPrivate = bbToUpdate.getPrivatelyOwned();
          
          // check and update dependency         
          // if not privately owned we simply set the owner to null
@@ -167,70 +178,15 @@ public class BloodBankLogic extends GenericLogic <BloodBank, BloodBankDAL> {
     
     /**
      * createEntity Creates a BloodBank based on parameterMap. Validates parameters 
-     * and returns created entity or throws ValidationException
+     * and returns created entity or throws {@link ValidationException}
      * @param parameterMap
      * @return 
      */
     @Override
     public BloodBank createEntity(Map<String, String[]> parameterMap) {
         // do not create any logic classes in this method.
-        
-        Objects.requireNonNull( parameterMap, "parameterMap cannot be null" );      
-
-        //create a new Entity object
-        BloodBank entity = new BloodBank();
-
-        //ID is generated, so if it exists add it to the entity object
-        //otherwise it does not matter as mysql will create an if for it.
-        //the only time that we will have id is for update behaviour.
-        if( parameterMap.containsKey( ID ) ){
-            try {
-                String idString = parameterMap.get( ID )[ 0 ];                
-                entity.setId( Integer.parseInt( idString ) );
-            } catch( java.lang.NumberFormatException ex ) {
-                throw new ValidationException( ex );
-            }
-        }
-
-        //before using the values in the map, make sure to do error checking.
-        //simple lambda to validate a string, this can also be place in another
-        //method to be shared amoung all logic classes.
-        ObjIntConsumer< String> validator = ( value, length ) -> {
-            if( value == null || value.trim().isEmpty() || value.length() > length ){
-                String error = "";
-                if( value == null || value.trim().isEmpty() ){
-                    error = "value cannot be null or empty: " + value;
-                }
-                if(value != null && value.length() > length ){
-                    error = "string length is " + value.length() + " > " + length;
-                }
-                throw new ValidationException( error );
-            }
-        };      
-        
-        String employeeCount = parameterMap.get(EMPLOYEE_COUNT)[0];        
-        
-        // ------------------------------------------------------
-        String privatelyOwned = parameterMap.get(PRIVATELY_OWNED)[0];
-        String name = parameterMap.get(NAME)[0];  
-        String establishedStr = parameterMap.get(ESTABLISHED)[0];
-            
-        Date established = convertStringToDate(establishedStr);//        
-
-        //validate the data       
-        validator.accept( employeeCount, 45 );        
-        validator.accept( privatelyOwned, 45 );
-        validator.accept( name, 45 );
-        validator.accept( establishedStr, 45);       
-        
-        //set values on entity
-        entity.setEmployeeCount( Integer.parseInt(employeeCount) );
-        // Date is deprecated, but the project is set up to use it
-        entity.setEstablished( established );
-        entity.setPrivatelyOwned( Boolean.parseBoolean(privatelyOwned) );
-        entity.setName( name );           
-
-        return entity;
+        Objects.requireNonNull( parameterMap, "parameterMap cannot be null" );
+        return BINDER.create( parameterMap );
     }       
 
     /**
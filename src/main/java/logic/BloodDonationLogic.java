@@ -1,16 +1,18 @@
 package logic;
 
-import common.ValidationException;
 import dal.BloodDonationDAL;
 import entity.BloodBank;
 import entity.BloodDonation;
 import entity.BloodGroup;
 import entity.RhesusFactor;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -35,8 +37,283 @@ public class BloodDonationLogic extends GenericLogic<BloodDonation, BloodDonatio
     public static final String CREATED = "created";
     public static final String ID = "id";
 
+    /**
+     * days a donation can be given after it is created, the usual shelf life of red cells
+     */
+    public static final int SHELF_LIFE_DAYS = 42;
+
+    /**
+     * days before its expiry a donation is reported as near expiry
+     */
+    public static final int NEAR_EXPIRY_DAYS = 7;
+
+    private static final long SHELF_LIFE = TimeUnit.DAYS.toMillis( SHELF_LIFE_DAYS );
+
+    private static final Logger LOG = Logger.getLogger( BloodDonationLogic.class.getName() );
+
+    /**
+     * fields of the create and edit forms, limits are the ones of {@link BloodDonation}
+     */
+    private static final EntityBinder<BloodDonation> BINDER = EntityBinder.of( BloodDonation.class, BloodDonation::new )
+            .id( ID, BloodDonation::setId )
+            .choice( BLOOD_GROUP, "bloodGroup", BloodGroup::valueOf, BloodDonation::setBloodGroup )
+            .integer( MILLILITERS, "milliliters", BloodDonation::setMilliliters )
+            .choice( RHESUS_FACTOR, "rhd", RhesusFactor::getRhesusFactor, BloodDonation::setRhd )
+            .dateOrNow( CREATED, "created", BloodDonation::setCreated )
+            .build();
+
+    private final BloodInventory inventory = new BloodInventory();
+    private final DonationMatcher matcher = new DonationMatcher();
+    private final ExpiryTracker expiry = new ExpiryTracker( TimeUnit.MINUTES.toMillis( 1 ),
+            TimeUnit.DAYS.toMillis( NEAR_EXPIRY_DAYS ) );
+
     BloodDonationLogic() {
         super( new BloodDonationDAL() );
+        expiry.addListener( new ExpiryTracker.Listener() {
+            @Override
+            public void nearExpiry( int[] ids ) {
+                LOG.log( Level.INFO, "{0} donations expire within {1} days", new Object[]{ ids.length, NEAR_EXPIRY_DAYS } );
+            }
+
+            @Override
+            public void expired( int[] ids ) {
+                markExpired( ids );
+            }
+        } );
+    }
+
+    /**
+     * @return milliliters of each blood type held by each bank
+     */
+    public BloodInventory getInventory() {
+        return inventory;
+    }
+
+    /**
+     * fill the inventory with one GROUP BY query, call it once at startup.
+     */
+    void loadInventory() {
+        inventory.load( get( () -> dal().sumByBankAndType() ) );
+    }
+
+    /**
+     * fill the matcher with the donations of every bank that have not expired, call it once at startup.
+     */
+    void loadMatcher() {
+        List<Object[]> rows = get( () -> dal().findInBanksSince( new Date( System.currentTimeMillis() - SHELF_LIFE ) ) );
+        List<long[]> units = new ArrayList<>( rows.size() );
+        for( Object[] row: rows ) {
+            units.add( new long[]{ ( (Number)row[ 0 ] ).longValue(), ( (Number)row[ 1 ] ).longValue(),
+                BloodType.of( (BloodGroup)row[ 2 ], (RhesusFactor)row[ 3 ] ), ( (Date)row[ 4 ] ).getTime() + SHELF_LIFE } );
+        }
+        matcher.load( units );
+    }
+
+    /**
+     * follow the expiry of every donation not marked expired and start the thread reporting them, call it once at
+     * startup. donations that expired while the application was stopped are marked on the first tick.
+     */
+    void startExpiry() {
+        List<Object[]> rows = get( () -> dal().findUnexpired() );
+        List<long[]> units = new ArrayList<>( rows.size() );
+        for( Object[] row: rows ) {
+            units.add( new long[]{ ( (Number)row[ 0 ] ).longValue(), ( (Date)row[ 1 ] ).getTime() + SHELF_LIFE } );
+        }
+        expiry.load( units, System.currentTimeMillis() );
+        expiry.start();
+    }
+
+    void stopExpiry() {
+        expiry.stop();
+    }
+
+    /**
+     * mark donations expired in the DB with one UPDATE per batch and stop offering them to recipients. if the UPDATE
+     * throws, the tracker tells the same ids again on its next tick.
+     *
+     * @param ids - donations past their expiry
+     */
+    private void markExpired( int[] ids ) {
+        int updated = write( () -> dal().markExpired( ids ) );
+        for( int id: ids ) {
+            matcher.remove( id );
+        }
+        LOG.log( Level.INFO, "{0} donations expired", updated );
+    }
+
+    /**
+     * @return donations that expire within {@link #NEAR_EXPIRY_DAYS}, expiring first, read from memory and then
+     * loaded with one query
+     */
+    public List<BloodDonation> getNearExpiry() {
+        return byIds( expiry.getNearExpiry() ).get( 0 );
+    }
+
+    /**
+     * @param donation - donation with an id
+     * @return time the donation expires in milliseconds, -1 if it is not followed, i.e. already expired
+     */
+    public long getExpiry( BloodDonation donation ) {
+        return expiry.getExpiry( donation.getId() );
+    }
+
+    /**
+     * find donations in any bank the recipient can receive, those expiring first so the least blood is wasted.
+     *
+     * @param group - ABO group of the recipient
+     * @param rhd - rhesus factor of the recipient
+     * @param units - most donations to return
+     * @return compatible donations that have not expired, ordered by expiry
+     */
+    public List<BloodDonation> getCompatible( BloodGroup group, RhesusFactor rhd, int units ) {
+        int[] ids = matcher.match( BloodType.of( group, rhd ), units, System.currentTimeMillis() );
+        return byIds( ids ).get( 0 );
+    }
+
+    /**
+     * same as {@link #getCompatible(BloodGroup, RhesusFactor, int)} from one bank only.
+     *
+     * @param bankId - id of the blood bank
+     * @param group - ABO group of the recipient
+     * @param rhd - rhesus factor of the recipient
+     * @param units - most donations to return
+     * @return compatible donations of the bank that have not expired, ordered by expiry
+     */
+    public List<BloodDonation> getCompatible( int bankId, BloodGroup group, RhesusFactor rhd, int units ) {
+        int[] ids = matcher.match( bankId, BloodType.of( group, rhd ), units, System.currentTimeMillis() );
+        return byIds( ids ).get( 0 );
+    }
+
+    /**
+     * find donations for many recipients at once, no donation is given to two of them. see
+     * {@link DonationMatcher#matchAll(int[], int, long)}.
+     *
+     * @param recipients - {@link BloodType} code of each recipient
+     * @param units - most donations for each recipient
+     * @return compatible donations for each recipient, in the order of recipients
+     */
+    public List<List<BloodDonation>> getCompatible( int[] recipients, int units ) {
+        return byIds( matcher.matchAll( recipients, units, System.currentTimeMillis() ) );
+    }
+
+    /**
+     * load the donations of each id list with one query and keep the order of the ids.
+     */
+    private List<List<BloodDonation>> byIds( int[]... ids ) {
+        int[] all = Arrays.stream( ids ).flatMapToInt( Arrays::stream ).toArray();
+        Map<Integer, BloodDonation> found = new HashMap<>();
+        for( BloodDonation donation: get( () -> dal().findByIds( all ) ) ) {
+            found.put( donation.getId(), donation );
+        }
+        List<List<BloodDonation>> result = new ArrayList<>( ids.length );
+        for( int[] list: ids ) {
+            List<BloodDonation> donations = new ArrayList<>( list.length );
+            for( int id: list ) {
+                //deleted by something else since it was indexed
+                if( found.containsKey( id ) ){
+                    donations.add( found.get( id ) );
+                }
+            }
+            result.add( donations );
+        }
+        return result;
+    }
+
+    @Override
+    protected void added( BloodDonation entity ) {
+        int[] stock = stockOf( entity );
+        int id = entity.getId();
+        long expires = expiryOf( entity );
+        boolean expired = entity.isExpired();
+        UnitOfWork.afterCommit( () -> {
+            if( stock != null ){
+                inventory.add( stock[ 0 ], stock[ 1 ], stock[ 2 ], 1 );
+                matcher.put( id, stock[ 0 ], stock[ 1 ], expires );
+            }
+            if( !expired ){
+                expiry.track( id, expires );
+            }
+        } );
+    }
+
+    /**
+     * update the donation and move its milliliters in the inventory. the old values are read with a row lock in the
+     * same transaction, so they are still the old values when the change is committed.
+     * <p>
+     * expired is only set by the expiry tracker, the value of the locked row is kept so a form read before the donation
+     * expired cannot bring it back.
+     */
+    @Override
+    public BloodDonation update( BloodDonation entity ) {
+        return UnitOfWork.execute( () -> {
+            BloodDonation current = entity.getId() == null ? null : get( () -> dal().findLocked( entity.getId() ) );
+            int[] before = stockOf( current );
+            entity.setExpired( current != null && current.isExpired() );
+            BloodDonation updated = super.update( entity );
+            int[] after = stockOf( updated );
+            int id = updated.getId();
+            long expires = expiryOf( updated );
+            boolean expired = updated.isExpired();
+            UnitOfWork.afterCommit( () -> {
+                if( before != null ){
+                    inventory.add( before[ 0 ], before[ 1 ], -before[ 2 ], -1 );
+                }
+                if( after != null ){
+                    inventory.add( after[ 0 ], after[ 1 ], after[ 2 ], 1 );
+                }
+                if( after != null && !expired ){
+                    matcher.put( id, after[ 0 ], after[ 1 ], expires );
+                } else {
+                    matcher.remove( id );
+                }
+                if( expired ){
+                    expiry.untrack( id );
+                } else {
+                    expiry.track( id, expires );
+                }
+            } );
+            return updated;
+        } );
+    }
+
+    /**
+     * delete the donation and take its milliliters out of the inventory, as they were in the DB.
+     */
+    @Override
+    public void delete( BloodDonation entity ) {
+        UnitOfWork.run( () -> {
+            int[] before = get( () -> stockOf( dal().findLocked( entity.getId() ) ) );
+            super.delete( entity );
+            int id = entity.getId();
+            UnitOfWork.afterCommit( () -> {
+                if( before != null ){
+                    inventory.add( before[ 0 ], before[ 1 ], -before[ 2 ], -1 );
+                }
+                matcher.remove( id );
+                expiry.untrack( id );
+            } );
+        } );
+    }
+
+    /**
+     * @param donation - donation to count, may be null
+     * @return bank id, blood type code and milliliters of the donation, null if it is not in a bank
+     */
+    private static int[] stockOf( BloodDonation donation ) {
+        if( donation == null || donation.getBloodBank() == null || donation.getBloodGroup() == null
+                || donation.getRhd() == null ){
+            return null;
+        }
+        return new int[]{ donation.getBloodBank().getId(), BloodType.of( donation.getBloodGroup(), donation.getRhd() ),
+            donation.getMilliliters() };
+    }
+
+    /**
+     * @param donation - donation with a created date
+     * @return time the donation expires, in milliseconds since the epoch
+     */
+    private static long expiryOf( BloodDonation donation ) {
+        return donation.getCreated().getTime() + SHELF_LIFE;
     }
 
     @Override
@@ -70,40 +347,16 @@ public class BloodDonationLogic extends GenericLogic<BloodDonation, BloodDonatio
     }
     
     @Override
-    public List<BloodDonation> search( String search ) {
-        return get( () -> dal().findContaining( search ) );
+    protected String[] searchValues( BloodDonation e ) {
+        //the DB stores the symbol of the rhesus factor and the name of the blood group
+        return new String[]{ e.getRhd() == null ? null : e.getRhd().getSymbol(),
+            e.getBloodGroup() == null ? null : e.getBloodGroup().name(), String.valueOf( e.getMilliliters() ) };
     }
 
     @Override
     public BloodDonation createEntity( Map<String, String[]> parameterMap ) {
         Objects.requireNonNull( parameterMap, "parameterMap cannot be null" );
-
-        //create a new Entity object
-        BloodDonation entity = new BloodDonation();
-        
-        //ID is generated, so if it exists add it to the entity object
-        //otherwise it does not matter as mysql will create an if for it.
-        //the only time that we will have id is for update behaviour.
-        if( parameterMap.containsKey( ID ) ){
-            try {
-                entity.setId( Integer.parseInt( parameterMap.get( ID )[ 0 ] ) );
-            } catch( java.lang.NumberFormatException ex ) {
-                throw new ValidationException( ex );
-            }
-        }
-
-        // The act of retreiving these values will validate them
-        BloodGroup bloodGroup = BloodGroup.valueOf(parameterMap.get(BLOOD_GROUP)[0]);
-        int milliliters = Integer.parseInt(parameterMap.get(MILLILITERS)[0]);
-        RhesusFactor rhd = RhesusFactor.getRhesusFactor(parameterMap.get(RHESUS_FACTOR)[0]); 
-        Date created = convertStringToDate(parameterMap.get(CREATED)[0]);
-        
-        entity.setBloodGroup(bloodGroup);
-        entity.setCreated(created);
-        entity.setMilliliters(milliliters);
-        entity.setRhd(rhd);
-        
-        return entity;
+        return BINDER.create( parameterMap );
     }
     
     /**
@@ -123,22 +376,11 @@ public class BloodDonationLogic extends GenericLogic<BloodDonation, BloodDonatio
         BloodDonationLogic bdLogic = LogicFactory.getFor( "BloodDonation" );
         
         Integer id = Integer.parseInt(parameterMap.get(ID)[0]);
-        Integer newMilliliters = Integer.parseInt(parameterMap.get(MILLILITERS)[0]);
-        BloodGroup newBloodGroup = BloodGroup.valueOf(parameterMap.get(BLOOD_GROUP)[0]);
-        RhesusFactor newRHD = RhesusFactor.getRhesusFactor(parameterMap.get(RHESUS_FACTOR)[0]);
         
         //getwithid(id) get the current entity from db
         BloodDonation originalBD = bdLogic.getWithId(id);
         //check data from map against entity and udpate it
-        if (originalBD.getMilliliters() != newMilliliters) {
-            originalBD.setMilliliters(newMilliliters);
-        }
-        if (originalBD.getBloodGroup() != newBloodGroup) {
-            originalBD.setBloodGroup(newBloodGroup);
-        }
-        if (originalBD.getRhd() != newRHD) {
-            originalBD.setRhd(newRHD);
-        }
+        BINDER.update(parameterMap, originalBD);
         //check if depdendecy has changed, if so update it using depedency logic
 
         try {
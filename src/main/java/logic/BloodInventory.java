@@ -0,0 +1,156 @@
+package logic;
+
+import entity.BloodGroup;
+import entity.RhesusFactor;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * milliliters and number of donations held by each blood bank for each {@link BloodType}, kept in memory.
+ *
+ * the counters are filled once from a GROUP BY over blood_donation when the application starts and then changed by
+ * every add, update and delete of {@link BloodDonationLogic} once it is committed. every question is answered from the
+ * counters, without a query. counters are {@link LongAdder}s so threads committing donations at the same time do not
+ * wait for each other. donations without a blood bank are not counted.
+ *
+ * changes made to the DB by anything else than BloodDonationLogic are not seen until the application restarts.
+ */
+public final class BloodInventory {
+
+    /**
+     * counters of one bank, or of all banks together, indexed by blood type code
+     */
+    private static final class Stock {
+
+        private final LongAdder[] milliliters = new LongAdder[ BloodType.COUNT ];
+        private final LongAdder[] units = new LongAdder[ BloodType.COUNT ];
+
+        Stock() {
+            for( int type = 0; type < BloodType.COUNT; type++ ) {
+                milliliters[ type ] = new LongAdder();
+                units[ type ] = new LongAdder();
+            }
+        }
+
+        void add( int type, long ml, int count ) {
+            milliliters[ type ].add( ml );
+            units[ type ].add( count );
+        }
+
+        long milliliters() {
+            long sum = 0;
+            for( LongAdder adder: milliliters ) {
+                sum += adder.sum();
+            }
+            return sum;
+        }
+    }
+
+    private static final Stock EMPTY = new Stock();
+
+    private final ConcurrentHashMap<Integer, Stock> banks = new ConcurrentHashMap<>();
+    private final Stock total = new Stock();
+    private volatile boolean loaded;
+
+    BloodInventory() {
+    }
+
+    /**
+     * @param bankId - id of a blood bank
+     * @param group - ABO group
+     * @param rhd - rhesus factor
+     * @return milliliters of the blood type held by the bank, 0 if the bank has none
+     */
+    public long getMilliliters( int bankId, BloodGroup group, RhesusFactor rhd ) {
+        return stock( bankId ).milliliters[ BloodType.of( group, rhd ) ].sum();
+    }
+
+    /**
+     * @param bankId - id of a blood bank
+     * @param group - ABO group
+     * @param rhd - rhesus factor
+     * @return number of donations of the blood type held by the bank
+     */
+    public long getUnits( int bankId, BloodGroup group, RhesusFactor rhd ) {
+        return stock( bankId ).units[ BloodType.of( group, rhd ) ].sum();
+    }
+
+    /**
+     * @param bankId - id of a blood bank
+     * @return milliliters of all blood types held by the bank
+     */
+    public long getMilliliters( int bankId ) {
+        return stock( bankId ).milliliters();
+    }
+
+    /**
+     * @param group - ABO group
+     * @param rhd - rhesus factor
+     * @return milliliters of the blood type held by all banks together
+     */
+    public long getTotalMilliliters( BloodGroup group, RhesusFactor rhd ) {
+        return total.milliliters[ BloodType.of( group, rhd ) ].sum();
+    }
+
+    /**
+     * @param group - ABO group
+     * @param rhd - rhesus factor
+     * @return number of donations of the blood type held by all banks together
+     */
+    public long getTotalUnits( BloodGroup group, RhesusFactor rhd ) {
+        return total.units[ BloodType.of( group, rhd ) ].sum();
+    }
+
+    /**
+     * @return ids of the banks that hold or have held a donation, changes as donations are added
+     */
+    public Set<Integer> getBankIds() {
+        return Collections.unmodifiableSet( banks.keySet() );
+    }
+
+    /**
+     * @return false until the counters are filled from the DB
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    private Stock stock( int bankId ) {
+        return banks.getOrDefault( bankId, EMPTY );
+    }
+
+    /**
+     * change the counters of one bank and blood type.
+     *
+     * @param bankId - id of a blood bank
+     * @param type - blood type code
+     * @param milliliters - milliliters to add, negative to take away
+     * @param units - donations to add, negative to take away
+     */
+    void add( int bankId, int type, long milliliters, int units ) {
+        banks.computeIfAbsent( bankId, id -> new Stock() ).add( type, milliliters, units );
+        total.add( type, milliliters, units );
+    }
+
+    /**
+     * replace all counters with the result of the "BloodDonation.inventory" query. changes committed while this runs
+     * may be lost, call it at startup before requests are served.
+     *
+     * @param rows - bank id, blood group, rhesus factor, sum of milliliters and count for each group
+     */
+    void load( List<Object[]> rows ) {
+        banks.clear();
+        for( int type = 0; type < BloodType.COUNT; type++ ) {
+            total.milliliters[ type ].reset();
+            total.units[ type ].reset();
+        }
+        for( Object[] row: rows ) {
+            int type = BloodType.of( (BloodGroup)row[ 1 ], (RhesusFactor)row[ 2 ] );
+            add( ( (Number)row[ 0 ] ).intValue(), type, ( (Number)row[ 3 ] ).longValue(), ( (Number)row[ 4 ] ).intValue() );
+        }
+        loaded = true;
+    }
+}
@@ -0,0 +1,114 @@
+package logic;
+
+import entity.BloodGroup;
+import entity.RhesusFactor;
+import java.util.Objects;
+
+/**
+ * the 8 ABO/Rh blood types as small int codes, one bit per antigen on the red cells: {@link #A} and {@link #B} for
+ * the ABO group and {@link #RHD} for the rhesus factor. O- is 0 and AB+ is 7, so a code can index an array of
+ * {@link #COUNT} elements, and a donor code d can give to a recipient code r if {@code (d & ~r) == 0}, the donor has
+ * no antigen the recipient lacks.
+ */
+public final class BloodType {
+
+    public static final int A = 1;
+    public static final int B = 2;
+    public static final int RHD = 4;
+
+    /**
+     * number of codes, every code is between 0 and COUNT - 1
+     */
+    public static final int COUNT = 8;
+
+    private static final String[] NAMES = { "O-", "A-", "B-", "AB-", "O+", "A+", "B+", "AB+" };
+
+    /**
+     * bit d of DONORS[ r ] is set if code d can give to code r
+     */
+    private static final int[] DONORS = new int[ COUNT ];
+
+    static {
+        for( int recipient = 0; recipient < COUNT; recipient++ ) {
+            for( int donor = 0; donor < COUNT; donor++ ) {
+                if( ( donor & ~recipient ) == 0 ){
+                    DONORS[ recipient ] |= 1 << donor;
+                }
+            }
+        }
+    }
+
+    private BloodType() {
+    }
+
+    /**
+     * @param group - ABO group
+     * @param rhd - rhesus factor
+     * @return code of the blood type
+     */
+    public static int of( BloodGroup group, RhesusFactor rhd ) {
+        Objects.requireNonNull( group, "group cannot be null" );
+        Objects.requireNonNull( rhd, "rhd cannot be null" );
+        int code = rhd == RhesusFactor.Positive ? RHD : 0;
+        switch( group ) {
+            case A:
+                return code | A;
+            case B:
+                return code | B;
+            case AB:
+                return code | A | B;
+            default:
+                return code;
+        }
+    }
+
+    /**
+     * @param code - code of a blood type
+     * @return ABO group of the code
+     */
+    public static BloodGroup group( int code ) {
+        switch( code & ( A | B ) ) {
+            case A:
+                return BloodGroup.A;
+            case B:
+                return BloodGroup.B;
+            case A | B:
+                return BloodGroup.AB;
+            default:
+                return BloodGroup.O;
+        }
+    }
+
+    /**
+     * @param code - code of a blood type
+     * @return rhesus factor of the code
+     */
+    public static RhesusFactor rhesus( int code ) {
+        return ( code & RHD ) != 0 ? RhesusFactor.Positive : RhesusFactor.Negative;
+    }
+
+    /**
+     * @param code - code of a blood type
+     * @return usual name of the type, i.e. "AB+"
+     */
+    public static String name( int code ) {
+        return NAMES[ code ];
+    }
+
+    /**
+     * @param recipient - code of the blood type of the recipient
+     * @return bit mask with bit d set for every donor code d the recipient can receive, 0x01 for O- and 0xFF for AB+
+     */
+    public static int donorsOf( int recipient ) {
+        return DONORS[ recipient ];
+    }
+
+    /**
+     * @param donor - code of the blood type of the donation
+     * @param recipient - code of the blood type of the recipient
+     * @return true if the recipient can receive the donation
+     */
+    public static boolean canGive( int donor, int recipient ) {
+        return ( DONORS[ recipient ] & 1 << donor ) != 0;
+    }
+}
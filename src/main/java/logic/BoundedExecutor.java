@@ -0,0 +1,127 @@
+package logic;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * runs the tasks of {@link AsyncLogic} and refuses new ones once too many are waiting or running, so a slow DB makes
+ * requests fail fast with {@link RejectedExecutionException} instead of piling up in memory.
+ *
+ * the tasks run either on a fixed pool of daemon threads or, on a JDK with virtual threads (21 and later), on one
+ * virtual thread each. both are limited by the same count of permits, a virtual thread is cheap but the JDBC connection
+ * it waits for is not.
+ */
+final class BoundedExecutor implements Executor {
+
+    private static final Logger LOG = Logger.getLogger( BoundedExecutor.class.getName() );
+
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+    private final int limit;
+
+    private BoundedExecutor( ExecutorService delegate, int limit ) {
+        this.delegate = delegate;
+        this.permits = new Semaphore( limit );
+        this.limit = limit;
+    }
+
+    /**
+     * @param threads - number of threads running tasks
+     * @param queue - most tasks waiting for a thread
+     * @return executor on a fixed pool of platform threads
+     */
+    static BoundedExecutor platform( int threads, int queue ) {
+        if( threads < 1 || queue < 0 ){
+            throw new IllegalArgumentException( "threads must be positive and queue not negative" );
+        }
+        return new BoundedExecutor( Executors.newFixedThreadPool( threads, daemonThreads() ), threads + queue );
+    }
+
+    /**
+     * @param limit - most tasks running at once
+     * @return executor starting a virtual thread per task, or a pool of limit platform threads if the JDK has no
+     * virtual threads
+     */
+    static BoundedExecutor virtual( int limit ) {
+        if( limit < 1 ){
+            throw new IllegalArgumentException( "limit must be positive" );
+        }
+        try {
+            //compiled for Java 11, so look the factory up at runtime
+            ExecutorService virtual = (ExecutorService)Executors.class
+                    .getMethod( "newVirtualThreadPerTaskExecutor" ).invoke( null );
+            return new BoundedExecutor( virtual, limit );
+        } catch( NoSuchMethodException | IllegalAccessException | InvocationTargetException ex ) {
+            LOG.log( Level.INFO, "No virtual threads on Java {0}, using {1} platform threads",
+                    new Object[]{ Runtime.version().feature(), limit } );
+            return platform( limit, 0 );
+        }
+    }
+
+    /**
+     * @param task - work to run
+     * @throws RejectedExecutionException if the limit is reached or the executor is shut down
+     */
+    @Override
+    public void execute( Runnable task ) {
+        if( !permits.tryAcquire() ){
+            throw new RejectedExecutionException( "More than " + limit + " DB tasks waiting" );
+        }
+        try {
+            delegate.execute( () -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            } );
+        } catch( RejectedExecutionException ex ) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * @return number of tasks waiting or running
+     */
+    int pending() {
+        return limit - permits.availablePermits();
+    }
+
+    /**
+     * stop taking tasks and wait for the running ones to end.
+     *
+     * @param timeout - longest time to wait in milliseconds
+     * @return true if every task ended in time
+     */
+    boolean shutdown( long timeout ) {
+        delegate.shutdown();
+        try {
+            if( delegate.awaitTermination( timeout, TimeUnit.MILLISECONDS ) ){
+                return true;
+            }
+        } catch( InterruptedException ex ) {
+            Thread.currentThread().interrupt();
+        }
+        delegate.shutdownNow();
+        return false;
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread( task, "logic-async-" + count.incrementAndGet() );
+            thread.setDaemon( true );
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,68 @@
+package logic;
+
+/**
+ * ids changed by put or remove while an in memory index is being loaded from the DB. the rows read by the load are
+ * older than those changes, so the load must not overwrite them. outside of a load nothing is kept. not thread safe,
+ * the index calls it under its write lock.
+ */
+final class ChangedIds {
+
+    /**
+     * used as a set of ids, null when no load is running
+     */
+    private IntIntMap ids;
+
+    /**
+     * @param loading - true to keep changes from the start, for an index created empty and then loaded
+     */
+    ChangedIds( boolean loading ) {
+        if( loading ){
+            start();
+        }
+    }
+
+    /**
+     * keep the ids changed from now on, until {@link #stop()}
+     */
+    void start() {
+        ids = new IntIntMap();
+    }
+
+    /**
+     * forget the ids kept, changes are no longer kept
+     */
+    void stop() {
+        ids = null;
+    }
+
+    /**
+     * @return true between {@link #start()} and {@link #stop()}
+     */
+    boolean isLoading() {
+        return ids != null;
+    }
+
+    /**
+     * @param id - id put or removed, kept only while loading
+     */
+    void mark( int id ) {
+        if( ids != null ){
+            ids.put( id, 0 );
+        }
+    }
+
+    /**
+     * @param id - id read by the load
+     * @return true if the id changed since the load started
+     */
+    boolean contains( int id ) {
+        return ids != null && ids.get( id, -1 ) != -1;
+    }
+
+    /**
+     * @return ids changed since the load started in no particular order, empty if not loading
+     */
+    int[] toArray() {
+        return ids == null ? new int[ 0 ] : ids.keys();
+    }
+}
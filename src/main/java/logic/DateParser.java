@@ -0,0 +1,176 @@
+package logic;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.time.format.SignStyle;
+import java.time.temporal.ChronoField;
+import java.util.Date;
+
+/**
+ * thread safe conversion between {@link Date} and the "yyyy-MM-dd kk:mm:ss" text of the forms and tables. the fixed
+ * shapes sent by the date pickers, "yyyy-MM-dd", "yyyy-MM-ddTHH:mm" and "yyyy-MM-dd[ T]HH:mm:ss", are read digit by
+ * digit with no exception on bad input. anything else goes through an immutable {@link DateTimeFormatter}.
+ * <p>
+ * the text is local time of the default zone. dates before 1901 go through the calendar of {@link Date}, julian before
+ * 1582 and with no local mean time, like {@link java.text.SimpleDateFormat} did, so old dates in the DB keep their text.
+ * hour 24 is midnight of the same day, that is how "kk" prints it.
+ */
+final class DateParser {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern( "yyyy-MM-dd kk:mm:ss" );
+
+    /**
+     * one or two digit fields, optional time, seconds and fraction
+     */
+    private static final DateTimeFormatter LENIENT = new DateTimeFormatterBuilder()
+            .appendValue( ChronoField.YEAR, 4, 9, SignStyle.NORMAL )
+            .appendLiteral( '-' ).appendValue( ChronoField.MONTH_OF_YEAR, 1, 2, SignStyle.NOT_NEGATIVE )
+            .appendLiteral( '-' ).appendValue( ChronoField.DAY_OF_MONTH, 1, 2, SignStyle.NOT_NEGATIVE )
+            .optionalStart()
+            .optionalStart().appendLiteral( 'T' ).optionalEnd()
+            .optionalStart().appendLiteral( ' ' ).optionalEnd()
+            .appendValue( ChronoField.HOUR_OF_DAY, 1, 2, SignStyle.NOT_NEGATIVE )
+            .appendLiteral( ':' ).appendValue( ChronoField.MINUTE_OF_HOUR, 1, 2, SignStyle.NOT_NEGATIVE )
+            .optionalStart()
+            .appendLiteral( ':' ).appendValue( ChronoField.SECOND_OF_MINUTE, 1, 2, SignStyle.NOT_NEGATIVE )
+            .optionalStart().appendFraction( ChronoField.NANO_OF_SECOND, 1, 9, true ).optionalEnd()
+            .optionalEnd()
+            .optionalEnd()
+            .parseDefaulting( ChronoField.HOUR_OF_DAY, 0 )
+            .parseDefaulting( ChronoField.MINUTE_OF_HOUR, 0 )
+            .parseDefaulting( ChronoField.SECOND_OF_MINUTE, 0 )
+            .toFormatter()
+            .withResolverStyle( ResolverStyle.STRICT );
+
+    /**
+     * years before this one differ between {@link Date} and java.time, julian calendar before 1583 and local mean time
+     * before 1900 that the zones of java.util.TimeZone leave out
+     */
+    private static final int LEGACY_YEAR = 1901;
+
+    /**
+     * 1901-01-02T00:00Z, a day after LEGACY_YEAR starts so any zone offset is on the right side
+     */
+    private static final long LEGACY_MILLIS = -2177366400000L;
+
+    private static final int[] DAYS_IN_MONTH = { 31, 29, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
+
+    private DateParser() {
+    }
+
+    /**
+     * @param text - date as "yyyy-MM-dd", "yyyy-MM-ddTHH:mm" or "yyyy-MM-dd[ T]HH:mm:ss", one digit month, day and
+     * time fields and a fraction of second are accepted too
+     * @return the date or null if text is not a valid date in one of these shapes
+     */
+    static Date parse( String text ) {
+        Date date = parseFixed( text );
+        if( date == null ){
+            date = parseLenient( text.trim() );
+        }
+        return date;
+    }
+
+    /**
+     * @param date - date to print
+     * @return date as "yyyy-MM-dd kk:mm:ss" in local time
+     */
+    static String format( Date date ) {
+        return FORMATTER.format( toLocal( date.getTime() ) );
+    }
+
+    /**
+     * @return current time without the milliseconds, what a form that sent no valid date gets
+     */
+    static Date now() {
+        return new Date( Math.floorDiv( System.currentTimeMillis(), 1000 ) * 1000 );
+    }
+
+    private static Date parseFixed( String text ) {
+        int length = text.length();
+        if( ( length != 10 && length != 16 && length != 19 ) || text.charAt( 4 ) != '-' || text.charAt( 7 ) != '-' ){
+            return null;
+        }
+        int year = digits( text, 0, 4 );
+        int month = digits( text, 5, 2 );
+        int day = digits( text, 8, 2 );
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        if( length > 10 ){
+            char separator = text.charAt( 10 );
+            if( ( separator != ' ' && separator != 'T' ) || text.charAt( 13 ) != ':' ){
+                return null;
+            }
+            hour = digits( text, 11, 2 );
+            minute = digits( text, 14, 2 );
+            if( length == 19 ){
+                second = text.charAt( 16 ) == ':' ? digits( text, 17, 2 ) : -1;
+            }
+        }
+        if( year < 0 || month < 1 || month > 12 || day < 1 || day > DAYS_IN_MONTH[ month - 1 ]
+                || hour < 0 || hour > 24 || minute < 0 || minute > 59 || second < 0 || second > 59 ){
+            return null;
+        }
+        if( month == 2 && day == 29 && year >= LEGACY_YEAR && !isLeap( year ) ){
+            return null;
+        }
+        return toDate( year, month, day, hour == 24 ? 0 : hour, minute, second, 0 );
+    }
+
+    private static Date parseLenient( String text ) {
+        LocalDateTime local;
+        try {
+            local = LENIENT.parse( text, LocalDateTime::from );
+        } catch( DateTimeParseException ex ) {
+            return null;
+        }
+        return toDate( local.getYear(), local.getMonthValue(), local.getDayOfMonth(), local.getHour(),
+                local.getMinute(), local.getSecond(), local.getNano() );
+    }
+
+    /**
+     * @return value of count decimal digits starting at offset or -1 if one of them is not a digit
+     */
+    private static int digits( String text, int offset, int count ) {
+        int value = 0;
+        for( int i = offset; i < offset + count; i++ ) {
+            int digit = text.charAt( i ) - '0';
+            if( digit < 0 || digit > 9 ){
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static boolean isLeap( int year ) {
+        return ( year & 3 ) == 0 && ( year % 100 != 0 || year % 400 == 0 );
+    }
+
+    @SuppressWarnings( "deprecation" )
+    private static Date toDate( int year, int month, int day, int hour, int minute, int second, int nano ) {
+        if( year < LEGACY_YEAR ){
+            //the deprecated constructor reads the fields with the calendar and zone of java.util.Date
+            Timestamp legacy = new Timestamp( year - 1900, month - 1, day, hour, minute, second, nano );
+            return new Date( legacy.getTime() );
+        }
+        //in the hour repeated when daylight saving ends java.util.Date picks standard time, the later one
+        LocalDateTime local = LocalDateTime.of( year, month, day, hour, minute, second, nano );
+        return new Date( local.atZone( ZoneId.systemDefault() ).withLaterOffsetAtOverlap().toEpochSecond() * 1000
+                + nano / 1_000_000 );
+    }
+
+    private static LocalDateTime toLocal( long millis ) {
+        if( millis < LEGACY_MILLIS ){
+            return new Timestamp( millis ).toLocalDateTime();
+        }
+        return LocalDateTime.ofInstant( Instant.ofEpochMilli( millis ), ZoneId.systemDefault() );
+    }
+}
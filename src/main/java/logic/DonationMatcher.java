@@ -0,0 +1,452 @@
+package logic;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * in memory index of the donations held by each blood bank, answering "which units can this recipient receive, those
+ * expiring first" without reading the DB or going through entities.
+ *
+ * each bank has one shelf per {@link BloodType} code. a shelf is a pair of int and long arrays holding the id and the
+ * expiry time of its donations, sorted by expiry and then id. the blood types a recipient can receive come from
+ * {@link BloodType#donorsOf(int)} as a bit mask, so a match only visits the compatible shelves, skips the expired head
+ * of each with a binary search and then merges them oldest first until enough units are found.
+ *
+ * the shelf and expiry of each donation, needed to find it again when it changes, are kept by id in an
+ * {@link IntIntMap} and an {@link IntLongMap}, so a donation costs no object of its own. new donations usually expire
+ * last and are appended. many threads can match at once, changes wait for running matches.
+ */
+public final class DonationMatcher {
+
+    private static final int[] NO_IDS = new int[ 0 ];
+
+    /**
+     * shelf order, by expiry and then id, of rows of load
+     */
+    private static final Comparator<long[]> BY_EXPIRY = ( a, b ) -> a[ 3 ] != b[ 3 ] ? Long.compare( a[ 3 ], b[ 3 ] )
+            : Long.compare( a[ 0 ], b[ 0 ] );
+
+    /**
+     * id and expiry of the donations of one blood type in one bank, sorted by expiry and then id
+     */
+    private static final class Shelf {
+
+        private int[] ids = NO_IDS;
+        private long[] expires = new long[ 0 ];
+        private int size;
+
+        /**
+         * @return index of the first donation expiring after now
+         */
+        int fresh( long now ) {
+            int low = 0, high = size;
+            while( low < high ) {
+                int mid = ( low + high ) >>> 1;
+                if( expires[ mid ] <= now ){
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * @return index of the donation, or -(insertion point) - 1 if it is not on the shelf
+         */
+        int indexOf( int id, long expiry ) {
+            int low = 0, high = size - 1;
+            while( low <= high ) {
+                int mid = ( low + high ) >>> 1;
+                int cmp = expires[ mid ] != expiry ? Long.compare( expires[ mid ], expiry )
+                        : Integer.compare( ids[ mid ], id );
+                if( cmp < 0 ){
+                    low = mid + 1;
+                } else if( cmp > 0 ){
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -( low + 1 );
+        }
+
+        void insert( int id, long expiry ) {
+            int index = indexOf( id, expiry );
+            if( index >= 0 ){
+                return;
+            }
+            index = -index - 1;
+            if( size == ids.length ){
+                int capacity = Math.max( 8, size + ( size >> 1 ) );
+                ids = Arrays.copyOf( ids, capacity );
+                expires = Arrays.copyOf( expires, capacity );
+            }
+            System.arraycopy( ids, index, ids, index + 1, size - index );
+            System.arraycopy( expires, index, expires, index + 1, size - index );
+            ids[ index ] = id;
+            expires[ index ] = expiry;
+            size++;
+        }
+
+        void delete( int id, long expiry ) {
+            int index = indexOf( id, expiry );
+            if( index >= 0 ){
+                deleteRange( index, index + 1 );
+            }
+        }
+
+        void deleteRange( int from, int to ) {
+            System.arraycopy( ids, to, ids, from, size - to );
+            System.arraycopy( expires, to, expires, from, size - to );
+            size -= to - from;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * shelves of every bank, those of the bank at index b are from b * BloodType.COUNT, null until used
+     */
+    private Shelf[] shelves = new Shelf[ 0 ];
+    /**
+     * id of the bank at each index of shelves
+     */
+    private int[] bankIds = NO_IDS;
+    private int bankCount;
+    /**
+     * index of each bank id
+     */
+    private final IntIntMap bankIndex = new IntIntMap();
+
+    /**
+     * index in shelves of the shelf of each donation, keyed by donation id
+     */
+    private final IntIntMap places = new IntIntMap();
+    /**
+     * expiry of each donation, keyed by donation id
+     */
+    private final IntLongMap expiries = new IntLongMap();
+
+    private final ChangedIds changed = new ChangedIds( false );
+
+    private volatile boolean loaded;
+
+    public DonationMatcher() {
+    }
+
+    /**
+     * add a donation, or move it if the id is already in the index.
+     *
+     * @param id - primary key of the donation
+     * @param bankId - id of the blood bank holding it
+     * @param type - blood type code
+     * @param expiry - time the donation expires, in milliseconds since the epoch
+     */
+    public void put( int id, int bankId, int type, long expiry ) {
+        lock.writeLock().lock();
+        try {
+            changed.mark( id );
+            insert( id, bankId, type, expiry );
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * remove a donation, does nothing if the id is not in the index.
+     *
+     * @param id - primary key of the donation
+     */
+    public void remove( int id ) {
+        lock.writeLock().lock();
+        try {
+            changed.mark( id );
+            delete( id );
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * replace the content of the index with the given donations. put and remove called while this runs are kept.
+     *
+     * @param rows - donation id, bank id, blood type code and expiry in milliseconds of each donation
+     */
+    public void load( List<long[]> rows ) {
+        lock.writeLock().lock();
+        try {
+            changed.start();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        //in shelf order, so every insert is an append
+        long[][] sorted = rows.toArray( new long[ rows.size() ][] );
+        Arrays.sort( sorted, BY_EXPIRY );
+        lock.writeLock().lock();
+        try {
+            int[] kept = changed.toArray();
+            long[][] keptRows = new long[ kept.length ][];
+            int keptCount = 0;
+            for( int id: kept ) {
+                int place = places.get( id, -1 );
+                if( place != -1 ){
+                    keptRows[ keptCount++ ] = new long[] { id, bankIds[ place / BloodType.COUNT ],
+                        place % BloodType.COUNT, expiries.get( id, 0 ) };
+                }
+            }
+            Arrays.fill( shelves, null );
+            bankCount = 0;
+            bankIndex.clear();
+            places.clear();
+            expiries.clear();
+            for( long[] row: sorted ) {
+                if( !changed.contains( (int)row[ 0 ] ) ){
+                    insert( (int)row[ 0 ], (int)row[ 1 ], (int)row[ 2 ], row[ 3 ] );
+                }
+            }
+            for( int i = 0; i < keptCount; i++ ) {
+                insert( (int)keptRows[ i ][ 0 ], (int)keptRows[ i ][ 1 ], (int)keptRows[ i ][ 2 ], keptRows[ i ][ 3 ] );
+            }
+            changed.stop();
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return false until the index is filled from the DB
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * @return number of donations in the index, expired ones included until they are removed
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return places.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * find donations of any bank a recipient can receive, those expiring first.
+     *
+     * @param recipient - blood type code of the recipient
+     * @param count - most donations to return
+     * @param now - donations expiring at or before this time are skipped
+     * @return ids of at most count donations, ordered by expiry
+     */
+    public int[] match( int recipient, int count, long now ) {
+        return match( null, recipient, count, now, null );
+    }
+
+    /**
+     * find donations of one bank a recipient can receive, those expiring first.
+     *
+     * @param bankId - id of the blood bank to take donations from
+     * @param recipient - blood type code of the recipient
+     * @param count - most donations to return
+     * @param now - donations expiring at or before this time are skipped
+     * @return ids of at most count donations, ordered by expiry
+     */
+    public int[] match( int bankId, int recipient, int count, long now ) {
+        return match( bankId, recipient, count, now, null );
+    }
+
+    /**
+     * find donations of any bank for many recipients at once, no donation is given to two recipients.
+     *
+     * recipients who can receive the fewest blood types choose first, so an O- recipient is not left without units
+     * because an AB+ recipient asked before them and took the O- ones expiring first.
+     *
+     * @param recipients - blood type code of each recipient
+     * @param count - most donations to find for each recipient
+     * @param now - donations expiring at or before this time are skipped
+     * @return ids of the donations found for each recipient, in the order of recipients
+     */
+    public int[][] matchAll( int[] recipients, int count, long now ) {
+        Integer[] order = new Integer[ recipients.length ];
+        for( int i = 0; i < order.length; i++ ) {
+            order[ i ] = i;
+        }
+        Arrays.sort( order, ( a, b ) -> Integer.compare( Integer.bitCount( BloodType.donorsOf( recipients[ a ] ) ),
+                Integer.bitCount( BloodType.donorsOf( recipients[ b ] ) ) ) );
+        int[][] result = new int[ recipients.length ][];
+        BitSet taken = new BitSet();
+        lock.readLock().lock();
+        try {
+            for( int i: order ) {
+                result[ i ] = matchLocked( null, recipients[ i ], count, now, taken );
+                for( int id: result[ i ] ) {
+                    taken.set( id );
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private int[] match( Integer bankId, int recipient, int count, long now, BitSet taken ) {
+        lock.readLock().lock();
+        try {
+            return matchLocked( bankId, recipient, count, now, taken );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * merge the compatible shelves by expiry. the shelves are kept in a binary heap ordered by their next donation, so
+     * each donation taken, or skipped because another recipient has it, costs a log of the number of shelves.
+     */
+    private int[] matchLocked( Integer bankId, int recipient, int count, long now, BitSet taken ) {
+        if( count <= 0 ){
+            return NO_IDS;
+        }
+        int donors = BloodType.donorsOf( recipient );
+        int firstBank = 0;
+        int lastBank = bankCount;
+        if( bankId != null ){
+            firstBank = bankIndex.get( bankId, -1 );
+            if( firstBank == -1 ){
+                return NO_IDS;
+            }
+            lastBank = firstBank + 1;
+        }
+        Shelf[] open = new Shelf[ BloodType.COUNT * ( lastBank - firstBank ) ];
+        int[] heads = new int[ open.length ];
+        int shelves = 0;
+        for( int bank = firstBank; bank < lastBank; bank++ ) {
+            for( int type = 0; type < BloodType.COUNT; type++ ) {
+                Shelf shelf = this.shelves[ bank * BloodType.COUNT + type ];
+                if( ( donors & 1 << type ) != 0 && shelf != null ){
+                    int head = shelf.fresh( now );
+                    if( head < shelf.size ){
+                        open[ shelves ] = shelf;
+                        heads[ shelves++ ] = head;
+                    }
+                }
+            }
+        }
+        for( int i = shelves / 2 - 1; i >= 0; i-- ) {
+            siftDown( open, heads, i, shelves );
+        }
+        int[] found = new int[ count ];
+        int size = 0;
+        while( size < count && shelves > 0 ){
+            int id = open[ 0 ].ids[ heads[ 0 ]++ ];
+            if( taken == null || !taken.get( id ) ){
+                found[ size++ ] = id;
+            }
+            if( heads[ 0 ] == open[ 0 ].size ){
+                shelves--;
+                open[ 0 ] = open[ shelves ];
+                heads[ 0 ] = heads[ shelves ];
+            }
+            siftDown( open, heads, 0, shelves );
+        }
+        return size == count ? found : Arrays.copyOf( found, size );
+    }
+
+    private static void siftDown( Shelf[] open, int[] heads, int i, int size ) {
+        while( true ){
+            int first = i, left = 2 * i + 1, right = left + 1;
+            if( left < size && before( open[ left ], heads[ left ], open[ first ], heads[ first ] ) ){
+                first = left;
+            }
+            if( right < size && before( open[ right ], heads[ right ], open[ first ], heads[ first ] ) ){
+                first = right;
+            }
+            if( first == i ){
+                return;
+            }
+            Shelf shelf = open[ i ];
+            open[ i ] = open[ first ];
+            open[ first ] = shelf;
+            int head = heads[ i ];
+            heads[ i ] = heads[ first ];
+            heads[ first ] = head;
+            i = first;
+        }
+    }
+
+    private static boolean before( Shelf a, int i, Shelf b, int j ) {
+        return a.expires[ i ] != b.expires[ j ] ? a.expires[ i ] < b.expires[ j ] : a.ids[ i ] < b.ids[ j ];
+    }
+
+    /**
+     * remove every donation expiring at or before now.
+     *
+     * @param now - time in milliseconds since the epoch
+     * @return number of donations removed
+     */
+    public int removeExpired( long now ) {
+        lock.writeLock().lock();
+        try {
+            int removed = 0;
+            for( int place = 0; place < bankCount * BloodType.COUNT; place++ ) {
+                Shelf shelf = shelves[ place ];
+                if( shelf == null ){
+                    continue;
+                }
+                int head = shelf.fresh( now );
+                for( int i = 0; i < head; i++ ) {
+                    changed.mark( shelf.ids[ i ] );
+                    places.remove( shelf.ids[ i ], -1 );
+                    expiries.remove( shelf.ids[ i ], 0 );
+                }
+                shelf.deleteRange( 0, head );
+                removed += head;
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * add a donation or move it, caller must hold the write lock
+     */
+    private void insert( int id, int bankId, int type, long expiry ) {
+        delete( id );
+        int bank = bankIndex.get( bankId, -1 );
+        if( bank == -1 ){
+            bank = bankCount++;
+            if( bank == bankIds.length ){
+                int capacity = Math.max( 4, bank * 2 );
+                bankIds = Arrays.copyOf( bankIds, capacity );
+                shelves = Arrays.copyOf( shelves, capacity * BloodType.COUNT );
+            }
+            bankIds[ bank ] = bankId;
+            bankIndex.put( bankId, bank );
+        }
+        int place = bank * BloodType.COUNT + type;
+        if( shelves[ place ] == null ){
+            shelves[ place ] = new Shelf();
+        }
+        shelves[ place ].insert( id, expiry );
+        places.put( id, place );
+        expiries.put( id, expiry );
+    }
+
+    /**
+     * remove a donation if it is in the index, caller must hold the write lock
+     */
+    private void delete( int id ) {
+        int place = places.remove( id, -1 );
+        if( place != -1 ){
+            shelves[ place ].delete( id, expiries.remove( id, 0 ) );
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package logic;
 
-import common.ValidationException;
 import dal.DonationRecordDAL;
 import entity.DonationRecord;
 
@@ -9,7 +8,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.function.ObjIntConsumer;
+import java.util.concurrent.TimeUnit;
 
 /**
  *
@@ -25,9 +24,72 @@ public class DonationRecordLogic extends GenericLogic<DonationRecord, DonationRe
     public static final String HOSPITAL = "hospital";
     public static final String CREATED = "created";
 
-       public DonationRecordLogic() {
+    /**
+     * shortest number of days between two donations of one person
+     */
+    public static final int DAYS_BETWEEN_DONATIONS = 56;
+
+    private final DonorEligibility eligibility = new DonorEligibility( TimeUnit.DAYS.toMillis( DAYS_BETWEEN_DONATIONS ) );
+
+    /**
+     * fields of the create and edit forms, limits are the ones of {@link DonationRecord}. the forms offer Positive and
+     * Negative for tested.
+     */
+    private static final EntityBinder<DonationRecord> BINDER = EntityBinder.of( DonationRecord.class, DonationRecord::new )
+            .id( ID, DonationRecord::setId )
+            .bool( TESTED, "tested", DonationRecord::setTested, "Positive", "Negative" )
+            .text( ADMINISTRATOR, "administrator", DonationRecord::setAdministrator )
+            .text( HOSPITAL, "hospital", DonationRecord::setHospital )
+            .dateOrNow( CREATED, "created", DonationRecord::setCreated )
+            .build();
+
+       DonationRecordLogic() {
         super(new DonationRecordDAL() );
     }
+
+    /**
+     * @return time of the last donation of each person
+     */
+    public DonorEligibility getEligibility() {
+        return eligibility;
+    }
+
+    /**
+     * @param personId - id of a person
+     * @return true if the person can give blood now, checked in memory without a query
+     */
+    public boolean isEligible( int personId ) {
+        return eligibility.isEligible( personId, System.currentTimeMillis() );
+    }
+
+    /**
+     * check a person against the DB instead of memory, which only sees a donation once its unit of work committed.
+     * the row of the person stays locked until the unit ends, so concurrent donations of one person are checked one
+     * after the other. call it first in the {@link UnitOfWork} adding the donation.
+     *
+     * @param personId - id of a person
+     * @return first time the person can give again in milliseconds, 0 if they never gave
+     */
+    public long getNextEligibleLocked( int personId ) {
+        Date last = get( () -> dal().findLastOfPersonLocked( personId ) );
+        return last == null ? 0 : last.getTime() + TimeUnit.DAYS.toMillis( DAYS_BETWEEN_DONATIONS );
+    }
+
+    /**
+     * fill the last donation of each person with one GROUP BY query, call it once at startup.
+     */
+    void loadEligibility() {
+        eligibility.load( get( () -> dal().findLastByPerson() ) );
+    }
+
+    @Override
+    protected void added( DonationRecord entity ) {
+        if( entity.getPerson() != null && entity.getPerson().getId() != null && entity.getCreated() != null ){
+            int personId = entity.getPerson().getId();
+            long time = entity.getCreated().getTime();
+            UnitOfWork.afterCommit( () -> eligibility.record( personId, time ) );
+        }
+    }
     
         @Override
     public List<DonationRecord> getAll() {
@@ -94,59 +156,7 @@ public class DonationRecordLogic extends GenericLogic<DonationRecord, DonationRe
     public DonationRecord createEntity(Map<String, String[]> parameterMap) {
 
         Objects.requireNonNull( parameterMap, "parameterMap cannot be null" );
- 
-        //create a new Entity object
-        DonationRecord entity = new DonationRecord();
-
-        //before using the values in the map, make sure to do error checking.
-        //simple lambda to validate a string, this can also be place in another
-        //method to be shared amoung all logic classes.
-        // this is where all the input is checked and then we check to see if it has the same values in the table already
-        ObjIntConsumer< String> validator = ( value, length ) -> {
-            if( value == null || value.trim().isEmpty() || value.length() > length ){
-                // GIVING AN ERROR WHEN I LEAVE THE STRING EMPTY
-                String error = "";
-                if( value == null || value.trim().isEmpty() ){
-                    error = "value cannot be null or empty: " + value;
-                }
-                if( value.length() > length ){
-                    error = "string length is " + value.length() + " > " + length;
-                }
-                throw new ValidationException( error );
-            }
-        };
-        
-        if( parameterMap.containsKey( ID ) ){
-            try {
-                entity.setId( Integer.parseInt( parameterMap.get( ID )[ 0 ] ) );
-            } catch( java.lang.NumberFormatException ex ) {
-                throw new ValidationException(ex);
-            }
-        }
-
-        //extract the date from map first.
-        //everything in the parameterMap is string so it must first be
-        //converted to appropriate type. have in mind that values are
-        //stored in an array of String; almost always the value is at
-        //index zero unless you have used duplicated key/name somewhere.
-        
-        String tested = parameterMap.get( TESTED )[ 0 ];
-        String administrator = parameterMap.get( ADMINISTRATOR )[ 0 ];
-        String hospital = parameterMap.get( HOSPITAL )[ 0 ];
-        
-        //validate the data
-        validator.accept( tested, 45 );
-        validator.accept( hospital, 45 );
-        validator.accept( hospital, 45 );
-        Date creation_time = convertStringToDate(parameterMap.get( CREATED )[ 0 ]);
-
-        entity.setCreated(creation_time);
-        entity.setAdministrator(administrator );
-    
-        entity.setTested(Boolean.parseBoolean(tested));
-        entity.setHospital(hospital);
-
-        return entity;
+        return BINDER.create( parameterMap );
     }
     
     @Override
@@ -161,21 +171,6 @@ public class DonationRecordLogic extends GenericLogic<DonationRecord, DonationRe
         // Get current entity
         DonationRecord entityToUpdate = getWithId(Integer.parseInt(parameterMap.get(ID)[0]));
 
-        ObjIntConsumer< String> validator = ( value, length ) -> {
-            if( value == null || value.trim().isEmpty() || value.length() > length ){
-                // GIVING AN ERROR WHEN I LEAVE THE STRING EMPTY
-                String error = "";
-                if( value == null || value.trim().isEmpty() ){
-                    error = "value cannot be null or empty: " + value;
-                }
-                if( value.length() > length ){
-                    error = "string length is " + value.length() + " > " + length;
-                }
-                throw new ValidationException( error );
-            }
-        };
-  
-        
         int person_id = -1;
         if (entityToUpdate.getPerson() != null) {
             person_id = entityToUpdate.getPerson().getId();
@@ -199,46 +194,8 @@ public class DonationRecordLogic extends GenericLogic<DonationRecord, DonationRe
             } 
         } 
         
-        Boolean tested = entityToUpdate.getTested();
-        if( parameterMap.containsKey( TESTED ) ){
-            Boolean newTested = Boolean.parseBoolean(parameterMap.get( TESTED )[ 0 ]);
-            if(newTested != tested){
-                tested = newTested;
-            } 
-        }
-        
-        String administrator = entityToUpdate.getAdministrator();
-        if (parameterMap.containsKey(ADMINISTRATOR)) {
-            String newAdministrator = parameterMap.get( ADMINISTRATOR )[ 0 ];
-            if (!newAdministrator.equals(administrator)) {
-                administrator = newAdministrator;
-            }
-        }
-        
-        String hospital = entityToUpdate.getHospital();
-        if (parameterMap.containsKey(HOSPITAL)) {
-            String newHospital = parameterMap.get( HOSPITAL )[ 0 ];
-            if (!newHospital.equals(hospital)) {
-                hospital = newHospital;
-            }
-        }
-
-        validator.accept( administrator, 45 );
-        validator.accept( hospital, 45 );
-
-       Date creation_time = entityToUpdate.getCreated();
-       if (parameterMap.containsKey(CREATED)) {
-           Date newCreated = convertStringToDate(parameterMap.get( CREATED )[ 0 ]);
-           if (newCreated.compareTo(creation_time) != 0) {
-               creation_time = newCreated;
-           }
-       }
-
-      // set entity parameters
-        entityToUpdate.setCreated(creation_time);
-        entityToUpdate.setAdministrator(administrator );
-        entityToUpdate.setTested(tested);
-        entityToUpdate.setHospital(hospital);
+        //tested, administrator, hospital and created that are in the map
+        BINDER.update(parameterMap, entityToUpdate);
         if (person_id != -1) {
             entityToUpdate.setPerson(pLogic.getWithId(person_id));
         }
@@ -250,7 +207,9 @@ public class DonationRecordLogic extends GenericLogic<DonationRecord, DonationRe
     }
     
     @Override
-    public List<DonationRecord> search( String search ) {
-        return get( () -> dal().findContaining( search ) );
+    protected String[] searchValues( DonationRecord e ) {
+        //DonationRecord.findContaining compares the person column, which is the id of the person
+        return new String[]{ e.getAdministrator(), e.getHospital(),
+            e.getPerson() == null ? null : String.valueOf( e.getPerson().getId() ) };
     }
 }
\ No newline at end of file
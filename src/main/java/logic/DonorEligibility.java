@@ -0,0 +1,114 @@
+package logic;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * time of the last donation of each person, kept in memory to tell if a person can give blood again without reading
+ * their donation records.
+ *
+ * the times are in an {@link IntLongMap} keyed by person id, filled once from a GROUP BY over donation_record when
+ * the application starts and then moved forward by every record {@link DonationRecordLogic} adds. a check is one
+ * lookup. many threads can check at once, changes wait for running checks.
+ *
+ * a record deleted or moved back in time is not seen until the application restarts, the person stays ineligible for
+ * longer than needed, never shorter.
+ */
+public final class DonorEligibility {
+
+    private final long interval;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IntLongMap last = new IntLongMap();
+    private volatile boolean loaded;
+
+    /**
+     * @param interval - shortest time between two donations of one person, in milliseconds
+     */
+    DonorEligibility( long interval ) {
+        this.interval = interval;
+    }
+
+    /**
+     * @param personId - id of a person
+     * @return time of the last donation of the person in milliseconds, -1 if they never gave
+     */
+    public long getLastDonation( int personId ) {
+        lock.readLock().lock();
+        try {
+            return last.get( personId, -1 );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param personId - id of a person
+     * @return first time the person can give again in milliseconds, 0 if they never gave
+     */
+    public long getNextEligible( int personId ) {
+        long time = getLastDonation( personId );
+        return time == -1 ? 0 : time + interval;
+    }
+
+    /**
+     * @param personId - id of a person
+     * @param now - time of the new donation in milliseconds
+     * @return true if the person never gave or their last donation is at least the interval before now
+     */
+    public boolean isEligible( int personId, long now ) {
+        return now >= getNextEligible( personId );
+    }
+
+    /**
+     * @return number of people who gave at least once
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return last.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return false until the times are filled from the DB
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * remember a donation, an older one than the last known is ignored.
+     *
+     * @param personId - id of the donor
+     * @param time - time of the donation in milliseconds
+     */
+    void record( int personId, long time ) {
+        lock.writeLock().lock();
+        try {
+            last.putMax( personId, time );
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * add the result of the "DonationRecord.lastByPerson" query. a later time recorded while the query ran is kept.
+     *
+     * @param rows - person id and time of the last donation of each person
+     */
+    void load( List<Object[]> rows ) {
+        lock.writeLock().lock();
+        try {
+            for( Object[] row: rows ) {
+                last.putMax( ( (Number)row[ 0 ] ).intValue(), ( (Date)row[ 1 ] ).getTime() );
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package logic;
+
+import common.ValidationException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ * copies the values of a submitted form into an entity. each logic builds one binder when its class is loaded, the
+ * length limits and which values are required come from the {@link Size} and {@link NotNull} annotations of the entity
+ * fields. binding is one loop over a flat array of fields with one map lookup each and no allocation unless a value is
+ * wrong. every wrong value is collected and reported in one {@link ValidationException}.
+ * <p>
+ * a key missing from the map or mapped to null throws NullPointerException and an empty array throws
+ * IndexOutOfBoundsException right away, the form is broken and there is nothing to report to the user.
+ *
+ * @param <E> - entity type
+ */
+final class EntityBinder<E> {
+
+    /**
+     * longest value accepted for a number, boolean, date or choice, checked before the value is parsed
+     */
+    static final int MAX_VALUE_LENGTH = 45;
+
+    private final Supplier<E> factory;
+    private final List<Binder<E>> binders;
+
+    private EntityBinder( Supplier<E> factory, List<Binder<E>> binders ) {
+        this.factory = factory;
+        this.binders = binders;
+    }
+
+    /**
+     * @param <E> - entity type
+     * @param type - entity class, its fields are read for the annotations
+     * @param factory - creates an empty entity
+     * @return builder to add the form fields to
+     */
+    static <E> Builder<E> of( Class<E> type, Supplier<E> factory ) {
+        return new Builder<>( type, factory );
+    }
+
+    /**
+     * @param parameterMap - submitted form, every required key must be in it
+     * @return new entity with the values of the form
+     * @throws ValidationException with all the values that are wrong
+     */
+    E create( Map<String, String[]> parameterMap ) {
+        return bind( parameterMap, factory.get(), false );
+    }
+
+    /**
+     * keys missing from the form keep the value of the entity, so does a date that is empty or not a date. the id is
+     * not changed, it is what picked the entity.
+     *
+     * @param parameterMap - submitted form
+     * @param entity - entity to change
+     * @return entity
+     * @throws ValidationException with all the values that are wrong, entity may be partly changed
+     */
+    E update( Map<String, String[]> parameterMap, E entity ) {
+        return bind( parameterMap, entity, true );
+    }
+
+    private E bind( Map<String, String[]> parameterMap, E entity, boolean update ) {
+        Map<String, String> errors = null;
+        for( Binder<E> binder: binders ) {
+            if( update && binder.isId() ){
+                continue;
+            }
+            String[] values = parameterMap.get( binder.key );
+            if( values == null ){
+                if( ( update || binder.optional ) && !parameterMap.containsKey( binder.key ) ){
+                    continue;
+                }
+                throw new NullPointerException( "no value for " + binder.key );
+            }
+            String error = binder.bind( entity, values[ 0 ], update );
+            if( error != null ){
+                if( errors == null ){
+                    errors = new LinkedHashMap<>();
+                }
+                errors.put( binder.key, error );
+            }
+        }
+        if( errors != null ){
+            throw new ValidationException( errors );
+        }
+        return entity;
+    }
+
+    /**
+     * adds the fields of the form, in the order errors are reported
+     *
+     * @param <E> - entity type
+     */
+    static final class Builder<E> {
+
+        private final Class<E> type;
+        private final Supplier<E> factory;
+        private final List<Binder<E>> binders = new ArrayList<>();
+
+        private Builder( Class<E> type, Supplier<E> factory ) {
+            this.type = type;
+            this.factory = factory;
+        }
+
+        /**
+         * generated id, only present when the form edits an existing row
+         */
+        Builder<E> id( String key, ObjIntConsumer<E> setter ) {
+            binders.add( new IdBinder<>( key, setter ) );
+            return this;
+        }
+
+        /**
+         * string limited by the {@link Size} of the field, a {@link NotNull} field cannot be blank
+         */
+        Builder<E> text( String key, String field, BiConsumer<E, String> setter ) {
+            java.lang.reflect.Field declared = field( field );
+            Size size = declared.getAnnotation( Size.class );
+            boolean required = declared.isAnnotationPresent( NotNull.class );
+            binders.add( new TextBinder<>( key, !required, setter, required,
+                    size == null ? 0 : size.min(), size == null ? Integer.MAX_VALUE : size.max() ) );
+            return this;
+        }
+
+        /**
+         * string limited by the {@link Size} of the field, it may be left out of the form but cannot be blank when it
+         * is sent even if the field can be null
+         */
+        Builder<E> nonBlankText( String key, String field, BiConsumer<E, String> setter ) {
+            Size size = field( field ).getAnnotation( Size.class );
+            binders.add( new TextBinder<>( key, isOptional( field ), setter, true,
+                    size == null ? 0 : size.min(), size == null ? Integer.MAX_VALUE : size.max() ) );
+            return this;
+        }
+
+        Builder<E> integer( String key, String field, ObjIntConsumer<E> setter ) {
+            binders.add( new IntBinder<>( key, isOptional( field ), setter ) );
+            return this;
+        }
+
+        /**
+         * "true" or "false" in any case
+         */
+        Builder<E> bool( String key, String field, BiConsumer<E, Boolean> setter ) {
+            return bool( key, field, setter, Boolean.TRUE.toString(), Boolean.FALSE.toString() );
+        }
+
+        /**
+         * "true" or "false" or the labels of a select, in any case
+         */
+        Builder<E> bool( String key, String field, BiConsumer<E, Boolean> setter, String trueLabel,
+                String falseLabel ) {
+            binders.add( new BooleanBinder<>( key, isOptional( field ), setter, trueLabel, falseLabel ) );
+            return this;
+        }
+
+        /**
+         * a {@link NotNull} field cannot be blank, text that is not a date is the current time like
+         * {@link GenericLogic#convertStringToDate(String)}
+         */
+        Builder<E> date( String key, String field, BiConsumer<E, Date> setter ) {
+            boolean optional = isOptional( field );
+            binders.add( new DateBinder<>( key, optional, setter, !optional ) );
+            return this;
+        }
+
+        /**
+         * empty or not a date is the current time, for the forms that leave the date empty to mean now
+         */
+        Builder<E> dateOrNow( String key, String field, BiConsumer<E, Date> setter ) {
+            binders.add( new DateBinder<>( key, isOptional( field ), setter, false ) );
+            return this;
+        }
+
+        /**
+         * @param parser - returns the value of the text, throws IllegalArgumentException if there is none
+         */
+        <V> Builder<E> choice( String key, String field, Function<String, V> parser, BiConsumer<E, V> setter ) {
+            binders.add( new ChoiceBinder<>( key, isOptional( field ), parser, setter ) );
+            return this;
+        }
+
+        EntityBinder<E> build() {
+            return new EntityBinder<>( factory, new ArrayList<>( binders ) );
+        }
+
+        private boolean isOptional( String field ) {
+            return !field( field ).isAnnotationPresent( NotNull.class );
+        }
+
+        private java.lang.reflect.Field field( String name ) {
+            for( Class<?> c = type; c != null; c = c.getSuperclass() ) {
+                try {
+                    return c.getDeclaredField( name );
+                } catch( NoSuchFieldException ex ) {
+                    //look in the super class
+                }
+            }
+            throw new IllegalArgumentException( type.getSimpleName() + " has no field " + name );
+        }
+    }
+
+    /**
+     * one field of the form
+     */
+    private abstract static class Binder<E> {
+
+        final String key;
+
+        /**
+         * the key may be missing from the form
+         */
+        final boolean optional;
+
+        Binder( String key, boolean optional ) {
+            this.key = key;
+            this.optional = optional;
+        }
+
+        boolean isId() {
+            return false;
+        }
+
+        /**
+         * @return what is wrong with the value or null if it was set on the entity
+         */
+        abstract String bind( E entity, String value, boolean update );
+
+        /**
+         * @return error if the value is too long to be parsed, null otherwise
+         */
+        static String checkLength( String value ) {
+            return value.length() > MAX_VALUE_LENGTH ? "longer than " + MAX_VALUE_LENGTH + " characters" : null;
+        }
+    }
+
+    private static class TextBinder<E> extends Binder<E> {
+
+        private final BiConsumer<E, String> setter;
+        private final boolean required;
+        private final int min;
+        private final int max;
+
+        TextBinder( String key, boolean optional, BiConsumer<E, String> setter, boolean required, int min, int max ) {
+            super( key, optional );
+            this.setter = setter;
+            this.required = required;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        String bind( E entity, String value, boolean update ) {
+            if( value.length() > max ){
+                return "length is " + value.length() + " > " + max;
+            }
+            if( value.length() < min || ( required && value.isBlank() ) ){
+                return "cannot be empty";
+            }
+            setter.accept( entity, value );
+            return null;
+        }
+    }
+
+    private static class IntBinder<E> extends Binder<E> {
+
+        private final ObjIntConsumer<E> setter;
+
+        IntBinder( String key, boolean optional, ObjIntConsumer<E> setter ) {
+            super( key, optional );
+            this.setter = setter;
+        }
+
+        @Override
+        String bind( E entity, String value, boolean update ) {
+            String error = checkLength( value );
+            if( error != null ){
+                return error;
+            }
+            try {
+                setter.accept( entity, Integer.parseInt( value ) );
+                return null;
+            } catch( NumberFormatException ex ) {
+                return "not a number: " + value;
+            }
+        }
+    }
+
+    private static class IdBinder<E> extends IntBinder<E> {
+
+        IdBinder( String key, ObjIntConsumer<E> setter ) {
+            super( key, true, setter );
+        }
+
+        @Override
+        boolean isId() {
+            return true;
+        }
+    }
+
+    private static class BooleanBinder<E> extends Binder<E> {
+
+        private final BiConsumer<E, Boolean> setter;
+        private final String trueLabel;
+        private final String falseLabel;
+
+        BooleanBinder( String key, boolean optional, BiConsumer<E, Boolean> setter, String trueLabel,
+                String falseLabel ) {
+            super( key, optional );
+            this.setter = setter;
+            this.trueLabel = trueLabel;
+            this.falseLabel = falseLabel;
+        }
+
+        @Override
+        String bind( E entity, String value, boolean update ) {
+            if( "true".equalsIgnoreCase( value ) || trueLabel.equalsIgnoreCase( value ) ){
+                setter.accept( entity, Boolean.TRUE );
+            } else if( "false".equalsIgnoreCase( value ) || falseLabel.equalsIgnoreCase( value ) ){
+                setter.accept( entity, Boolean.FALSE );
+            } else {
+                String error = checkLength( value );
+                return error != null ? error : "must be " + trueLabel + " or " + falseLabel + ": " + value;
+            }
+            return null;
+        }
+    }
+
+    private static class DateBinder<E> extends Binder<E> {
+
+        private final BiConsumer<E, Date> setter;
+        private final boolean required;
+
+        DateBinder( String key, boolean optional, BiConsumer<E, Date> setter, boolean required ) {
+            super( key, optional );
+            this.setter = setter;
+            this.required = required;
+        }
+
+        @Override
+        String bind( E entity, String value, boolean update ) {
+            String error = checkLength( value );
+            if( error != null ){
+                return error;
+            }
+            if( required && !update && value.isBlank() ){
+                return "cannot be empty";
+            }
+            Date date = DateParser.parse( value );
+            if( date != null ){
+                setter.accept( entity, date );
+            } else if( !update ){
+                setter.accept( entity, DateParser.now() );
+            }
+            return null;
+        }
+    }
+
+    private static class ChoiceBinder<E, V> extends Binder<E> {
+
+        private final Function<String, V> parser;
+        private final BiConsumer<E, V> setter;
+
+        ChoiceBinder( String key, boolean optional, Function<String, V> parser, BiConsumer<E, V> setter ) {
+            super( key, optional );
+            this.parser = parser;
+            this.setter = setter;
+        }
+
+        @Override
+        String bind( E entity, String value, boolean update ) {
+            String error = checkLength( value );
+            if( error != null ){
+                return error;
+            }
+            V choice;
+            try {
+                choice = parser.apply( value );
+            } catch( IllegalArgumentException ex ) {
+                choice = null;
+            }
+            if( choice == null ){
+                return "not a valid choice: " + value;
+            }
+            setter.accept( entity, choice );
+            return null;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package logic;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * follows the shelf life of every donation not expired yet and tells listeners when donations come near their expiry
+ * and when they expire.
+ *
+ * each donation is in an {@link ExpiryWheel} once, first due at the start of the near expiry window and then, when
+ * that fires, due at its expiry. a background thread advances the wheel every tick and hands the donations that fired
+ * to the listeners in one array per event, so the DB can be updated with one statement per batch. the donations inside
+ * the near expiry window are also kept in an {@link IntIntMap}, used as a set of ids, for {@link #getNearExpiry()}.
+ *
+ * track and untrack are cheap and can be called from any thread.
+ */
+public final class ExpiryTracker {
+
+    /**
+     * told about the donations that fired in one tick, on the thread of the tracker
+     */
+    public interface Listener {
+
+        /**
+         * @param ids - donations entering the near expiry window
+         */
+        default void nearExpiry( int[] ids ) {
+        }
+
+        /**
+         * if this throws, the ids not followed again since are told again on the next tick, so it must accept ids it
+         * was already told about.
+         *
+         * @param ids - donations at or past their expiry
+         */
+        default void expired( int[] ids ) {
+        }
+    }
+
+    private static final Logger LOG = Logger.getLogger( ExpiryTracker.class.getName() );
+
+    private static final int NEAR = 0;
+    private static final int EXPIRY = 1;
+
+    private final long tickMillis;
+    private final long window;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private ExpiryWheel wheel;
+    /**
+     * donations inside the near expiry window, the values are not used
+     */
+    private final IntIntMap near = new IntIntMap();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param tickMillis - how often the tracker looks for donations that fired, and how late they can be told
+     * @param window - how long before its expiry a donation is near expiry, in milliseconds
+     */
+    public ExpiryTracker( long tickMillis, long window ) {
+        this.tickMillis = tickMillis;
+        this.window = window;
+        this.wheel = new ExpiryWheel( tickMillis, System.currentTimeMillis() );
+    }
+
+    /**
+     * @param listener - told about every batch from now on
+     */
+    public void addListener( Listener listener ) {
+        listeners.add( listener );
+    }
+
+    /**
+     * follow a donation, or change its expiry if it is already followed.
+     *
+     * @param id - primary key of the donation
+     * @param expiry - time the donation expires, in milliseconds
+     */
+    public synchronized void track( int id, long expiry ) {
+        near.remove( id, 0 );
+        wheel.schedule( id, expiry - window, NEAR );
+    }
+
+    /**
+     * stop following a donation, for example once it is deleted.
+     *
+     * @param id - primary key of the donation
+     */
+    public synchronized void untrack( int id ) {
+        near.remove( id, 0 );
+        wheel.cancel( id );
+    }
+
+    /**
+     * replace everything followed with the given donations. the ones already near expiry or expired are told to the
+     * listeners on the next tick. call it at startup before requests are served.
+     *
+     * @param rows - donation id and expiry in milliseconds of each donation
+     * @param now - current time in milliseconds
+     */
+    public synchronized void load( List<long[]> rows, long now ) {
+        wheel = new ExpiryWheel( tickMillis, now );
+        near.clear();
+        for( long[] row: rows ) {
+            wheel.schedule( (int)row[ 0 ], row[ 1 ] - window, NEAR );
+        }
+    }
+
+    /**
+     * @return number of donations followed
+     */
+    public synchronized int size() {
+        return wheel.size();
+    }
+
+    /**
+     * @return ids of the donations inside the near expiry window, expiring first
+     */
+    public synchronized int[] getNearExpiry() {
+        int[] ids = near.keys();
+        long first = Long.MAX_VALUE;
+        for( int id: ids ) {
+            first = Math.min( first, wheel.deadline( id ) );
+        }
+        //sort on the ticks after the first deadline in the high half and the id in the low half, nothing is boxed
+        long[] order = new long[ ids.length ];
+        for( int i = 0; i < ids.length; i++ ) {
+            order[ i ] = ( wheel.deadline( ids[ i ] ) - first ) / tickMillis << 32 | ( ids[ i ] & 0xFFFFFFFFL );
+        }
+        Arrays.sort( order );
+        for( int i = 0; i < ids.length; i++ ) {
+            ids[ i ] = (int)order[ i ];
+        }
+        return ids;
+    }
+
+    /**
+     * @param id - primary key of a donation
+     * @return expiry of the donation rounded up to the tick, -1 if it is not followed
+     */
+    public synchronized long getExpiry( int id ) {
+        long deadline = wheel.deadline( id );
+        return deadline == -1 || wheel.tag( id ) == EXPIRY ? deadline : deadline + window;
+    }
+
+    /**
+     * advance to now and tell the listeners about the donations that fired.
+     *
+     * @param now - current time in milliseconds
+     */
+    public void tick( long now ) {
+        int[][] fired = new int[ 2 ][ 16 ];
+        int[] counts = new int[ 2 ];
+        synchronized( this ) {
+            wheel.advance( now, ( id, deadline, tag ) -> {
+                int event = tag;
+                if( tag == NEAR ){
+                    near.put( id, 0 );
+                    wheel.schedule( id, deadline + window, EXPIRY );
+                } else {
+                    near.remove( id, 0 );
+                }
+                if( counts[ event ] == fired[ event ].length ){
+                    fired[ event ] = Arrays.copyOf( fired[ event ], counts[ event ] * 2 );
+                }
+                fired[ event ][ counts[ event ]++ ] = id;
+            } );
+        }
+        int[] nearIds = Arrays.copyOf( fired[ NEAR ], counts[ NEAR ] );
+        int[] expiredIds = Arrays.copyOf( fired[ EXPIRY ], counts[ EXPIRY ] );
+        boolean retry = false;
+        for( Listener listener: listeners ) {
+            try {
+                if( nearIds.length > 0 ){
+                    listener.nearExpiry( nearIds );
+                }
+            } catch( RuntimeException ex ) {
+                LOG.log( Level.SEVERE, "expiry listener failed", ex );
+            }
+            try {
+                if( expiredIds.length > 0 ){
+                    listener.expired( expiredIds );
+                }
+            } catch( RuntimeException ex ) {
+                LOG.log( Level.SEVERE, "expiry listener failed, the donations are told again on the next tick", ex );
+                retry = true;
+            }
+        }
+        if( retry ){
+            retry( expiredIds, now );
+        }
+    }
+
+    /**
+     * schedule expired donations again so they fire on the next tick, those tracked again since they fired are left
+     * alone.
+     *
+     * @param ids - donations a listener failed to expire
+     * @param now - current time in milliseconds
+     */
+    private synchronized void retry( int[] ids, long now ) {
+        for( int id: ids ) {
+            if( wheel.deadline( id ) == -1 ){
+                wheel.schedule( id, now, EXPIRY );
+            }
+        }
+    }
+
+    /**
+     * start a daemon thread calling {@link #tick(long)} once per tick.
+     */
+    public synchronized void start() {
+        if( scheduler != null ){
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor( task -> {
+            Thread thread = new Thread( task, "expiry-tracker" );
+            thread.setDaemon( true );
+            return thread;
+        } );
+        //a task that throws is never run again, so tick must not throw
+        scheduler.scheduleAtFixedRate( () -> {
+            try {
+                tick( System.currentTimeMillis() );
+            } catch( RuntimeException ex ) {
+                LOG.log( Level.SEVERE, "expiry tick failed", ex );
+            }
+        }, 0, tickMillis, TimeUnit.MILLISECONDS );
+    }
+
+    /**
+     * stop the thread started by {@link #start()}, waiting for a running tick to end.
+     */
+    public void stop() {
+        ScheduledExecutorService running;
+        synchronized( this ) {
+            running = scheduler;
+            scheduler = null;
+        }
+        if( running == null ){
+            return;
+        }
+        running.shutdown();
+        try {
+            running.awaitTermination( 10, TimeUnit.SECONDS );
+        } catch( InterruptedException ex ) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package logic;
+
+import java.util.Arrays;
+
+/**
+ * hierarchical timing wheel holding one deadline per id, to find what is due without sorting or scanning everything
+ * that is waiting.
+ *
+ * time is cut into ticks. the wheel has 4 levels of 64 slots, a slot of level 0 holds the ids due in one tick, a slot
+ * of level 1 the ids due in 64 ticks and so on, so with one minute ticks level 3 reaches 31 years ahead. an id goes in
+ * the lowest level its deadline fits in. every 64 ticks the next slot of level 1 is emptied into level 0, every 4096
+ * the next slot of level 2 into level 1, and so on. schedule and cancel take constant time, advancing one tick only
+ * touches the ids due in it and the ids moved down a level.
+ *
+ * ids are kept in parallel int arrays linked as lists per slot, plus a map from id to array index, about 40 bytes per
+ * id and no object. the arrays grow to the most ids scheduled at once and are reused as ids fire or are cancelled.
+ * deadlines are rounded up to the tick, ids fire at most one tick late and never early.
+ *
+ * not thread safe, callers lock.
+ */
+public final class ExpiryWheel {
+
+    /**
+     * called for each id that is due
+     */
+    @FunctionalInterface
+    public interface Handler {
+
+        /**
+         * @param id - id given to schedule
+         * @param deadline - deadline given to schedule, rounded up to the tick, in milliseconds
+         * @param tag - tag given to schedule
+         */
+        void fired( int id, long deadline, int tag );
+    }
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final int NIL = -1;
+
+    private final long origin;
+    private final long tickMillis;
+
+    /**
+     * last tick advanced to
+     */
+    private int current;
+
+    /**
+     * first entry of each slot, level * SLOTS + slot
+     */
+    private final int[] heads = new int[ LEVELS * SLOTS ];
+
+    //entries, next doubles as the free list. prev of the first entry of a slot is -2 - slot index
+    private int[] ids;
+    private int[] ticks;
+    private int[] next;
+    private int[] prev;
+    private byte[] tags;
+    private int free = NIL;
+    private int used;
+
+    private final IntIntMap index = new IntIntMap();
+
+    //entries due in the tick being fired, handed to the handler once the slot is unlinked
+    private int[] dueIds = new int[ 16 ];
+    private int[] dueTicks = new int[ 16 ];
+    private byte[] dueTags = new byte[ 16 ];
+
+    /**
+     * @param tickMillis - length of a tick in milliseconds
+     * @param start - time to start from, in milliseconds
+     */
+    public ExpiryWheel( long tickMillis, long start ) {
+        if( tickMillis < 1 ){
+            throw new IllegalArgumentException( "tickMillis must be positive: " + tickMillis );
+        }
+        this.tickMillis = tickMillis;
+        this.origin = start;
+        Arrays.fill( heads, NIL );
+        int capacity = 16;
+        ids = new int[ capacity ];
+        ticks = new int[ capacity ];
+        next = new int[ capacity ];
+        prev = new int[ capacity ];
+        tags = new byte[ capacity ];
+    }
+
+    /**
+     * schedule an id, or move it if it is already scheduled. a deadline already passed fires on the next tick.
+     *
+     * @param id - id to schedule
+     * @param deadline - time the id is due, in milliseconds
+     * @param tag - small number handed back when the id fires, between 0 and 127
+     */
+    public void schedule( int id, long deadline, int tag ) {
+        if( tag < 0 || tag > Byte.MAX_VALUE ){
+            throw new IllegalArgumentException( "tag must be between 0 and 127: " + tag );
+        }
+        int entry = index.get( id, NIL );
+        if( entry == NIL ){
+            entry = allocate();
+            index.put( id, entry );
+        } else {
+            unlink( entry );
+        }
+        ids[ entry ] = id;
+        ticks[ entry ] = tickOf( deadline );
+        tags[ entry ] = (byte)tag;
+        place( entry, current + 1L );
+    }
+
+    /**
+     * @param id - id to cancel
+     * @return true if the id was scheduled
+     */
+    public boolean cancel( int id ) {
+        int entry = index.remove( id, NIL );
+        if( entry == NIL ){
+            return false;
+        }
+        unlink( entry );
+        release( entry );
+        return true;
+    }
+
+    /**
+     * @param id - id to look for
+     * @return deadline of the id rounded up to the tick, or -1 if it is not scheduled
+     */
+    public long deadline( int id ) {
+        int entry = index.get( id, NIL );
+        return entry == NIL ? -1 : timeOf( ticks[ entry ] );
+    }
+
+    /**
+     * @param id - id to look for
+     * @return tag of the id, or -1 if it is not scheduled
+     */
+    public int tag( int id ) {
+        int entry = index.get( id, NIL );
+        return entry == NIL ? -1 : tags[ entry ];
+    }
+
+    /**
+     * @return number of ids scheduled
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * fire every id due at or before now, tick by tick. the handler may schedule and cancel, an id it schedules with a
+     * deadline before now fires in this call if its tick is still ahead, else on the next tick.
+     *
+     * @param now - time to advance to, in milliseconds
+     * @param handler - called for each id due
+     * @return number of ids fired
+     */
+    public int advance( long now, Handler handler ) {
+        int target = (int)Math.min( Integer.MAX_VALUE - ( 1 << SLOT_BITS * LEVELS ),
+                Math.floorDiv( now - origin, tickMillis ) );
+        int fired = 0;
+        while( current < target ){
+            if( index.size() == 0 ){
+                //nothing to move or fire, slots only depend on the tick so the empty ones can be skipped
+                current = target;
+                break;
+            }
+            current++;
+            if( ( current & MASK ) == 0 ){
+                int level = 1;
+                while( level < LEVELS - 1 && ( current >>> SLOT_BITS * level & MASK ) == 0 ){
+                    level++;
+                }
+                for( ; level > 0; level-- ) {
+                    cascade( level, current >>> SLOT_BITS * level & MASK );
+                }
+            }
+            fired += fire( handler );
+        }
+        return fired;
+    }
+
+    /**
+     * unlink the level 0 slot of the current tick, then give the due ids to the handler
+     */
+    private int fire( Handler handler ) {
+        int slot = current & MASK;
+        int entry = heads[ slot ];
+        heads[ slot ] = NIL;
+        int count = 0;
+        while( entry != NIL ){
+            int following = next[ entry ];
+            if( ticks[ entry ] <= current ){
+                if( count == dueIds.length ){
+                    dueIds = Arrays.copyOf( dueIds, count * 2 );
+                    dueTicks = Arrays.copyOf( dueTicks, count * 2 );
+                    dueTags = Arrays.copyOf( dueTags, count * 2 );
+                }
+                dueIds[ count ] = ids[ entry ];
+                dueTicks[ count ] = ticks[ entry ];
+                dueTags[ count++ ] = tags[ entry ];
+                index.remove( ids[ entry ], NIL );
+                release( entry );
+            } else {
+                place( entry, current + 1L );
+            }
+            entry = following;
+        }
+        for( int i = 0; i < count; i++ ) {
+            handler.fired( dueIds[ i ], timeOf( dueTicks[ i ] ), dueTags[ i ] );
+        }
+        return count;
+    }
+
+    private void cascade( int level, int slot ) {
+        int bucket = level * SLOTS + slot;
+        int entry = heads[ bucket ];
+        heads[ bucket ] = NIL;
+        while( entry != NIL ){
+            int following = next[ entry ];
+            //the level 0 slot of the current tick is fired next, ids due now can still go in it
+            place( entry, current );
+            entry = following;
+        }
+    }
+
+    /**
+     * link the entry in the slot of its tick, in the lowest level that reaches it from the current tick
+     *
+     * @param earliest - first tick still to be fired, entries due before go in its slot
+     */
+    private void place( int entry, long earliest ) {
+        long tick = Math.max( ticks[ entry ], earliest );
+        long delta = tick - current;
+        int level = 0;
+        while( level < LEVELS - 1 && delta >= 1L << SLOT_BITS * ( level + 1 ) ){
+            level++;
+        }
+        if( level == LEVELS - 1 ){
+            tick = Math.min( tick, current + ( 1L << SLOT_BITS * LEVELS ) - 1 );
+        }
+        int bucket = level * SLOTS + (int)( tick >>> SLOT_BITS * level & MASK );
+        int head = heads[ bucket ];
+        next[ entry ] = head;
+        prev[ entry ] = -2 - bucket;
+        if( head != NIL ){
+            prev[ head ] = entry;
+        }
+        heads[ bucket ] = entry;
+    }
+
+    private void unlink( int entry ) {
+        int before = prev[ entry ];
+        int after = next[ entry ];
+        if( before >= 0 ){
+            next[ before ] = after;
+        } else {
+            heads[ -2 - before ] = after;
+        }
+        if( after != NIL ){
+            prev[ after ] = before;
+        }
+    }
+
+    private int allocate() {
+        if( free != NIL ){
+            int entry = free;
+            free = next[ entry ];
+            return entry;
+        }
+        if( used == ids.length ){
+            int capacity = used + ( used >> 1 );
+            ids = Arrays.copyOf( ids, capacity );
+            ticks = Arrays.copyOf( ticks, capacity );
+            next = Arrays.copyOf( next, capacity );
+            prev = Arrays.copyOf( prev, capacity );
+            tags = Arrays.copyOf( tags, capacity );
+        }
+        return used++;
+    }
+
+    private void release( int entry ) {
+        next[ entry ] = free;
+        free = entry;
+    }
+
+    /**
+     * @return first tick at or after the time
+     */
+    private int tickOf( long time ) {
+        long tick = Math.floorDiv( time - origin + tickMillis - 1, tickMillis );
+        return (int)Math.max( Integer.MIN_VALUE, Math.min( Integer.MAX_VALUE - ( 1 << SLOT_BITS * LEVELS ), tick ) );
+    }
+
+    private long timeOf( int tick ) {
+        return origin + tick * tickMillis;
+    }
+}
@@ -2,17 +2,18 @@ package logic;
 
 import common.ValidationException;
 import dal.DataAccessLayer;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
+import dal.SortOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 /**
  *
@@ -22,11 +23,40 @@ import java.util.logging.Logger;
  */
 abstract class GenericLogic< E, T extends DataAccessLayer<E>> implements Logic<E> {
 
-    private static final SimpleDateFormat FORMATTER = new SimpleDateFormat( "yyyy-MM-dd kk:mm:ss" );
-    private static final SimpleDateFormat SIMPLEDATE = new SimpleDateFormat("yyyy-MM-dd");
+    /**
+     * number of JDBC batches committed together by {@link #addAll(java.util.Collection, int)}
+     */
+    public static final int BATCHES_PER_COMMIT = 20;
+
+    /**
+     * rows read per round trip while building the search index
+     */
+    private static final int INDEX_FETCH_SIZE = 1000;
 
     private final T DAL;
 
+    private volatile SearchBackend searchBackend = SearchBackend.LIKE;
+
+    /**
+     * index answering searches when the backend is NGRAM, null otherwise
+     */
+    private volatile NGramIndex index;
+
+    /**
+     * index being built by rebuildSearchIndex, it gets every change made while the table is read
+     */
+    private volatile NGramIndex building;
+
+    /**
+     * typeahead list, null until loadSuggestions is done or if this logic has none
+     */
+    private volatile PrefixTrie suggestions;
+
+    /**
+     * typeahead list being built by loadSuggestions
+     */
+    private volatile PrefixTrie suggestionsBuilding;
+
     GenericLogic( T dal ) {
         this.DAL = dal;
     }
@@ -36,76 +66,314 @@ abstract class GenericLogic< E, T extends DataAccessLayer<E>> implements Logic<E
     }
 
     protected <R> R get( Supplier<R> supplier ) {
-        R r;
         DAL.beginTransaction();
-        r = supplier.get();
-        DAL.closeTransaction();
-        return r;
+        try {
+            return supplier.get();
+        } finally {
+            DAL.closeTransaction();
+        }
+    }
+
+    /**
+     * run the given work in a transaction and commit it. if the work or the commit fails the transaction is rolled
+     * back. the entity manager is always closed. inside a {@link UnitOfWork} the work joins the transaction of the
+     * unit instead.
+     *
+     * @param <R> - result type
+     * @param work - DAL calls to run in the transaction
+     * @return result of work
+     */
+    protected <R> R write( Supplier<R> work ) {
+        DAL.beginTransaction();
+        try {
+            R r = work.get();
+            DAL.commit();
+            return r;
+        } catch( RuntimeException ex ) {
+            DAL.rollback();
+            throw ex;
+        } finally {
+            DAL.closeTransaction();
+        }
     }
 
     @Override
-    public void add( E entity ) {
+    public List<E> getPage( Integer afterId, int limit, SortOrder sort ) {
+        return get( () -> DAL.findPage( afterId, limit, sort ) );
+    }
+
+    @Override
+    public List<List<?>> getRows( Integer afterId, int limit, SortOrder sort ) {
+        List<Object[]> rows = get( () -> DAL.findRows( afterId, limit, sort ) );
+        List<List<?>> list = new ArrayList<>( rows.size() );
+        rows.forEach( row -> list.add( Arrays.asList( row ) ) );
+        return list;
+    }
+
+    @Override
+    public void streamAll( int fetchSize, Consumer<? super E> action ) {
         DAL.beginTransaction();
-        DAL.save( entity );
-        DAL.commitAndCloseTransaction();
+        try( Stream<E> stream = DAL.streamAll( fetchSize ) ) {
+            stream.forEach( action );
+        } finally {
+            DAL.closeTransaction();
+        }
+    }
+
+    @Override
+    public void add( E entity ) {
+        write( () -> {
+            DAL.save( entity );
+            return entity;
+        } );
+        reindex( entity, false );
+        added( entity );
+    }
+
+    @Override
+    public void addAll( Collection<E> entities, int batchSize ) {
+        addAll( entities, batchSize, batchSize * BATCHES_PER_COMMIT );
+    }
+
+    @Override
+    public void addAll( Collection<E> entities, int batchSize, int commitSize ) {
+        if( commitSize < 1 ){
+            throw new IllegalArgumentException( "commitSize must be positive: " + commitSize );
+        }
+        List<E> chunk = new ArrayList<>( Math.min( commitSize, entities.size() ) );
+        for( E entity: entities ) {
+            chunk.add( entity );
+            if( chunk.size() == commitSize ){
+                addChunk( chunk, batchSize );
+                chunk.clear();
+            }
+        }
+        if( !chunk.isEmpty() ){
+            addChunk( chunk, batchSize );
+        }
+    }
+
+    private void addChunk( List<E> chunk, int batchSize ) {
+        write( () -> {
+            DAL.saveAll( chunk, batchSize );
+            return chunk;
+        } );
+        chunk.forEach( entity -> {
+            reindex( entity, false );
+            added( entity );
+        } );
+    }
+
+    /**
+     * called after an entity is written by add or addAll, before the commit if a {@link UnitOfWork} is open. use
+     * {@link UnitOfWork#afterCommit(java.lang.Runnable)} for work that must only happen once it is committed.
+     *
+     * @param entity - new entity, with its id
+     */
+    protected void added( E entity ) {
     }
 
     @Override
     public void delete( E entity ) {
-        DAL.beginTransaction();
-        DAL.delete( entity );
-        DAL.commitAndCloseTransaction();
+        write( () -> {
+            DAL.delete( entity );
+            return entity;
+        } );
+        UnitOfWork.afterCommit( () -> DAL.evict( entity ) );
+        reindex( entity, true );
     }
 
     @Override
     public void detach( E entity ) {
-        DAL.beginTransaction();
-        DAL.detach( entity );
-        DAL.commitAndCloseTransaction();
+        write( () -> {
+            DAL.detach( entity );
+            return entity;
+        } );
     }
     
 
     @Override
     public E update( E entity ) {
-        DAL.beginTransaction();
-        E e = DAL.update( entity );
-        DAL.commitAndCloseTransaction();
-        return e;
+        E updated = write( () -> DAL.update( entity ) );
+        UnitOfWork.afterCommit( () -> DAL.evict( updated ) );
+        reindex( updated, false );
+        return updated;
     }
 
     /**
-     * Using format "yyyy-MM-dd kk:mm:ss"
+     * values of the entity that {@link #search(String)} looks in, the same columns as the "[Entity].findContaining"
+     * named query.
+     *
+     * @param entity - entity to index
+     * @return searchable values, may contain nulls
+     */
+    protected abstract String[] searchValues( E entity );
+
+    /**
+     * select where search looks for rows. NGRAM builds the index first, searches use the previous backend until it
+     * is ready.
+     *
+     * @param backend - new search backend
+     */
+    void useSearch( SearchBackend backend ) {
+        if( backend == SearchBackend.NGRAM ){
+            rebuildSearchIndex();
+        } else {
+            index = null;
+        }
+        searchBackend = backend;
+    }
+
+    /**
+     * @return backend used by search
+     */
+    public SearchBackend getSearchBackend() {
+        return searchBackend;
+    }
+
+    /**
+     * read the whole table into a new n-gram index and use it for search once it is complete. the previous index keeps
+     * answering searches until then. adds, updates and deletes committed while the table is read go to both indexes.
+     */
+    synchronized void rebuildSearchIndex() {
+        NGramIndex fresh = new NGramIndex();
+        building = fresh;
+        try {
+            streamAll( INDEX_FETCH_SIZE, entity -> fresh.load( DAL.getId( entity ), searchValues( entity ) ) );
+            fresh.loaded();
+            index = fresh;
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * @return true if this logic has a typeahead list, see {@link #suggestValues}
+     */
+    protected boolean hasSuggestions() {
+        return false;
+    }
+
+    /**
+     * values of the entity a typeahead list finds it by, each value and each word in it is matched from its start.
+     * only called if {@link #hasSuggestions()} is true.
+     *
+     * @param entity - entity to index
+     * @return values to find the entity by, may contain nulls
+     */
+    protected String[] suggestValues( E entity ) {
+        throw new UnsupportedOperationException( "no typeahead list for " + entity.getClass().getSimpleName() );
+    }
+
+    /**
+     * @param entity - entity to index
+     * @return text shown for the entity in a typeahead list
+     */
+    protected String suggestLabel( E entity ) {
+        return String.valueOf( DAL.getId( entity ) );
+    }
+
+    @Override
+    public List<Suggestion> suggest( String prefix, int limit ) {
+        if( !hasSuggestions() ){
+            throw new UnsupportedOperationException( "Method=\"suggest( String, int)\" is not supported by " + getClass().getSimpleName() );
+        }
+        PrefixTrie current = suggestions;
+        return current == null ? new ArrayList<>() : current.suggest( prefix, limit );
+    }
+
+    /**
+     * read the whole table into a new typeahead list and use it once it is complete, does nothing if this logic has
+     * none. adds, updates and deletes committed while the table is read go to the new list as well.
+     */
+    synchronized void loadSuggestions() {
+        if( !hasSuggestions() ){
+            return;
+        }
+        PrefixTrie fresh = new PrefixTrie();
+        suggestionsBuilding = fresh;
+        try {
+            streamAll( INDEX_FETCH_SIZE,
+                    entity -> fresh.load( DAL.getId( entity ), suggestLabel( entity ), suggestValues( entity ) ) );
+            fresh.loaded();
+            suggestions = fresh;
+        } finally {
+            suggestionsBuilding = null;
+        }
+    }
+
+    /**
+     * update the n-gram indexes and typeahead lists once the current write is committed, nothing is done if there
+     * are none.
+     *
+     * @param entity - entity that was written
+     * @param removed - true if entity was deleted
+     */
+    private void reindex( E entity, boolean removed ) {
+        boolean search = index != null || building != null;
+        boolean suggest = suggestions != null || suggestionsBuilding != null;
+        if( !search && !suggest ){
+            return;
+        }
+        Integer id = DAL.getId( entity );
+        if( id == null ){
+            return;
+        }
+        //read the entity now, it may be changed by the caller before the unit of work commits
+        String[] values = removed || !search ? null : searchValues( entity );
+        String label = removed || !suggest ? null : suggestLabel( entity );
+        String[] keys = removed || !suggest ? null : suggestValues( entity );
+        UnitOfWork.afterCommit( () -> {
+            for( NGramIndex target: new NGramIndex[]{ index, building } ) {
+                if( target != null && removed ){
+                    target.remove( id );
+                } else if( target != null && values != null ){
+                    target.put( id, values );
+                }
+            }
+            for( PrefixTrie target: new PrefixTrie[]{ suggestions, suggestionsBuilding } ) {
+                if( target != null && removed ){
+                    target.remove( id );
+                } else if( target != null && keys != null ){
+                    target.put( id, label, keys );
+                }
+            }
+        } );
+    }
+
+    /**
+     * Using format "yyyy-MM-dd kk:mm:ss", safe to call from many threads
      *
      * @param date
      * @return
      */
+    @Override
     public String convertDateToString( Date date ) {
-        return FORMATTER.format( date );
+        return DateParser.format( date );
     }
 
     /**
-     * Using format "yyyy-MM-dd kk:mm:ss".
+     * Using format "yyyy-MM-dd kk:mm:ss", "yyyy-MM-dd" and the "yyyy-MM-ddTHH:mm[:ss]" of datetime-local inputs are
+     * accepted too. safe to call from many threads.
      * <br><br>
-     * If there are other characters in the string must be removed first
+     * If the string is not a date the current time is returned, without the milliseconds
      *
      * @param date
      * @return
      */
     public Date convertStringToDate( String date ) {
-        try {
-            if (date.length() < 11) {
-                date = FORMATTER.format(SIMPLEDATE.parse(date));
-            }
-            return FORMATTER.parse(date.replace("T", " "));
-        } catch( ParseException ex ) {
-            Logger.getLogger( GenericLogic.class.getName() ).log( Level.SEVERE, null, ex );
-            System.out.println("failed to format String=\"" + date + "\" to a date object:\n" +  ex.getMessage() );
-            return convertStringToDate(FORMATTER.format(new Date()));
+        Date parsed = DateParser.parse( date );
+        if( parsed == null ){
+            Logger.getLogger( GenericLogic.class.getName() ).log( Level.WARNING,
+                    "failed to format String=\"{0}\" to a date object, using the current time", date );
+            parsed = DateParser.now();
         }
+        return parsed;
     }
 
     /**
-     * this method is only needed for bonus. the search process is dependent on the @NamedQuery used.
+     * find the rows where one of the searchable columns contains the string, using the backend picked by
+     * {@link LogicFactory#initSearch(SearchBackend)}.
      *
      * @param search - string word to search the db.
      *
@@ -113,7 +381,15 @@ abstract class GenericLogic< E, T extends DataAccessLayer<E>> implements Logic<E
      */
     @Override
     public List<E> search( String search ) {
-        throw new UnsupportedOperationException( "Method=\"search( String)\" is not implemented, only needed for bonus" );
+        NGramIndex current = index;
+        if( searchBackend == SearchBackend.NGRAM && current != null ){
+            int[] ids = current.search( search );
+            return ids.length == 0 ? new ArrayList<>() : get( () -> DAL.findByIds( ids ) );
+        }
+        if( searchBackend == SearchBackend.FULLTEXT ){
+            return get( () -> DAL.findFullText( search ) );
+        }
+        return get( () -> DAL.findContaining( search ) );
     }
 
     /**
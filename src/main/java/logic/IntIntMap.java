@@ -0,0 +1,73 @@
+package logic;
+
+/**
+ * map of int keys to int values in two arrays, with no boxing and no node per entry, see {@link IntKeyTable}. not
+ * thread safe, callers lock.
+ */
+final class IntIntMap extends IntKeyTable {
+
+    private int[] values;
+
+    IntIntMap() {
+        this( 0 );
+    }
+
+    /**
+     * @param expected - number of keys the map should hold before it grows
+     */
+    IntIntMap( int expected ) {
+        super( expected );
+        values = new int[ capacity() + 1 ];
+    }
+
+    /**
+     * @param key - key to look for
+     * @param missing - returned if the key is not in the map
+     * @return value of the key or missing
+     */
+    int get( int key, int missing ) {
+        int i = indexOf( key );
+        return i == -1 ? missing : values[ i ];
+    }
+
+    /**
+     * @param key - key to set
+     * @param value - value of the key
+     */
+    void put( int key, int value ) {
+        //insert may replace values, it must run before values is read
+        int i = insert( key );
+        values[ i ] = value;
+    }
+
+    /**
+     * @param key - key to remove
+     * @param missing - returned if the key is not in the map
+     * @return old value of the key or missing
+     */
+    int remove( int key, int missing ) {
+        int i = indexOf( key );
+        if( i == -1 ){
+            return missing;
+        }
+        int old = values[ i ];
+        removeAt( i );
+        return old;
+    }
+
+    @Override
+    void move( int from, int to ) {
+        values[ to ] = values[ from ];
+    }
+
+    @Override
+    void rehashed( int[] moved, int capacity ) {
+        int[] old = values;
+        values = new int[ capacity + 1 ];
+        for( int i = 0; i < moved.length; i++ ) {
+            if( moved[ i ] != -1 ){
+                values[ moved[ i ] ] = old[ i ];
+            }
+        }
+    }
+}
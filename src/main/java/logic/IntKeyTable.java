@@ -0,0 +1,170 @@
+package logic;
+
+import java.util.Arrays;
+
+/**
+ * keys of a map of int keys kept in an array, open addressing with linear probing, kept at most half full. the values
+ * are in primitive arrays of the subclass at the same index as their key, so nothing is boxed and each map keeps
+ * values of its own width. key 0 marks a free cell, the key 0 itself has the extra cell at index capacity of the value
+ * arrays. a removed key is filled by moving back later keys of its run, so there are no tombstones. not thread safe,
+ * callers lock.
+ */
+abstract class IntKeyTable {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private int mask;
+    private int size;
+    private boolean hasZero;
+
+    /**
+     * @param expected - number of keys the map should hold before it grows
+     */
+    IntKeyTable( int expected ) {
+        int capacity = Integer.highestOneBit( Math.max( MIN_CAPACITY, expected * 2 - 1 ) ) << 1;
+        keys = new int[ capacity ];
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return number of cells for keys, the value arrays need one more for the key 0
+     */
+    final int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * @param key - key to look for
+     * @return index of the value of the key, -1 if the key is not in the map
+     */
+    final int indexOf( int key ) {
+        if( key == 0 ){
+            return hasZero ? keys.length : -1;
+        }
+        for( int i = slot( key ); keys[ i ] != 0; i = ( i + 1 ) & mask ) {
+            if( keys[ i ] == key ){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * add the key if it is not in the map yet, the caller then sets its value.
+     *
+     * @param key - key to add
+     * @return index of the value of the key
+     */
+    final int insert( int key ) {
+        if( key == 0 ){
+            if( !hasZero ){
+                hasZero = true;
+                size++;
+            }
+            return keys.length;
+        }
+        int i = slot( key );
+        for( ; keys[ i ] != 0; i = ( i + 1 ) & mask ) {
+            if( keys[ i ] == key ){
+                return i;
+            }
+        }
+        if( ( size + 1 ) * 2 > keys.length ){
+            grow();
+            return insert( key );
+        }
+        keys[ i ] = key;
+        size++;
+        return i;
+    }
+
+    /**
+     * free the cell of a key and move back later keys of its run that would no longer be found
+     *
+     * @param i - index returned by {@link #indexOf(int)}
+     */
+    final void removeAt( int i ) {
+        size--;
+        if( i == keys.length ){
+            hasZero = false;
+            return;
+        }
+        int hole = i;
+        for( int j = ( i + 1 ) & mask; keys[ j ] != 0; j = ( j + 1 ) & mask ) {
+            int home = slot( keys[ j ] );
+            //j can fill the hole if its home is not between the hole and j, going around the end of the array
+            if( ( ( j - home ) & mask ) >= ( ( j - hole ) & mask ) ){
+                keys[ hole ] = keys[ j ];
+                move( j, hole );
+                hole = j;
+            }
+        }
+        keys[ hole ] = 0;
+    }
+
+    /**
+     * copy a value to another cell of the same value arrays
+     */
+    abstract void move( int from, int to );
+
+    /**
+     * the table grew, replace the value arrays by arrays of capacity + 1 cells.
+     *
+     * @param moved - new index of the value at each old index, -1 for free cells
+     * @param capacity - new number of cells for keys
+     */
+    abstract void rehashed( int[] moved, int capacity );
+
+    final int size() {
+        return size;
+    }
+
+    /**
+     * @return keys of the map in no particular order
+     */
+    final int[] keys() {
+        int[] result = new int[ size ];
+        int n = 0;
+        if( hasZero ){
+            result[ n++ ] = 0;
+        }
+        for( int key: keys ) {
+            if( key != 0 ){
+                result[ n++ ] = key;
+            }
+        }
+        return result;
+    }
+
+    final void clear() {
+        Arrays.fill( keys, 0 );
+        hasZero = false;
+        size = 0;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        keys = new int[ oldKeys.length * 2 ];
+        mask = keys.length - 1;
+        int[] moved = new int[ oldKeys.length + 1 ];
+        for( int i = 0; i < oldKeys.length; i++ ) {
+            moved[ i ] = -1;
+            if( oldKeys[ i ] != 0 ){
+                int j = slot( oldKeys[ i ] );
+                while( keys[ j ] != 0 ){
+                    j = ( j + 1 ) & mask;
+                }
+                keys[ j ] = oldKeys[ i ];
+                moved[ i ] = j;
+            }
+        }
+        moved[ oldKeys.length ] = hasZero ? keys.length : -1;
+        rehashed( moved, keys.length );
+    }
+
+    private int slot( int key ) {
+        int h = key * 0x9E3779B9;
+        return ( h ^ ( h >>> 16 ) ) & mask;
+    }
+}
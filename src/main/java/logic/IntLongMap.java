@@ -0,0 +1,89 @@
+package logic;
+
+/**
+ * map of int keys to long values in two arrays, with no boxing and no node per entry, see {@link IntKeyTable}. not
+ * thread safe, callers lock.
+ */
+final class IntLongMap extends IntKeyTable {
+
+    private long[] values;
+
+    IntLongMap() {
+        this( 0 );
+    }
+
+    /**
+     * @param expected - number of keys the map should hold before it grows
+     */
+    IntLongMap( int expected ) {
+        super( expected );
+        values = new long[ capacity() + 1 ];
+    }
+
+    /**
+     * @param key - key to look for
+     * @param missing - returned if the key is not in the map
+     * @return value of the key or missing
+     */
+    long get( int key, long missing ) {
+        int i = indexOf( key );
+        return i == -1 ? missing : values[ i ];
+    }
+
+    /**
+     * @param key - key to set
+     * @param value - value of the key
+     */
+    void put( int key, long value ) {
+        //insert may replace values, it must run before values is read
+        int i = insert( key );
+        values[ i ] = value;
+    }
+
+    /**
+     * set the key to value if it is not in the map or holds a smaller value.
+     *
+     * @param key - key to set
+     * @param value - new value of the key
+     * @return value of the key after the call
+     */
+    long putMax( int key, long value ) {
+        long old = get( key, Long.MIN_VALUE );
+        if( value > old ){
+            put( key, value );
+            return value;
+        }
+        return old;
+    }
+
+    /**
+     * @param key - key to remove
+     * @param missing - returned if the key is not in the map
+     * @return old value of the key or missing
+     */
+    long remove( int key, long missing ) {
+        int i = indexOf( key );
+        if( i == -1 ){
+            return missing;
+        }
+        long old = values[ i ];
+        removeAt( i );
+        return old;
+    }
+
+    @Override
+    void move( int from, int to ) {
+        values[ to ] = values[ from ];
+    }
+
+    @Override
+    void rehashed( int[] moved, int capacity ) {
+        long[] old = values;
+        values = new long[ capacity + 1 ];
+        for( int i = 0; i < moved.length; i++ ) {
+            if( moved[ i ] != -1 ){
+                values[ moved[ i ] ] = old[ i ];
+            }
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package logic;
 
+import dal.SortOrder;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  *
@@ -12,6 +16,25 @@ public interface Logic<E> {
 
     void add( E entity );
 
+    /**
+     * add all entities using JDBC batching. entities are flushed batchSize at a time and committed in chunks of
+     * batchSize * {@value GenericLogic#BATCHES_PER_COMMIT}.
+     *
+     * @param entities - new entities to be added
+     * @param batchSize - number of entities sent to the DB per batch
+     */
+    void addAll( Collection<E> entities, int batchSize );
+
+    /**
+     * add all entities using JDBC batching. every commitSize entities the transaction is committed and a new one is
+     * started, if a chunk fails it is rolled back but the chunks before it stay committed.
+     *
+     * @param entities - new entities to be added
+     * @param batchSize - number of entities sent to the DB per batch
+     * @param commitSize - number of entities per transaction
+     */
+    void addAll( Collection<E> entities, int batchSize, int commitSize );
+
     void delete( E entity );
 
     void detach( E entity );
@@ -49,6 +72,12 @@ public interface Logic<E> {
      */
     List<?> extractDataAsList( E e );
 
+    /**
+     * @param date - date to show
+     * @return date in the format "yyyy-MM-dd kk:mm:ss" used by every form and table, safe to call from many threads
+     */
+    String convertDateToString( Date date );
+
     E createEntity( Map<String, String[]> parameterMap );
 
     /**
@@ -66,6 +95,41 @@ public interface Logic<E> {
 
     E getWithId( int id );
 
+    /**
+     * get one page of entities ordered by id. the page starts right after afterId so the next page can be requested
+     * with the id of the last entity of this one, and the previous page with the id of the first entity and
+     * DESCENDING order.
+     *
+     * @param afterId - id to continue from (exclusive), null for the first page
+     * @param limit - maximum number of entities in the page
+     * @param sort - direction in which ids are walked
+     *
+     * @return list of at most limit entities
+     */
+    List<E> getPage( Integer afterId, int limit, SortOrder sort );
+
+    /**
+     * same page as {@link #getPage} but each row is already in the format of {@link #extractDataAsList}. only the
+     * displayed columns are read from the DB and no entity is created, use it to show tables.
+     *
+     * @param afterId - id to continue from (exclusive), null for the first page
+     * @param limit - maximum number of rows in the page
+     * @param sort - direction in which ids are walked
+     *
+     * @return list of at most limit rows, the first column of each row is the id
+     */
+    List<List<?>> getRows( Integer afterId, int limit, SortOrder sort );
+
+    /**
+     * pass every entity of the table to action, one at a time, without loading the whole table in memory. entities
+     * are read only and only valid inside of action, do not keep references to them.
+     *
+     * @param fetchSize - number of rows fetched from the DB per round trip
+     * @param action - called once per entity
+     * @throws IllegalStateException if called inside a {@link UnitOfWork}
+     */
+    void streamAll( int fetchSize, Consumer<? super E> action );
+
     /**
      * this method is only needed for bonus. the search process is dependent on the @NamedQuery used.
      *
@@ -75,6 +139,17 @@ public interface Logic<E> {
      */
     List<E> search( String search );
 
+    /**
+     * typeahead list for a form field, from an index kept in memory so no query is sent to the DB.
+     *
+     * @param prefix - what the user typed so far
+     * @param limit - most entries to return
+     *
+     * @return entities with a value starting with prefix, as id and display text
+     * @throws UnsupportedOperationException if this entity has no typeahead list
+     */
+    List<Suggestion> suggest( String prefix, int limit );
+
 //    E getValue( String name, Object param );
 //
 //    List<E> getValues( String name, Object param );
@@ -1,42 +1,205 @@
 package logic;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import entity.Account;
+import entity.BloodBank;
+import entity.BloodDonation;
+import entity.DonationRecord;
+import entity.Person;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
 
+/**
+ * registry of the logic singletons.
+ *
+ * every logic is created once, when this class is loaded, and looked up by entity name ("Person"), entity class
+ * ({@code Person.class}) or logic class ({@code PersonLogic.class}). lookups are a single map read, no reflection.
+ * sharing the instances is safe as logic and DAL objects hold no per request state, see
+ * {@link dal.EntityManagerContext}.
+ */
 public abstract class LogicFactory {
 
-    private static final String PACKAGE = "logic.";
-    private static final String SUFFIX = "Logic";
+    private static final Map<String, Logic<?>> BY_NAME;
+    private static final Map<Class<?>, Logic<?>> BY_TYPE;
+
+    /**
+     * executor and async views made by {@link #startAsync}, null until then
+     */
+    private static volatile BoundedExecutor asyncExecutor;
+    private static volatile Map<String, AsyncLogic<?>> asyncByName;
+
+    static {
+        Map<String, Logic<?>> byName = new HashMap<>();
+        Map<Class<?>, Logic<?>> byType = new HashMap<>();
+        register( byName, byType, "Account", Account.class, AccountLogic.class, AccountLogic::new );
+        register( byName, byType, "BloodBank", BloodBank.class, BloodBankLogic.class, BloodBankLogic::new );
+        register( byName, byType, "BloodDonation", BloodDonation.class, BloodDonationLogic.class, BloodDonationLogic::new );
+        register( byName, byType, "DonationRecord", DonationRecord.class, DonationRecordLogic.class, DonationRecordLogic::new );
+        register( byName, byType, "Person", Person.class, PersonLogic.class, PersonLogic::new );
+        BY_NAME = Collections.unmodifiableMap( byName );
+        BY_TYPE = Collections.unmodifiableMap( byType );
+    }
 
     private LogicFactory() {
     }
 
-    //TODO this code is not complete, it is just here for sake of programe working. need to be changed ocmpletely
-    public static < T> T getFor( String entityName ) {
-        T newInstance = null;
-        try {
-            newInstance = getFor((Class<T>) Class.forName(PACKAGE + entityName + SUFFIX));
-        } catch(ClassNotFoundException e) {
-            System.err.println("Error getting instance: " + e.getMessage());
-        }
-        //this casting wont be needed.
-        return newInstance;
-    }
-    
-    public static < T> T getFor( Class<T> type ) {
-        T newInstance = null;
-        try {
-            Constructor<T> declaredConstructor = type.getDeclaredConstructor();
-            newInstance = declaredConstructor.newInstance();
-        } catch(
-                InstantiationException | IllegalAccessException |
-                IllegalArgumentException | NoSuchMethodException | 
-                InvocationTargetException | SecurityException e) {
-            System.err.println("Error getting instance: " + e.getMessage());
-        }
-        return newInstance;
-    }
-        
-        
-    
+    private static <E, L extends Logic<E>> void register( Map<String, Logic<?>> byName, Map<Class<?>, Logic<?>> byType,
+            String entityName, Class<E> entityType, Class<L> logicType, Supplier<L> constructor ) {
+        L logic = constructor.get();
+        byName.put( entityName, logic );
+        byType.put( entityType, logic );
+        byType.put( logicType, logic );
+    }
+
+    /**
+     * select the search backend of every logic. for NGRAM the index of every table is built here, so call it once at
+     * startup after the EntityManagerFactory is created.
+     *
+     * @param backend - where {@link Logic#search(String)} looks for rows
+     */
+    public static void initSearch( SearchBackend backend ) {
+        for( Logic<?> logic: BY_NAME.values() ) {
+            ( (GenericLogic<?, ?>)logic ).useSearch( backend );
+        }
+    }
+
+    /**
+     * build the typeahead lists of the logics that have one, see {@link Logic#suggest(String, int)}. call it once at
+     * startup after the EntityManagerFactory is created.
+     */
+    public static void initSuggestions() {
+        for( Logic<?> logic: BY_NAME.values() ) {
+            ( (GenericLogic<?, ?>)logic ).loadSuggestions();
+        }
+    }
+
+    /**
+     * fill the blood inventory from the DB, see {@link BloodDonationLogic#getInventory()}. call it once at startup
+     * after the EntityManagerFactory is created.
+     */
+    public static void initInventory() {
+        BloodDonationLogic logic = getFor( BloodDonationLogic.class );
+        logic.loadInventory();
+    }
+
+    /**
+     * fill the index of donations used by {@link BloodDonationLogic#getCompatible(entity.BloodGroup, entity.RhesusFactor, int)}
+     * from the DB. call it once at startup after the EntityManagerFactory is created.
+     */
+    public static void initMatcher() {
+        BloodDonationLogic logic = getFor( BloodDonationLogic.class );
+        logic.loadMatcher();
+    }
+
+    /**
+     * fill the last donation of each person from the DB, see {@link DonationRecordLogic#isEligible(int)}. call it once
+     * at startup after the EntityManagerFactory is created.
+     */
+    public static void initEligibility() {
+        DonationRecordLogic logic = getFor( DonationRecordLogic.class );
+        logic.loadEligibility();
+    }
+
+    /**
+     * start following the expiry of every donation, see {@link BloodDonationLogic#getNearExpiry()}. call it once at
+     * startup after the EntityManagerFactory is created.
+     */
+    public static void startExpiry() {
+        BloodDonationLogic logic = getFor( BloodDonationLogic.class );
+        logic.startExpiry();
+    }
+
+    /**
+     * stop the thread started by {@link #startExpiry()}, call it before the EntityManagerFactory is closed.
+     */
+    public static void stopExpiry() {
+        BloodDonationLogic logic = getFor( BloodDonationLogic.class );
+        logic.stopExpiry();
+    }
+
+    /**
+     * create the executor used by every {@link AsyncLogic}. call it once at startup.
+     *
+     * @param threads - number of threads running DB calls, or most calls running at once with virtual threads
+     * @param queue - most calls waiting for a thread, not used with virtual threads
+     * @param virtual - true to run each call on a virtual thread if the JDK has them
+     */
+    public static synchronized void startAsync( int threads, int queue, boolean virtual ) {
+        if( asyncExecutor != null ){
+            throw new IllegalStateException( "Async executor already started" );
+        }
+        BoundedExecutor executor = virtual ? BoundedExecutor.virtual( threads ) : BoundedExecutor.platform( threads, queue );
+        Map<String, AsyncLogic<?>> byName = new HashMap<>();
+        BY_NAME.forEach( ( name, logic ) -> byName.put( name, async( logic, executor ) ) );
+        asyncByName = Collections.unmodifiableMap( byName );
+        asyncExecutor = executor;
+    }
+
+    /**
+     * stop the executor made by {@link #startAsync}, waiting a little for running calls. call it before the
+     * EntityManagerFactory is closed.
+     */
+    public static synchronized void stopAsync() {
+        BoundedExecutor executor = asyncExecutor;
+        if( executor != null ){
+            asyncExecutor = null;
+            asyncByName = null;
+            executor.shutdown( 5000 );
+        }
+    }
+
+    /**
+     * @param <E> - entity type
+     * @param entityName - simple name of the entity, i.e. "Person"
+     * @return shared async view of the logic of the entity
+     * @throws IllegalArgumentException if there is no logic for entityName
+     * @throws IllegalStateException if {@link #startAsync} was not called
+     */
+    @SuppressWarnings( "unchecked" )
+    public static <E> AsyncLogic<E> getAsyncFor( String entityName ) {
+        Map<String, AsyncLogic<?>> byName = asyncByName;
+        if( byName == null ){
+            throw new IllegalStateException( "Async executor not started" );
+        }
+        AsyncLogic<?> async = byName.get( entityName );
+        if( async == null ){
+            throw new IllegalArgumentException( "No logic for entity: " + entityName );
+        }
+        return (AsyncLogic<E>)async;
+    }
+
+    private static <E> AsyncLogic<E> async( Logic<E> logic, BoundedExecutor executor ) {
+        return new AsyncLogic<>( logic, executor );
+    }
+
+    /**
+     * @param <T> - logic type
+     * @param entityName - simple name of the entity, i.e. "Person"
+     * @return shared logic of the entity
+     * @throws IllegalArgumentException if there is no logic for entityName
+     */
+    @SuppressWarnings( "unchecked" )
+    public static <T> T getFor( String entityName ) {
+        Logic<?> logic = BY_NAME.get( entityName );
+        if( logic == null ){
+            throw new IllegalArgumentException( "No logic for entity: " + entityName );
+        }
+        return (T)logic;
+    }
+
+    /**
+     * @param <T> - logic type
+     * @param type - entity class or logic class, i.e. Person.class or PersonLogic.class
+     * @return shared logic of the entity
+     * @throws IllegalArgumentException if there is no logic for type
+     */
+    @SuppressWarnings( "unchecked" )
+    public static <T> T getFor( Class<?> type ) {
+        Logic<?> logic = BY_TYPE.get( type );
+        if( logic == null ){
+            throw new IllegalArgumentException( "No logic for type: " + type );
+        }
+        return (T)logic;
+    }
 }
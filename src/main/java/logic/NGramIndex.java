@@ -0,0 +1,324 @@
+package logic;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * in memory inverted index answering "which rows have a value containing this text".
+ *
+ * every value is split in overlapping groups of {@value #N} characters, the n-grams. for each n-gram the index keeps
+ * the sorted ids of the rows having it. a search looks up the n-grams of the text, intersects their id lists starting
+ * with the shortest one and checks the few ids left against the stored values, so the cost depends on the number of
+ * matches and not the number of rows. text shorter than {@value #N} characters has no n-gram and is matched against
+ * every stored value instead.
+ *
+ * values are compared in lower case with accents removed, same as the utf8mb4_0900_ai_ci collation of the DB, so a
+ * search finds the same rows as a LIKE query. many threads can search at once, changes wait for running searches.
+ */
+public final class NGramIndex {
+
+    /**
+     * length of an n-gram
+     */
+    static final int N = 3;
+
+    /**
+     * between the values of one row so a match can not start in one value and end in the next
+     */
+    private static final char SEPARATOR = '\u0000';
+
+    private static final Pattern MARKS = Pattern.compile( "\\p{M}+" );
+
+    private static final int[] NO_IDS = new int[ 0 ];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * normalized values of each row, joined with SEPARATOR
+     */
+    private final Map<Integer, String> rows = new HashMap<>();
+
+    /**
+     * ids of the rows having an n-gram, the key is the n-gram packed in a long
+     */
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    private final ChangedIds changed = new ChangedIds( true );
+
+    /**
+     * add a row, or replace its values if the id is already in the index.
+     *
+     * @param id - primary key of the row
+     * @param values - searchable values of the row, nulls are skipped
+     */
+    public void put( int id, String... values ) {
+        String text = join( values );
+        lock.writeLock().lock();
+        try {
+            changed.mark( id );
+            replace( id, text );
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * remove a row, does nothing if the id is not in the index.
+     *
+     * @param id - primary key of the row
+     */
+    public void remove( int id ) {
+        lock.writeLock().lock();
+        try {
+            changed.mark( id );
+            replace( id, null );
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * add a row read while building the index. unlike put it is skipped if the row was put or removed since the index
+     * was created, as that change is newer than what was read. call {@link #loaded()} once every row is added.
+     *
+     * @param id - primary key of the row
+     * @param values - searchable values of the row, nulls are skipped
+     */
+    public void load( int id, String... values ) {
+        String text = join( values );
+        lock.writeLock().lock();
+        try {
+            if( !changed.isLoading() ){
+                throw new IllegalStateException( "index is already loaded" );
+            }
+            if( !changed.contains( id ) ){
+                replace( id, text );
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * end the loading of the index, from now on load can not be used.
+     */
+    public void loaded() {
+        lock.writeLock().lock();
+        try {
+            changed.stop();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param search - text to find
+     * @return ids of the rows with a value containing search, in ascending order
+     */
+    public int[] search( String search ) {
+        String text = normalize( search );
+        lock.readLock().lock();
+        try {
+            if( text.length() < N ){
+                return scan( text );
+            }
+            Set<Long> keys = new HashSet<>();
+            for( int i = 0; i + N <= text.length(); i++ ) {
+                keys.add( key( text, i ) );
+            }
+            Postings[] lists = new Postings[ keys.size() ];
+            int count = 0;
+            for( Long key: keys ) {
+                Postings list = postings.get( key );
+                if( list == null ){
+                    return NO_IDS;
+                }
+                lists[ count++ ] = list;
+            }
+            Arrays.sort( lists, ( a, b ) -> Integer.compare( a.size, b.size ) );
+            int[] ids = Arrays.copyOf( lists[ 0 ].ids, lists[ 0 ].size );
+            int size = ids.length;
+            for( int l = 1; l < lists.length && size > 0; l++ ) {
+                size = retain( ids, size, lists[ l ] );
+            }
+            //having all n-grams does not mean they are next to each other
+            int found = 0;
+            for( int i = 0; i < size; i++ ) {
+                if( rows.get( ids[ i ] ).contains( text ) ){
+                    ids[ found++ ] = ids[ i ];
+                }
+            }
+            return Arrays.copyOf( ids, found );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of rows in the index
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rows.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * lower case the text and remove accents, so "É" and "e" are the same.
+     *
+     * @param text - text to normalize, may be null
+     * @return normalized text, empty if text is null
+     */
+    static String normalize( String text ) {
+        if( text == null ){
+            return "";
+        }
+        String lower = text.toLowerCase( Locale.ROOT );
+        //plain ASCII has no accents, skip the decomposition
+        if( lower.chars().allMatch( c -> c < 128 ) ){
+            return lower;
+        }
+        return MARKS.matcher( Normalizer.normalize( lower, Normalizer.Form.NFD ) ).replaceAll( "" );
+    }
+
+    private static String join( String... values ) {
+        StringBuilder builder = new StringBuilder();
+        for( String value: values ) {
+            if( value != null ){
+                if( builder.length() > 0 ){
+                    builder.append( SEPARATOR );
+                }
+                builder.append( normalize( value ) );
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * must hold the write lock.
+     *
+     * @param id - primary key of the row
+     * @param text - new normalized values of the row, null to remove it
+     */
+    private void replace( int id, String text ) {
+        String old = text == null ? rows.remove( id ) : rows.put( id, text );
+        if( text != null && text.equals( old ) ){
+            return;
+        }
+        if( old != null ){
+            for( long key: keys( old ) ) {
+                Postings list = postings.get( key );
+                list.remove( id );
+                if( list.size == 0 ){
+                    postings.remove( key );
+                }
+            }
+        }
+        if( text != null ){
+            for( long key: keys( text ) ) {
+                postings.computeIfAbsent( key, k -> new Postings() ).add( id );
+            }
+        }
+    }
+
+    private int[] scan( String text ) {
+        int[] ids = new int[ rows.size() ];
+        int found = 0;
+        for( Map.Entry<Integer, String> row: rows.entrySet() ) {
+            if( row.getValue().contains( text ) ){
+                ids[ found++ ] = row.getKey();
+            }
+        }
+        ids = Arrays.copyOf( ids, found );
+        Arrays.sort( ids );
+        return ids;
+    }
+
+    /**
+     * @param text - normalized values of a row
+     * @return distinct n-grams of text, none cross a SEPARATOR
+     */
+    private static Set<Long> keys( String text ) {
+        Set<Long> keys = new HashSet<>();
+        int start = 0;
+        for( int i = 0; i <= text.length(); i++ ) {
+            if( i == text.length() || text.charAt( i ) == SEPARATOR ){
+                for( int j = start; j + N <= i; j++ ) {
+                    keys.add( key( text, j ) );
+                }
+                start = i + 1;
+            }
+        }
+        return keys;
+    }
+
+    private static long key( String text, int start ) {
+        long key = 0;
+        for( int i = start; i < start + N; i++ ) {
+            key = key << Character.SIZE | text.charAt( i );
+        }
+        return key;
+    }
+
+    /**
+     * keep the first size ids that are also in list.
+     *
+     * @return number of ids kept
+     */
+    private static int retain( int[] ids, int size, Postings list ) {
+        int kept = 0;
+        int from = 0;
+        for( int i = 0; i < size; i++ ) {
+            int at = Arrays.binarySearch( list.ids, from, list.size, ids[ i ] );
+            if( at >= 0 ){
+                ids[ kept++ ] = ids[ i ];
+                from = at + 1;
+            } else {
+                from = -at - 1;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * sorted ids of the rows having one n-gram. new rows mostly have the highest id so add usually appends.
+     */
+    private static final class Postings {
+
+        private int[] ids = new int[ 4 ];
+        private int size;
+
+        void add( int id ) {
+            int at = size == 0 || ids[ size - 1 ] < id ? -size - 1 : Arrays.binarySearch( ids, 0, size, id );
+            if( at >= 0 ){
+                return;
+            }
+            at = -at - 1;
+            if( size == ids.length ){
+                ids = Arrays.copyOf( ids, size * 2 );
+            }
+            System.arraycopy( ids, at, ids, at + 1, size - at );
+            ids[ at ] = id;
+            size++;
+        }
+
+        void remove( int id ) {
+            int at = Arrays.binarySearch( ids, 0, size, id );
+            if( at >= 0 ){
+                System.arraycopy( ids, at + 1, ids, at, size - at - 1 );
+                size--;
+            }
+        }
+    }
+}
@@ -1,17 +1,12 @@
 package logic;
 
-import common.ValidationException;
 import dal.PersonDAL;
 import entity.Person;
-import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.function.ObjIntConsumer;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 /**
  * CST8288
@@ -26,7 +21,19 @@ public class PersonLogic extends GenericLogic<Person, PersonDAL> {
     public static final String BIRTH = "birth";
     public static final String ID = "id";
 
-    public PersonLogic() {
+    /**
+     * fields of the create and edit forms, limits are the ones of {@link Person}
+     */
+    private static final EntityBinder<Person> BINDER = EntityBinder.of( Person.class, Person::new )
+            .id( ID, Person::setId )
+            .text( FIRST_NAME, "firstName", Person::setFirstName )
+            .text( LAST_NAME, "lastName", Person::setLastName )
+            .text( PHONE, "phone", Person::setPhone )
+            .text( ADDRESS, "address", Person::setAddress )
+            .dateOrNow( BIRTH, "birth", Person::setBirth )
+            .build();
+
+    PersonLogic() {
         super( new PersonDAL() );
     }
     
@@ -63,76 +70,8 @@ public class PersonLogic extends GenericLogic<Person, PersonDAL> {
     @Override
     public Person createEntity(Map<String, String[]> parameterMap) {
         //do not create any logic classes in this method.
-
-//        return new AccountBuilder().SetData( parameterMap ).build();
         Objects.requireNonNull( parameterMap, "parameterMap cannot be null" );
-        //same as if condition below
-//        if (parameterMap == null) {
-//            throw new NullPointerException("parameterMap cannot be null");
-//        }
-
-        //create a new Entity object
-        Person entity = new Person();
-
-        //ID is generated, so if it exists add it to the entity object
-        //otherwise it does not matter as mysql will create an if for it.
-        //the only time that we will have id is for update behaviour.
-        if( parameterMap.containsKey( ID ) ){
-            try {
-                entity.setId( Integer.parseInt( parameterMap.get( ID )[ 0 ] ) );
-            } catch( java.lang.NumberFormatException ex ) {
-                throw new ValidationException( ex );
-            }
-        }
-
-        //before using the values in the map, make sure to do error checking.
-        //simple lambda to validate a string, this can also be place in another
-        //method to be shared amoung all logic classes.
-        ObjIntConsumer< String> validator = ( value, length ) -> {
-            if( value == null || value.trim().isEmpty() || value.length() > length ){
-                String error = "";
-                if( value == null || value.trim().isEmpty() ){
-                    error = "value cannot be null or empty: " + value;
-                }
-                if( value.length() > length ){
-                    error = "string length is " + value.length() + " > " + length;
-                }
-                throw new ValidationException( error );
-            }
-        };
-
-        //extract the date from map first.
-        //everything in the parameterMap is string so it must first be
-        //converted to appropriate type. have in mind that values are
-        //stored in an array of String; almost always the value is at
-        //index zero unless you have used duplicated key/name somewhere.
-        String firstname = parameterMap.get( FIRST_NAME )[ 0 ];
-        String lastname = parameterMap.get( LAST_NAME )[ 0 ];
-        String phone = parameterMap.get( PHONE )[ 0 ];
-        String address = parameterMap.get( ADDRESS )[ 0 ];
-        Date birthDate = new Date();
-        //converting date to string, if not successful putting it in a known format
-        try {
-           birthDate = convertStringToDate(parameterMap.get(BIRTH)[0]);
-        } catch (ValidationException e) {
-            Logger.getLogger( BloodDonationLogic.class.getName() ).log( Level.SEVERE, null, e );
-            birthDate = convertStringToDate(new SimpleDateFormat( "yyyy-MM-dd kk:mm:ss" ).format(birthDate));
-        }
-
-        //validate the data
-        validator.accept( firstname, 45 );
-        validator.accept( lastname, 45 );
-        validator.accept( phone, 45 );
-        validator.accept( address, 45 );
-
-        //set values on entity
-        entity.setFirstName( firstname );
-        entity.setLastName( lastname );
-        entity.setPhone( phone );
-        entity.setAddress( address );
-        entity.setBirth( birthDate );
-
-        return entity;
+        return BINDER.create( parameterMap );
     }
     /**
      * set column header names
@@ -161,7 +100,23 @@ public class PersonLogic extends GenericLogic<Person, PersonDAL> {
     }
         
     @Override
-    public List<Person> search( String search ) {
-        return get( () -> dal().findContaining( search ) );
+    protected String[] searchValues( Person e ) {
+        return new String[]{ e.getFirstName(), e.getLastName(), e.getPhone() };
+    }
+
+    @Override
+    protected boolean hasSuggestions() {
+        return true;
+    }
+
+    @Override
+    protected String[] suggestValues( Person e ) {
+        //the id is a key as well, forms ask for it when linking a person
+        return new String[]{ e.getFirstName() + " " + e.getLastName(), e.getPhone(), String.valueOf( e.getId() ) };
+    }
+
+    @Override
+    protected String suggestLabel( Person e ) {
+        return e.getFirstName() + " " + e.getLastName() + " (" + e.getPhone() + ")";
     }
 }
@@ -0,0 +1,364 @@
+package logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * in memory radix trie answering "which rows have a value starting with this text", for typeahead lists.
+ *
+ * each value of a row is stored as a key, and so is every part of it that starts a new word, so "Waverly Hills" is found
+ * by "wav" and by "hil". edges hold whole runs of characters instead of one character each, a chain of nodes with one
+ * child is merged into one edge, so the trie has at most two nodes per key. a lookup walks down the prefix and then
+ * visits the subtree below it in key order until enough rows are found, its cost depends on the length of the prefix
+ * and the number of rows asked for, not on the number of rows in the trie.
+ *
+ * keys are compared in lower case with accents removed, like {@link NGramIndex}. many threads can look up at once,
+ * changes wait for running lookups.
+ */
+public final class PrefixTrie {
+
+    private static final String[] NO_LABELS = new String[ 0 ];
+    private static final Node[] NO_CHILDREN = new Node[ 0 ];
+    private static final int[] NO_IDS = new int[ 0 ];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Node root = new Node();
+
+    /**
+     * label and keys of each row, the keys are needed to find the row again when it changes
+     */
+    private final Map<Integer, Row> rows = new HashMap<>();
+
+    private final ChangedIds changed = new ChangedIds( true );
+
+    /**
+     * add a row, or replace it if the id is already in the trie.
+     *
+     * @param id - primary key of the row
+     * @param label - text shown for the row
+     * @param values - values the row is found by, nulls are skipped
+     */
+    public void put( int id, String label, String... values ) {
+        Row row = new Row( label, keys( values ) );
+        lock.writeLock().lock();
+        try {
+            changed.mark( id );
+            replace( id, row );
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * remove a row, does nothing if the id is not in the trie.
+     *
+     * @param id - primary key of the row
+     */
+    public void remove( int id ) {
+        lock.writeLock().lock();
+        try {
+            changed.mark( id );
+            replace( id, null );
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * add a row read while building the trie, it is skipped if the row was put or removed since the trie was created.
+     * call {@link #loaded()} once every row is added.
+     *
+     * @param id - primary key of the row
+     * @param label - text shown for the row
+     * @param values - values the row is found by, nulls are skipped
+     */
+    public void load( int id, String label, String... values ) {
+        Row row = new Row( label, keys( values ) );
+        lock.writeLock().lock();
+        try {
+            if( !changed.isLoading() ){
+                throw new IllegalStateException( "trie is already loaded" );
+            }
+            if( !changed.contains( id ) ){
+                replace( id, row );
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * end the loading of the trie, from now on load can not be used.
+     */
+    public void loaded() {
+        lock.writeLock().lock();
+        try {
+            changed.stop();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param prefix - start of a value, empty returns nothing
+     * @param limit - most rows to return
+     * @return rows with a value starting with prefix, in order of that value
+     */
+    public List<Suggestion> suggest( String prefix, int limit ) {
+        String text = NGramIndex.normalize( prefix );
+        if( text.isEmpty() || limit < 1 ){
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int pos = 0;
+            while( pos < text.length() ) {
+                int child = node.find( text.charAt( pos ) );
+                if( child < 0 ){
+                    return Collections.emptyList();
+                }
+                String label = node.labels[ child ];
+                int length = Math.min( label.length(), text.length() - pos );
+                if( !label.regionMatches( 0, text, pos, length ) ){
+                    return Collections.emptyList();
+                }
+                //the prefix may end inside the label, every key below the edge still starts with it
+                pos += length;
+                node = node.children[ child ];
+            }
+            Set<Integer> ids = new LinkedHashSet<>();
+            collect( node, ids, limit );
+            List<Suggestion> suggestions = new ArrayList<>( ids.size() );
+            for( Integer id: ids ) {
+                suggestions.add( new Suggestion( id, rows.get( id ).label ) );
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of rows in the trie
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rows.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return every value and every word inside a value that does not start it, normalized
+     */
+    private static String[] keys( String... values ) {
+        Set<String> keys = new LinkedHashSet<>();
+        for( String value: values ) {
+            String text = NGramIndex.normalize( value ).trim();
+            for( int start = 0; start < text.length(); start++ ) {
+                if( start == 0 || ( text.charAt( start - 1 ) == ' ' && text.charAt( start ) != ' ' ) ){
+                    keys.add( text.substring( start ) );
+                }
+            }
+        }
+        return keys.toArray( new String[ keys.size() ] );
+    }
+
+    /**
+     * must hold the write lock.
+     *
+     * @param id - primary key of the row
+     * @param row - new label and keys of the row, null to remove it
+     */
+    private void replace( int id, Row row ) {
+        Row old = row == null ? rows.remove( id ) : rows.put( id, row );
+        if( old != null ){
+            for( String key: old.keys ) {
+                delete( key, id );
+            }
+        }
+        if( row != null ){
+            for( String key: row.keys ) {
+                insert( key, id );
+            }
+        }
+    }
+
+    private void insert( String key, int id ) {
+        Node node = root;
+        int pos = 0;
+        while( pos < key.length() ) {
+            int child = node.find( key.charAt( pos ) );
+            if( child < 0 ){
+                Node leaf = new Node();
+                leaf.addId( id );
+                node.addChild( key.substring( pos ), leaf );
+                return;
+            }
+            String label = node.labels[ child ];
+            int common = 1;
+            while( common < label.length() && pos + common < key.length()
+                    && label.charAt( common ) == key.charAt( pos + common ) ) {
+                common++;
+            }
+            if( common < label.length() ){
+                //the key leaves the edge part way, split it at that point
+                Node middle = new Node();
+                middle.addChild( label.substring( common ), node.children[ child ] );
+                node.labels[ child ] = label.substring( 0, common );
+                node.children[ child ] = middle;
+            }
+            node = node.children[ child ];
+            pos += common;
+        }
+        node.addId( id );
+    }
+
+    private void delete( String key, int id ) {
+        //nodes on the way down and the index of the edge taken from each
+        List<Node> path = new ArrayList<>();
+        List<Integer> edges = new ArrayList<>();
+        Node node = root;
+        int pos = 0;
+        while( pos < key.length() ) {
+            int child = node.find( key.charAt( pos ) );
+            if( child < 0 || !key.startsWith( node.labels[ child ], pos ) ){
+                return;
+            }
+            path.add( node );
+            edges.add( child );
+            pos += node.labels[ child ].length();
+            node = node.children[ child ];
+        }
+        node.removeId( id );
+        //drop nodes left empty and merge nodes left with a single child into the edge above them
+        for( int i = path.size() - 1; i >= 0; i-- ) {
+            Node parent = path.get( i );
+            int edge = edges.get( i );
+            if( node.ids.length == 0 && node.labels.length == 0 ){
+                parent.removeChild( edge );
+            } else if( node.ids.length == 0 && node.labels.length == 1 ){
+                parent.labels[ edge ] += node.labels[ 0 ];
+                parent.children[ edge ] = node.children[ 0 ];
+                break;
+            } else {
+                break;
+            }
+            node = parent;
+        }
+    }
+
+    /**
+     * add the ids of node and of the nodes below it, in key order, until there are limit of them.
+     */
+    private static void collect( Node node, Set<Integer> ids, int limit ) {
+        for( int id: node.ids ) {
+            ids.add( id );
+            if( ids.size() == limit ){
+                return;
+            }
+        }
+        for( Node child: node.children ) {
+            collect( child, ids, limit );
+            if( ids.size() == limit ){
+                return;
+            }
+        }
+    }
+
+    private static final class Row {
+
+        private final String label;
+        private final String[] keys;
+
+        Row( String label, String[] keys ) {
+            this.label = label;
+            this.keys = keys;
+        }
+    }
+
+    /**
+     * edges are kept sorted by their first character, no two edges of a node start with the same one.
+     */
+    private static final class Node {
+
+        private String[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private int[] ids = NO_IDS;
+
+        int find( char c ) {
+            int low = 0;
+            int high = labels.length - 1;
+            while( low <= high ) {
+                int mid = ( low + high ) >>> 1;
+                char first = labels[ mid ].charAt( 0 );
+                if( first < c ){
+                    low = mid + 1;
+                } else if( first > c ){
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -( low + 1 );
+        }
+
+        void addChild( String label, Node child ) {
+            int at = -find( label.charAt( 0 ) ) - 1;
+            labels = insert( labels, at, label );
+            children = insert( children, at, child );
+        }
+
+        void removeChild( int at ) {
+            labels = remove( labels, at );
+            children = remove( children, at );
+        }
+
+        void addId( int id ) {
+            int at = Arrays.binarySearch( ids, id );
+            if( at < 0 ){
+                at = -at - 1;
+                int[] grown = new int[ ids.length + 1 ];
+                System.arraycopy( ids, 0, grown, 0, at );
+                grown[ at ] = id;
+                System.arraycopy( ids, at, grown, at + 1, ids.length - at );
+                ids = grown;
+            }
+        }
+
+        void removeId( int id ) {
+            int at = Arrays.binarySearch( ids, id );
+            if( at >= 0 ){
+                int[] shrunk = new int[ ids.length - 1 ];
+                System.arraycopy( ids, 0, shrunk, 0, at );
+                System.arraycopy( ids, at + 1, shrunk, at, ids.length - at - 1 );
+                ids = shrunk;
+            }
+        }
+
+        private static <T> T[] insert( T[] array, int at, T value ) {
+            T[] grown = Arrays.copyOf( array, array.length + 1 );
+            System.arraycopy( array, at, grown, at + 1, array.length - at );
+            grown[ at ] = value;
+            return grown;
+        }
+
+        private static <T> T[] remove( T[] array, int at ) {
+            T[] shrunk = Arrays.copyOf( array, array.length - 1 );
+            System.arraycopy( array, at + 1, shrunk, at, array.length - at - 1 );
+            return shrunk;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package logic;
+
+/**
+ * where {@link Logic#search(String)} looks for matching rows. every backend finds rows where one of the searched
+ * columns contains the search text, ignoring case and accents.
+ *
+ * @see LogicFactory#initSearch(SearchBackend)
+ */
+public enum SearchBackend {
+
+    /**
+     * the "[Entity].findContaining" named query. needs no setup, but {@code LIKE '%text%'} can not use an index so every
+     * search reads the whole table.
+     */
+    LIKE,
+
+    /**
+     * an {@link NGramIndex} kept in memory by every logic. it is built from the DB when selected and updated by every
+     * add, update and delete done through the logic, so changes made to the DB by anything else are not seen until it
+     * is built again.
+     */
+    NGRAM,
+
+    /**
+     * MySQL FULLTEXT indexes built with the ngram parser, see META-INF/sql/simplebloodbank-fulltext.sql. only text
+     * columns can be in a FULLTEXT index, number columns are not searched. entities without an index use LIKE.
+     */
+    FULLTEXT;
+
+    /**
+     * @param name - name of a backend, case is ignored
+     * @param defaultBackend - backend used if name is null or empty
+     * @return backend with the given name
+     * @throws IllegalArgumentException if there is no backend with the name
+     */
+    public static SearchBackend of( String name, SearchBackend defaultBackend ) {
+        if( name == null || name.trim().isEmpty() ){
+            return defaultBackend;
+        }
+        return valueOf( name.trim().toUpperCase() );
+    }
+}
@@ -0,0 +1,30 @@
+package logic;
+
+/**
+ * one entry of a typeahead list, the primary key of an entity and the text shown for it.
+ *
+ * @see Logic#suggest(String, int)
+ */
+public final class Suggestion {
+
+    private final int id;
+    private final String label;
+
+    public Suggestion( int id, String label ) {
+        this.id = id;
+        this.label = label;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public String toString() {
+        return "Suggestion{" + "id=" + id + ", label=" + label + '}';
+    }
+}
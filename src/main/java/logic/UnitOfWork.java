@@ -0,0 +1,121 @@
+package logic;
+
+import dal.EntityManagerContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * runs calls to several logic objects in one transaction on one connection.
+ *
+ * <pre>
+ * Person person = UnitOfWork.execute( () -&gt; {
+ *     personLogic.add( person );
+ *     recordLogic.add( record );
+ *     return person;
+ * } );
+ * </pre>
+ *
+ * every logic call made by the work on the same thread joins the unit, nothing is committed until the work returns.
+ * if the work throws everything is rolled back and the exception is passed on. units can be nested, only the outermost
+ * one commits. entities stay managed until the unit ends, so they can be used to link new entities without being
+ * loaded again.
+ *
+ * @see EntityManagerContext
+ */
+public final class UnitOfWork {
+
+    private static final Logger LOG = Logger.getLogger( UnitOfWork.class.getName() );
+
+    /**
+     * actions waiting for the commit of the outermost unit on the current thread
+     */
+    private static final ThreadLocal<List<Runnable>> AFTER_COMMIT = new ThreadLocal<>();
+
+    private UnitOfWork() {
+    }
+
+    /**
+     * run the work in one transaction and commit it.
+     *
+     * @param <R> - result type
+     * @param work - logic calls to run together
+     * @return result of work
+     * @throws javax.persistence.RollbackException if the commit fails or a failed inner call marked the unit for
+     * rollback
+     */
+    public static <R> R execute( Supplier<R> work ) {
+        boolean outermost = !EntityManagerContext.inUnit();
+        EntityManagerContext.beginUnit();
+        if( outermost ){
+            AFTER_COMMIT.set( new ArrayList<>() );
+        }
+        boolean committed = false;
+        R result;
+        try {
+            try {
+                result = work.get();
+            } catch( RuntimeException | Error ex ) {
+                EntityManagerContext.endUnit( false );
+                throw ex;
+            }
+            committed = EntityManagerContext.endUnit( true );
+        } finally {
+            if( outermost ){
+                List<Runnable> actions = AFTER_COMMIT.get();
+                AFTER_COMMIT.remove();
+                if( committed ){
+                    actions.forEach( UnitOfWork::runSafely );
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * run the work in one transaction and commit it.
+     *
+     * @param work - logic calls to run together
+     * @throws javax.persistence.RollbackException if the commit fails or a failed inner call marked the unit for
+     * rollback
+     */
+    public static void run( Runnable work ) {
+        execute( () -> {
+            work.run();
+            return null;
+        } );
+    }
+
+    /**
+     * @return true if a unit of work is open on the current thread
+     */
+    public static boolean isActive() {
+        return EntityManagerContext.inUnit();
+    }
+
+    /**
+     * run the action once the current unit of work has committed, it is dropped if the unit is rolled back. outside of
+     * a unit the action runs right away, as logic calls commit on their own.
+     *
+     * @param action - work that must only see committed data, i.e. cache eviction
+     */
+    static void afterCommit( Runnable action ) {
+        List<Runnable> actions = AFTER_COMMIT.get();
+        if( actions == null ){
+            action.run();
+        } else {
+            actions.add( action );
+        }
+    }
+
+    private static void runSafely( Runnable action ) {
+        try {
+            action.run();
+        } catch( RuntimeException ex ) {
+            //the transaction is already committed, a failing action must not make the caller think it was not
+            LOG.log( Level.WARNING, "After commit action failed", ex );
+        }
+    }
+}
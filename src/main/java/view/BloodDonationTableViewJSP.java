@@ -7,12 +7,14 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import logic.AsyncLogic;
 import logic.BloodDonationLogic;
 import logic.LogicFactory;
 
@@ -21,34 +23,33 @@ import logic.LogicFactory;
  * through RHD, BloodGroup, and Milliliters.
  * @author Shariar (Shawn) Emami, Matthew Ellero
  */
-@WebServlet( name = "BloodDonationTableJSP", urlPatterns = { "/BloodDonationTableJSP" } )
+@WebServlet( name = "BloodDonationTableJSP", urlPatterns = { "/BloodDonationTableJSP" }, asyncSupported = true )
 public class BloodDonationTableViewJSP extends HttpServlet {
 
     private void fillTableData( HttpServletRequest req, HttpServletResponse resp )
             throws ServletException, IOException {
         String path = req.getServletPath();
-        req.setAttribute( "entities", extractTableData( req ) );
         req.setAttribute( "request", toStringMap( req.getParameterMap() ) );
         req.setAttribute( "path", path );
         req.setAttribute( "title", path.substring( 1 ) );
-        req.getRequestDispatcher( "/jsp/ShowTable-Entity.jsp" ).forward( req, resp );
+        TablePaging.forwardAsync( req, extractTableData( req ), "/jsp/ShowTable-Entity.jsp" );
     }
 
-    private List<?> extractTableData( HttpServletRequest req ) {
+    private CompletableFuture<? extends List<?>> extractTableData( HttpServletRequest req ) {
         String search = req.getParameter( "searchText" );
         BloodDonationLogic logic = LogicFactory.getFor( "BloodDonation" );
+        AsyncLogic<BloodDonation> async = LogicFactory.getAsyncFor( "BloodDonation" );
         req.setAttribute( "columnName", logic.getColumnNames() );
         req.setAttribute( "columnCode", logic.getColumnCodes() );
-        List<BloodDonation> list;
-        if( search != null ){
-            list = logic.search( search );
-        } else {
-            list = logic.getAll();
+        if( search == null ){
+            return TablePaging.loadPageAsync( req, async );
         }
-        if( list == null || list.isEmpty() ){
-            return Collections.emptyList();
-        }
-        return appendDataToNewList( list, logic::extractDataAsList );
+        return async.searchAsync( search ).<List<?>>thenApply( list -> {
+            if( list == null || list.isEmpty() ){
+                return Collections.emptyList();
+            }
+            return appendDataToNewList( list, logic::extractDataAsList );
+        } );
     }
 
     private <T> List<?> appendDataToNewList( List<T> list, Function<T, List<?>> toArray ) {
@@ -0,0 +1,97 @@
+package view;
+
+import common.EMFactory;
+import java.io.IOException;
+import java.io.PrintWriter;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+/**
+ * shows the hit, miss and put counts of the second level cache and the query cache as JSON.
+ *
+ * counts are collected by hibernate only when the cacheStatistics context-param is true in web.xml, as keeping them
+ * costs every session a little. they start at zero when the application starts.
+ */
+@WebServlet( name = "CacheStatsView", urlPatterns = { "/CacheStats" } )
+public class CacheStatsView extends HttpServlet {
+
+    /**
+     * Handles the HTTP <code>GET</code> method.
+     *
+     * @param req servlet request
+     * @param resp servlet response
+     * @throws ServletException if a servlet-specific error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    protected void doGet( HttpServletRequest req, HttpServletResponse resp )
+            throws ServletException, IOException {
+        log( "GET" );
+        Statistics stats = EMFactory.getEMF().unwrap( SessionFactory.class ).getStatistics();
+        resp.setContentType( "application/json;charset=UTF-8" );
+        resp.setHeader( "Cache-Control", "no-store" );
+        try( PrintWriter out = resp.getWriter() ) {
+            out.printf( "{\"statisticsEnabled\":%b", stats.isStatisticsEnabled() );
+            out.printf( ",\"secondLevelCache\":{\"hits\":%d,\"misses\":%d,\"puts\":%d}",
+                    stats.getSecondLevelCacheHitCount(), stats.getSecondLevelCacheMissCount(),
+                    stats.getSecondLevelCachePutCount() );
+            out.printf( ",\"queryCache\":{\"hits\":%d,\"misses\":%d,\"puts\":%d}",
+                    stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount(), stats.getQueryCachePutCount() );
+            out.print( ",\"regions\":{" );
+            String[] regions = stats.getSecondLevelCacheRegionNames();
+            for( int i = 0; i < regions.length; i++ ) {
+                CacheRegionStatistics region = stats.getCacheRegionStatistics( regions[ i ] );
+                if( i > 0 ){
+                    out.print( ',' );
+                }
+                //region names are entity class names or hibernate defaults, none need escaping
+                out.printf( "\"%s\":", regions[ i ] );
+                if( region == null ){
+                    out.print( "null" );
+                } else {
+                    out.printf( "{\"hits\":%d,\"misses\":%d,\"puts\":%d", region.getHitCount(),
+                            region.getMissCount(), region.getPutCount() );
+                    //not every cache provider can count its entries
+                    long entries = region.getElementCountInMemory();
+                    if( entries != CacheRegionStatistics.NO_EXTENDED_STAT_SUPPORT_RETURN ){
+                        out.printf( ",\"entries\":%d", entries );
+                    }
+                    out.print( '}' );
+                }
+            }
+            out.println( "}}" );
+        }
+    }
+
+    /**
+     * Returns a short description of the servlet.
+     *
+     * @return a String containing servlet description
+     */
+    @Override
+    public String getServletInfo() {
+        return "Second level and query cache statistics";
+    }
+
+    private static final boolean DEBUG = true;
+
+    @Override
+    public void log( String msg ) {
+        if( DEBUG ){
+            String message = String.format( "[%s] %s", getClass().getSimpleName(), msg );
+            getServletContext().log( message );
+        }
+    }
+
+    @Override
+    public void log( String msg, Throwable t ) {
+        String message = String.format( "[%s] %s", getClass().getSimpleName(), msg );
+        getServletContext().log( message, t );
+    }
+}
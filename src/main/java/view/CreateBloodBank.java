@@ -58,7 +58,9 @@ public class CreateBloodBank extends HttpServlet {
             out.printf( "<input type=\"text\" name=\"%s\" value=\"\"><br>", BloodBankLogic.PRIVATELY_OWNED );
             out.println( "<br>" );
             out.println( "OwnerID:<br>" );
-            out.printf( "<input type=\"text\" name=\"%s\" value=\"\"><br>", BloodBankLogic.OWNER_ID );
+            //people are suggested by name, phone or id while typing, the value put in the field is the id
+            out.printf( "<input type=\"text\" name=\"%s\" value=\"\" list=\"owners\" data-suggest=\"Person\" data-suggest-value=\"id\"><br>", BloodBankLogic.OWNER_ID );
+            out.println( "<datalist id=\"owners\"></datalist>" );
             out.println( "<br>" );
             out.println( "Established:<br>" );
             out.printf( "<input type=\"datetime-local\" name=\"%s\" value=\"\"><br>", BloodBankLogic.ESTABLISHED );
@@ -79,6 +81,7 @@ public class CreateBloodBank extends HttpServlet {
             out.println( "</pre>" );
             out.println( "</div>" );
             out.println( "</div>" );
+            out.println( "<script src=\"script/suggest.js\"></script>" );
             out.println( "</body>" );
             out.println( "</html>" );
         }
@@ -1,12 +1,13 @@
 package view;
 
+import common.ValidationException;
 import entity.BloodBank;
 import entity.BloodDonation;
 import entity.DonationRecord;
 import entity.Person;
 import java.io.IOException;
-import java.util.List;
 import java.util.Map;
+import javax.persistence.PersistenceException;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
@@ -17,6 +18,7 @@ import logic.BloodDonationLogic;
 import logic.DonationRecordLogic;
 import logic.LogicFactory;
 import logic.PersonLogic;
+import logic.UnitOfWork;
 
 /**
  *
@@ -53,10 +55,6 @@ public class DonateBloodForm extends HttpServlet {
             throws ServletException, IOException {
         log("GET");
 
-        BloodBankLogic bbLogic = LogicFactory.getFor("BloodBank");
-        List<BloodBank> banks = bbLogic.getAll();
-
-        request.setAttribute("banks", banks);
         request.getRequestDispatcher("/jsp/donateblood.jsp").forward(request, response);
         processRequest(request, response);
     }
@@ -76,12 +74,32 @@ public class DonateBloodForm extends HttpServlet {
         Map<String, String[]> map = request.getParameterMap();
 
         try {
-            Person person = createPerson(request);
-            BloodBank bloodBank = getBloodBank(request);
-            BloodDonation bloodDonation = createBloodDonation(request, bloodBank);
-            createDonationRecord(request, person, bloodDonation);
+            Integer donorId = getReturningDonorId(request);
+            //all rows of one donation are written in one transaction, a failure leaves none of them behind
+            UnitOfWork.run(() -> {
+                if (donorId != null) {
+                    //checked again before any other read, two submits of one donor could both pass the check above
+                    checkEligibleLocked(donorId);
+                }
+                BloodBank bloodBank = getBloodBank(request);
+                Person person = donorId == null ? createPerson(request) : getPerson(donorId);
+                BloodDonation bloodDonation = createBloodDonation(request, bloodBank);
+                createDonationRecord(request, person, bloodDonation);
+            });
         } catch (IllegalArgumentException e) {
+            //ValidationException is one too
             log("Error Creating Donation: \n", e);
+            //show the reason on the form instead of moving on
+            request.setAttribute("errorMessage", e.getMessage());
+            processRequest(request, response);
+            return;
+        } catch (PersistenceException e) {
+            //most likely another submit for the same donor held the lock or committed first, nothing was saved
+            log("Error Saving Donation: \n", e);
+            request.setAttribute("errorMessage",
+                    "The donation could not be saved, another donation of this donor may be in progress. Try again.");
+            processRequest(request, response);
+            return;
         }
 
         if (map.containsKey("view")) {
@@ -94,39 +112,78 @@ public class DonateBloodForm extends HttpServlet {
     private void createDonationRecord(HttpServletRequest request, Person person, BloodDonation bloodDonation) {
         // Main logic
         DonationRecordLogic drLogic = LogicFactory.getFor("DonationRecord");
+        DonationRecord donation_record = drLogic.createEntity(request.getParameterMap());
+        donation_record.setPerson(person);
+        donation_record.setBloodDonation(bloodDonation);
+        drLogic.add(donation_record);
+    }
+
+    /**
+     * id of the person picked in the returning donor field, checked against the time of their last donation in memory
+     * before anything is written.
+     *
+     * @return id of the donor, null if the field is empty and a new person is created
+     * @throws ValidationException if the id is not a number or the person gave blood too recently
+     */
+    private Integer getReturningDonorId(HttpServletRequest request) {
+        String value = request.getParameter(DonationRecordLogic.PERSON_ID);
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        int donorId;
         try {
-            DonationRecord donation_record = drLogic.createEntity(request.getParameterMap());
-            donation_record.setPerson(person);
-            donation_record.setBloodDonation(bloodDonation);
-            drLogic.add(donation_record);
-        } catch (IllegalArgumentException ex) {
-            log("Error Creating Donation Record: \n", ex);
+            donorId = Integer.parseInt(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new ValidationException("Returning donor must be a person id: " + value, ex);
+        }
+        DonationRecordLogic drLogic = LogicFactory.getFor("DonationRecord");
+        if (!drLogic.isEligible(donorId)) {
+            throw notEligible(donorId, drLogic.getEligibility().getNextEligible(donorId));
         }
+        return donorId;
     }
 
-    private Person createPerson(HttpServletRequest request) {
+    /**
+     * check the donor against the DB with their row locked until the unit of work ends, the time in memory is only
+     * moved once the unit of another donation commits.
+     *
+     * @throws ValidationException if the person gave blood too recently
+     */
+    private void checkEligibleLocked(int donorId) {
+        DonationRecordLogic drLogic = LogicFactory.getFor("DonationRecord");
+        long next = drLogic.getNextEligibleLocked(donorId);
+        if (next > System.currentTimeMillis()) {
+            throw notEligible(donorId, next);
+        }
+    }
+
+    private ValidationException notEligible(int donorId, long next) {
+        return new ValidationException(String.format("Person %d donated in the last %d days and can donate again on %tF",
+                donorId, DonationRecordLogic.DAYS_BETWEEN_DONATIONS, next));
+    }
+
+    private Person getPerson(int id) {
         PersonLogic pLogic = LogicFactory.getFor("Person");
-        Person person = null;
-        try {
-            person = pLogic.createEntity(request.getParameterMap());
-            pLogic.add(person);
-        } catch (IllegalArgumentException ex ) {
-            log("Error Creating Person: \n", ex);
+        Person person = pLogic.getWithId(id);
+        if (person == null) {
+            throw new IllegalArgumentException("Returning donor does not exist!");
         }
         return person;
     }
 
+    private Person createPerson(HttpServletRequest request) {
+        PersonLogic pLogic = LogicFactory.getFor("Person");
+        Person person = pLogic.createEntity(request.getParameterMap());
+        pLogic.add(person);
+        return person;
+    }
+
     private BloodDonation createBloodDonation(HttpServletRequest request, BloodBank bloodBank) {
         // Main logic
         BloodDonationLogic bdLogic = LogicFactory.getFor("BloodDonation");
-        BloodDonation bloodDonation = null;
-        try {
-            bloodDonation = bdLogic.createEntity(request.getParameterMap());
-            bloodDonation.setBloodBank(bloodBank);
-            bdLogic.add(bloodDonation);
-        } catch (NumberFormatException ex) {
-            log("Error Creating Blood Donation \n", ex);
-        }
+        BloodDonation bloodDonation = bdLogic.createEntity(request.getParameterMap());
+        bloodDonation.setBloodBank(bloodBank);
+        bdLogic.add(bloodDonation);
         return bloodDonation;
     }
 
@@ -45,8 +45,7 @@ public class DonationRecordTableView extends HttpServlet {
             out.println( "<table style=\"margin-left: auto; margin-right: auto;\" border=\"1\">" );
             out.println( "<caption>DonationRecord</caption>" );
            
-            DonationRecordLogic drlogic = new DonationRecordLogic();
-          //  Logic<DonationRecord> drlogic = LogicFactory.getFor( "DonationRecord" );
+            DonationRecordLogic drlogic = LogicFactory.getFor( "DonationRecord" );
             out.println( "<tr>" );
             
              //this is an example, for your other tables use getColumnNames from
@@ -0,0 +1,84 @@
+package view;
+
+import entity.BloodDonation;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Instant;
+import java.util.List;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import logic.BloodDonationLogic;
+import logic.BloodType;
+import logic.LogicFactory;
+
+/**
+ * lists the donations expiring within {@link BloodDonationLogic#NEAR_EXPIRY_DAYS} as JSON, expiring first. the ids come
+ * from the expiry tracker in memory, only the donations listed are read from the DB.
+ *
+ * usage: /Expiring
+ */
+@WebServlet( name = "ExpiringView", urlPatterns = { "/Expiring" } )
+public class ExpiringView extends HttpServlet {
+
+    /**
+     * Handles the HTTP <code>GET</code> method.
+     *
+     * @param req servlet request
+     * @param resp servlet response
+     * @throws ServletException if a servlet-specific error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    protected void doGet( HttpServletRequest req, HttpServletResponse resp )
+            throws ServletException, IOException {
+        log( "GET" );
+        BloodDonationLogic logic = LogicFactory.getFor( BloodDonationLogic.class );
+        List<BloodDonation> donations = logic.getNearExpiry();
+        resp.setContentType( "application/json;charset=UTF-8" );
+        resp.setHeader( "Cache-Control", "no-store" );
+        try( PrintWriter out = resp.getWriter() ) {
+            out.print( '[' );
+            boolean first = true;
+            for( BloodDonation donation: donations ) {
+                if( !first ){
+                    out.print( ',' );
+                }
+                first = false;
+                Integer bankId = donation.getBloodBank() == null ? null : donation.getBloodBank().getId();
+                out.printf( "{\"id\":%d,\"bank\":%s,\"type\":\"%s\",\"milliliters\":%d,\"expires\":\"%s\"}",
+                        donation.getId(), bankId, BloodType.name( BloodType.of( donation.getBloodGroup(), donation.getRhd() ) ),
+                        donation.getMilliliters(), Instant.ofEpochMilli( logic.getExpiry( donation ) ) );
+            }
+            out.println( ']' );
+        }
+    }
+
+    /**
+     * Returns a short description of the servlet.
+     *
+     * @return a String containing servlet description
+     */
+    @Override
+    public String getServletInfo() {
+        return "Donations near their expiry";
+    }
+
+    private static final boolean DEBUG = true;
+
+    @Override
+    public void log( String msg ) {
+        if( DEBUG ){
+            String message = String.format( "[%s] %s", getClass().getSimpleName(), msg );
+            getServletContext().log( message );
+        }
+    }
+
+    @Override
+    public void log( String msg, Throwable t ) {
+        String message = String.format( "[%s] %s", getClass().getSimpleName(), msg );
+        getServletContext().log( message, t );
+    }
+}
@@ -0,0 +1,304 @@
+package view;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import logic.Logic;
+import logic.LogicFactory;
+
+/**
+ * streams a whole table to the client as CSV or NDJSON (one JSON object per line).
+ *
+ * usage: /export/{entity}?format=csv|ndjson&amp;fetchSize=500&amp;gzip=false
+ * <br>
+ * rows are read through {@link Logic#streamAll} and written straight to the response, no content length is set so the
+ * container sends the body chunked. memory use does not depend on the size of the table. if reading the rows fails
+ * once the body started, an NDJSON export ends with an {"error": ...} record and a CSV export is cut off without its
+ * last chunk, so the client never takes a part of the table for all of it. the body is gzipped when the
+ * Accept-Encoding of the request allows it, unless gzip=false is given. dates are written like in the tables, see
+ * {@link Logic#convertDateToString(Date)}.
+ */
+@WebServlet( name = "ExportView", urlPatterns = { "/export/*" } )
+public class ExportView extends HttpServlet {
+
+    private static final int DEFAULT_FETCH_SIZE = 500;
+    private static final int MAX_FETCH_SIZE = 10000;
+
+    /**
+     * entities that can be exported, keyed by lower case name used in the URL. account is left out on purpose as it
+     * holds passwords.
+     */
+    private static final Map<String, String> ENTITIES = new TreeMap<>();
+
+    static {
+        ENTITIES.put( "person", "Person" );
+        ENTITIES.put( "bloodbank", "BloodBank" );
+        ENTITIES.put( "blooddonation", "BloodDonation" );
+        ENTITIES.put( "donationrecord", "DonationRecord" );
+    }
+
+    private enum Format {
+        CSV( "text/csv", ".csv" ), NDJSON( "application/x-ndjson", ".ndjson" );
+
+        private final String contentType;
+        private final String extension;
+
+        Format( String contentType, String extension ) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+    }
+
+    /**
+     * Handles the HTTP <code>GET</code> method.
+     *
+     * @param req servlet request
+     * @param resp servlet response
+     * @throws ServletException if a servlet-specific error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    protected void doGet( HttpServletRequest req, HttpServletResponse resp )
+            throws ServletException, IOException {
+        log( "GET" );
+        String pathInfo = req.getPathInfo();
+        String entityName = pathInfo == null ? null : ENTITIES.get( pathInfo.substring( 1 ).toLowerCase( Locale.ROOT ) );
+        if( entityName == null ){
+            resp.sendError( HttpServletResponse.SC_NOT_FOUND, "Unknown entity, use one of: " + ENTITIES.keySet() );
+            return;
+        }
+        Format format;
+        try {
+            String formatParam = req.getParameter( "format" );
+            format = formatParam == null ? Format.CSV : Format.valueOf( formatParam.toUpperCase( Locale.ROOT ) );
+        } catch( IllegalArgumentException ex ) {
+            resp.sendError( HttpServletResponse.SC_BAD_REQUEST, "format must be csv or ndjson" );
+            return;
+        }
+        int fetchSize = DEFAULT_FETCH_SIZE;
+        if( req.getParameter( "fetchSize" ) != null ){
+            try {
+                fetchSize = Math.max( 1, Math.min( Integer.parseInt( req.getParameter( "fetchSize" ) ), MAX_FETCH_SIZE ) );
+            } catch( NumberFormatException ex ) {
+                resp.sendError( HttpServletResponse.SC_BAD_REQUEST, "fetchSize must be a number" );
+                return;
+            }
+        }
+        boolean gzip = !"false".equalsIgnoreCase( req.getParameter( "gzip" ) )
+                && acceptsGzip( req.getHeader( "Accept-Encoding" ) );
+
+        Logic<?> logic = LogicFactory.getFor( entityName );
+        resp.setContentType( format.contentType );
+        resp.setCharacterEncoding( StandardCharsets.UTF_8.name() );
+        resp.setHeader( "Content-Disposition", "attachment; filename=\"" + entityName + format.extension + "\"" );
+        //the body depends on Accept-Encoding, caches must not hand a gzipped export to a client that cannot read it
+        resp.addHeader( "Vary", "Accept-Encoding" );
+        if( gzip ){
+            resp.setHeader( "Content-Encoding", "gzip" );
+        }
+
+        OutputStream out = resp.getOutputStream();
+        if( gzip ){
+            out = new GZIPOutputStream( out, 8192 );
+        }
+        Writer writer = new BufferedWriter( new OutputStreamWriter( out, StandardCharsets.UTF_8 ), 8192 );
+        try {
+            export( logic, format, fetchSize, writer );
+        } catch( UncheckedIOException ex ) {
+            //most likely the client went away, nothing more can be sent
+            log( "Export of " + entityName + " aborted", ex.getCause() );
+            return;
+        } catch( RuntimeException ex ) {
+            log( "Export of " + entityName + " failed", ex );
+            if( !resp.isCommitted() ){
+                //nothing was sent yet, the client gets an error page instead
+                resp.reset();
+                throw new ServletException( "Export of " + entityName + " failed", ex );
+            }
+            if( format != Format.NDJSON ){
+                //CSV can not mark an error, the writer is not closed so the body is not ended and the container
+                //closes the connection, the client sees a broken transfer instead of a complete file
+                throw new ServletException( "Export of " + entityName + " failed after the response was sent", ex );
+            }
+            writeJsonError( writer, ex );
+        }
+        writer.close();
+    }
+
+    /**
+     * @param acceptEncoding - Accept-Encoding header of the request, may be null
+     * @return true if gzip, or any coding through *, is listed without q=0
+     */
+    private static boolean acceptsGzip( String acceptEncoding ) {
+        if( acceptEncoding == null ){
+            return false;
+        }
+        for( String coding: acceptEncoding.split( "," ) ) {
+            String[] parts = coding.split( ";" );
+            String name = parts[ 0 ].trim();
+            if( !"gzip".equalsIgnoreCase( name ) && !"x-gzip".equalsIgnoreCase( name ) && !"*".equals( name ) ){
+                continue;
+            }
+            boolean refused = false;
+            for( int i = 1; i < parts.length; i++ ) {
+                String parameter = parts[ i ].trim();
+                if( parameter.startsWith( "q=" ) || parameter.startsWith( "Q=" ) ){
+                    try {
+                        refused = Double.parseDouble( parameter.substring( 2 ) ) <= 0;
+                    } catch( NumberFormatException ex ) {
+                        refused = true;
+                    }
+                }
+            }
+            if( !refused ){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <E> void export( Logic<E> logic, Format format, int fetchSize, Writer writer ) throws IOException {
+        List<String> codes = logic.getColumnCodes();
+        if( format == Format.CSV ){
+            writeCsvRow( writer, codes, logic );
+        }
+        logic.streamAll( fetchSize, e -> {
+            try {
+                List<?> row = logic.extractDataAsList( e );
+                if( format == Format.CSV ){
+                    writeCsvRow( writer, row, logic );
+                } else {
+                    writeJsonRow( writer, codes, row, logic );
+                }
+            } catch( IOException ex ) {
+                throw new UncheckedIOException( ex );
+            }
+        } );
+    }
+
+    private void writeCsvRow( Writer writer, List<?> row, Logic<?> logic ) throws IOException {
+        for( int i = 0; i < row.size(); i++ ) {
+            if( i > 0 ){
+                writer.write( ',' );
+            }
+            Object value = row.get( i );
+            if( value == null ){
+                continue;
+            }
+            String text = value instanceof Date ? logic.convertDateToString( (Date)value ) : value.toString();
+            if( text.indexOf( ',' ) < 0 && text.indexOf( '"' ) < 0 && text.indexOf( '\n' ) < 0 && text.indexOf( '\r' ) < 0 ){
+                writer.write( text );
+            } else {
+                writer.write( '"' );
+                writer.write( text.replace( "\"", "\"\"" ) );
+                writer.write( '"' );
+            }
+        }
+        writer.write( "\r\n" );
+    }
+
+    private void writeJsonRow( Writer writer, List<String> codes, List<?> row, Logic<?> logic ) throws IOException {
+        writer.write( '{' );
+        for( int i = 0; i < row.size(); i++ ) {
+            if( i > 0 ){
+                writer.write( ',' );
+            }
+            writeJsonString( writer, codes.get( i ) );
+            writer.write( ':' );
+            Object value = row.get( i );
+            if( value == null ){
+                writer.write( "null" );
+            } else if( value instanceof Number || value instanceof Boolean ){
+                writer.write( value.toString() );
+            } else if( value instanceof Date ){
+                writeJsonString( writer, logic.convertDateToString( (Date)value ) );
+            } else {
+                writeJsonString( writer, value.toString() );
+            }
+        }
+        writer.write( "}\n" );
+    }
+
+    /**
+     * end an NDJSON export that failed with a record holding only an error, so the client can tell the rows before it
+     * are not the whole table
+     */
+    private void writeJsonError( Writer writer, Exception ex ) throws IOException {
+        writer.write( "{\"error\":" );
+        writeJsonString( writer, "Export failed, rows are missing: "
+                + ( ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage() ) );
+        writer.write( "}\n" );
+    }
+
+    private void writeJsonString( Writer writer, String text ) throws IOException {
+        writer.write( '"' );
+        for( int i = 0; i < text.length(); i++ ) {
+            char c = text.charAt( i );
+            switch( c ) {
+                case '"':
+                    writer.write( "\\\"" );
+                    break;
+                case '\\':
+                    writer.write( "\\\\" );
+                    break;
+                case '\n':
+                    writer.write( "\\n" );
+                    break;
+                case '\r':
+                    writer.write( "\\r" );
+                    break;
+                case '\t':
+                    writer.write( "\\t" );
+                    break;
+                default:
+                    if( c < 0x20 ){
+                        writer.write( String.format( "\\u%04x", (int)c ) );
+                    } else {
+                        writer.write( c );
+                    }
+            }
+        }
+        writer.write( '"' );
+    }
+
+    /**
+     * Returns a short description of the servlet.
+     *
+     * @return a String containing servlet description
+     */
+    @Override
+    public String getServletInfo() {
+        return "Streaming CSV/NDJSON export of entity tables";
+    }
+
+    private static final boolean DEBUG = true;
+
+    @Override
+    public void log( String msg ) {
+        if( DEBUG ){
+            String message = String.format( "[%s] %s", getClass().getSimpleName(), msg );
+            getServletContext().log( message );
+        }
+    }
+
+    @Override
+    public void log( String msg, Throwable t ) {
+        String message = String.format( "[%s] %s", getClass().getSimpleName(), msg );
+        getServletContext().log( message, t );
+    }
+}
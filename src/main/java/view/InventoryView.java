@@ -0,0 +1,109 @@
+package view;
+
+import entity.BloodGroup;
+import entity.RhesusFactor;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.TreeSet;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import logic.BloodDonationLogic;
+import logic.BloodInventory;
+import logic.BloodType;
+import logic.LogicFactory;
+
+/**
+ * shows the milliliters of each blood type held by each blood bank as JSON, read from {@link BloodInventory} without
+ * a query.
+ *
+ * usage: /Inventory or /Inventory?bank=1 for one bank only
+ */
+@WebServlet( name = "InventoryView", urlPatterns = { "/Inventory" } )
+public class InventoryView extends HttpServlet {
+
+    /**
+     * Handles the HTTP <code>GET</code> method.
+     *
+     * @param req servlet request
+     * @param resp servlet response
+     * @throws ServletException if a servlet-specific error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    protected void doGet( HttpServletRequest req, HttpServletResponse resp )
+            throws ServletException, IOException {
+        log( "GET" );
+        BloodDonationLogic logic = LogicFactory.getFor( BloodDonationLogic.class );
+        BloodInventory inventory = logic.getInventory();
+        TreeSet<Integer> bankIds = new TreeSet<>( inventory.getBankIds() );
+        if( req.getParameter( "bank" ) != null ){
+            try {
+                bankIds.retainAll( Collections.singleton( Integer.parseInt( req.getParameter( "bank" ) ) ) );
+            } catch( NumberFormatException ex ) {
+                resp.sendError( HttpServletResponse.SC_BAD_REQUEST, "bank must be a number" );
+                return;
+            }
+        }
+        resp.setContentType( "application/json;charset=UTF-8" );
+        resp.setHeader( "Cache-Control", "no-store" );
+        try( PrintWriter out = resp.getWriter() ) {
+            out.printf( "{\"loaded\":%b,\"banks\":{", inventory.isLoaded() );
+            boolean first = true;
+            for( int bankId: bankIds ) {
+                if( !first ){
+                    out.print( ',' );
+                }
+                first = false;
+                out.printf( "\"%d\":{\"total\":%d", bankId, inventory.getMilliliters( bankId ) );
+                for( int type = 0; type < BloodType.COUNT; type++ ) {
+                    BloodGroup group = BloodType.group( type );
+                    RhesusFactor rhd = BloodType.rhesus( type );
+                    out.printf( ",\"%s\":{\"milliliters\":%d,\"units\":%d}", BloodType.name( type ),
+                            inventory.getMilliliters( bankId, group, rhd ), inventory.getUnits( bankId, group, rhd ) );
+                }
+                out.print( '}' );
+            }
+            out.print( "},\"total\":{" );
+            for( int type = 0; type < BloodType.COUNT; type++ ) {
+                if( type > 0 ){
+                    out.print( ',' );
+                }
+                BloodGroup group = BloodType.group( type );
+                RhesusFactor rhd = BloodType.rhesus( type );
+                out.printf( "\"%s\":{\"milliliters\":%d,\"units\":%d}", BloodType.name( type ),
+                        inventory.getTotalMilliliters( group, rhd ), inventory.getTotalUnits( group, rhd ) );
+            }
+            out.println( "}}" );
+        }
+    }
+
+    /**
+     * Returns a short description of the servlet.
+     *
+     * @return a String containing servlet description
+     */
+    @Override
+    public String getServletInfo() {
+        return "Blood inventory per bank and blood type";
+    }
+
+    private static final boolean DEBUG = true;
+
+    @Override
+    public void log( String msg ) {
+        if( DEBUG ){
+            String message = String.format( "[%s] %s", getClass().getSimpleName(), msg );
+            getServletContext().log( message );
+        }
+    }
+
+    @Override
+    public void log( String msg, Throwable t ) {
+        String message = String.format( "[%s] %s", getClass().getSimpleName(), msg );
+        getServletContext().log( message, t );
+    }
+}
@@ -0,0 +1,49 @@
+package view;
+
+import dal.PoolMetrics;
+import dal.QueryMetrics;
+import java.io.IOException;
+import java.io.PrintWriter;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * latency histograms and error counts of the named queries, writes and transactions of the DAL and the state of the
+ * connection pool in the Prometheus text format, see {@link QueryMetrics} and {@link PoolMetrics}. the counts start
+ * at zero when the application starts.
+ */
+@WebServlet( name = "MetricsView", urlPatterns = { "/metrics" } )
+public class MetricsView extends HttpServlet {
+
+    /**
+     * Handles the HTTP <code>GET</code> method.
+     *
+     * @param req servlet request
+     * @param resp servlet response
+     * @throws ServletException if a servlet-specific error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    protected void doGet( HttpServletRequest req, HttpServletResponse resp )
+            throws ServletException, IOException {
+        resp.setContentType( "text/plain;version=0.0.4;charset=UTF-8" );
+        resp.setHeader( "Cache-Control", "no-store" );
+        try( PrintWriter out = resp.getWriter() ) {
+            QueryMetrics.writePrometheus( out );
+            PoolMetrics.writePrometheus( out );
+        }
+    }
+
+    /**
+     * Returns a short description of the servlet.
+     *
+     * @return a String containing servlet description
+     */
+    @Override
+    public String getServletInfo() {
+        return "DAL metrics in Prometheus format";
+    }
+}
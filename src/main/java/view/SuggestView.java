@@ -0,0 +1,131 @@
+package view;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import logic.Logic;
+import logic.LogicFactory;
+import logic.Suggestion;
+
+/**
+ * typeahead lists for form fields as a JSON array of {"id":1,"label":"..."} objects.
+ *
+ * usage: /suggest/{entity}?q=text&amp;limit=10
+ * <br>
+ * answered from the lists the logics keep in memory, see {@link Logic#suggest(String, int)}, no query is sent to the
+ * DB. script/suggest.js fills the datalist of an input from it.
+ */
+@WebServlet( name = "SuggestView", urlPatterns = { "/suggest/*" } )
+public class SuggestView extends HttpServlet {
+
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_LIMIT = 50;
+
+    /**
+     * entities with a typeahead list, keyed by lower case name used in the URL
+     */
+    private static final Map<String, String> ENTITIES = new TreeMap<>();
+
+    static {
+        ENTITIES.put( "person", "Person" );
+        ENTITIES.put( "bloodbank", "BloodBank" );
+    }
+
+    /**
+     * Handles the HTTP <code>GET</code> method.
+     *
+     * @param req servlet request
+     * @param resp servlet response
+     * @throws ServletException if a servlet-specific error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    protected void doGet( HttpServletRequest req, HttpServletResponse resp )
+            throws ServletException, IOException {
+        String pathInfo = req.getPathInfo();
+        String entityName = pathInfo == null ? null : ENTITIES.get( pathInfo.substring( 1 ).toLowerCase( Locale.ROOT ) );
+        if( entityName == null ){
+            resp.sendError( HttpServletResponse.SC_NOT_FOUND, "Unknown entity, use one of: " + ENTITIES.keySet() );
+            return;
+        }
+        int limit = DEFAULT_LIMIT;
+        if( req.getParameter( "limit" ) != null ){
+            try {
+                limit = Math.max( 1, Math.min( Integer.parseInt( req.getParameter( "limit" ) ), MAX_LIMIT ) );
+            } catch( NumberFormatException ex ) {
+                resp.sendError( HttpServletResponse.SC_BAD_REQUEST, "limit must be a number" );
+                return;
+            }
+        }
+        String prefix = req.getParameter( "q" );
+        Logic<?> logic = LogicFactory.getFor( entityName );
+        List<Suggestion> suggestions = logic.suggest( prefix, limit );
+
+        resp.setContentType( "application/json;charset=UTF-8" );
+        //lists change with every write, a short cache still saves the requests of a user typing and deleting
+        resp.setHeader( "Cache-Control", "private, max-age=5" );
+        try( PrintWriter out = resp.getWriter() ) {
+            out.print( '[' );
+            for( int i = 0; i < suggestions.size(); i++ ) {
+                Suggestion suggestion = suggestions.get( i );
+                if( i > 0 ){
+                    out.print( ',' );
+                }
+                out.printf( "{\"id\":%d,\"label\":", suggestion.getId() );
+                writeJsonString( out, suggestion.getLabel() );
+                out.print( '}' );
+            }
+            out.println( ']' );
+        }
+    }
+
+    private void writeJsonString( PrintWriter out, String text ) {
+        out.print( '"' );
+        for( int i = 0; i < text.length(); i++ ) {
+            char c = text.charAt( i );
+            if( c == '"' || c == '\\' ){
+                out.print( '\\' );
+                out.print( c );
+            } else if( c < 0x20 ){
+                out.printf( "\\u%04x", (int)c );
+            } else {
+                out.print( c );
+            }
+        }
+        out.print( '"' );
+    }
+
+    /**
+     * Returns a short description of the servlet.
+     *
+     * @return a String containing servlet description
+     */
+    @Override
+    public String getServletInfo() {
+        return "Typeahead lists of Person and BloodBank";
+    }
+
+    private static final boolean DEBUG = true;
+
+    @Override
+    public void log( String msg ) {
+        if( DEBUG ){
+            String message = String.format( "[%s] %s", getClass().getSimpleName(), msg );
+            getServletContext().log( message );
+        }
+    }
+
+    @Override
+    public void log( String msg, Throwable t ) {
+        String message = String.format( "[%s] %s", getClass().getSimpleName(), msg );
+        getServletContext().log( message, t );
+    }
+}
@@ -0,0 +1,143 @@
+package view;
+
+import dal.SortOrder;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import javax.servlet.AsyncContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import logic.AsyncLogic;
+import logic.Logic;
+
+/**
+ * shared keyset pagination for the *TableViewJSP servlets.
+ *
+ * the page is selected with the request parameters "after" (id of the last row of the previous page) or "before" (id
+ * of the first row of the next page). the ids to use for the next and previous links are set as the request
+ * attributes "nextCursor" and "prevCursor", they are only set when there is a page in that direction.
+ *
+ * the servlets load their rows through {@link AsyncLogic} and show them with
+ * {@link #forwardAsync(HttpServletRequest, CompletionStage, String)}, the container thread returns to the pool while the
+ * DB is read.
+ */
+final class TablePaging {
+
+    static final String AFTER = "after";
+    static final String BEFORE = "before";
+    static final String LIMIT = "limit";
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+
+    /**
+     * longest time in milliseconds an async table request waits for the DB before the container ends it
+     */
+    static final long ASYNC_TIMEOUT = 30_000;
+
+    private TablePaging() {
+    }
+
+    /**
+     * load the rows of the page selected by the request using {@link Logic#getRows} on the executor of logic. the
+     * cursors are set on the request when the future completes.
+     *
+     * @param req - current request, cursors are read from and written to it
+     * @param logic - async view of the logic of the entity shown in the table
+     * @return future of the rows of the page in ascending id order
+     */
+    static CompletableFuture<List<List<?>>> loadPageAsync( HttpServletRequest req, AsyncLogic<?> logic ) {
+        Integer before = parseInt( req.getParameter( BEFORE ) );
+        Integer after = parseInt( req.getParameter( AFTER ) );
+        Integer limitParam = parseInt( req.getParameter( LIMIT ) );
+        int limit = limitOf( limitParam );
+
+        CompletableFuture<List<List<?>>> rows;
+        if( before != null ){
+            //walk backwards from the cursor then flip so the table is always shown in ascending order
+            rows = logic.getRowsAsync( before, limit, SortOrder.DESCENDING ).thenApply( page -> {
+                Collections.reverse( page );
+                return page;
+            } );
+        } else {
+            rows = logic.getRowsAsync( after, limit, SortOrder.ASCENDING );
+        }
+        return rows.thenApply( page -> setCursors( req, page, before, after, limitParam ) );
+    }
+
+    /**
+     * put the request in async mode and forward it to jsp once rows are loaded, so the container thread is free while
+     * the DB answers. the rows are set as the request attribute "entities". if the executor is full the client gets
+     * 503 and is asked to retry, any other failure is logged and answered with 500.
+     *
+     * @param req - current request
+     * @param rows - future of the rows of the table
+     * @param jsp - page showing the table
+     */
+    static void forwardAsync( HttpServletRequest req, CompletionStage<? extends List<?>> rows, String jsp ) {
+        AsyncContext async = req.startAsync();
+        async.setTimeout( ASYNC_TIMEOUT );
+        rows.whenComplete( ( page, ex ) -> {
+            try {
+                if( ex == null ){
+                    req.setAttribute( "entities", page );
+                    async.dispatch( jsp );
+                    return;
+                }
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                HttpServletResponse resp = (HttpServletResponse)async.getResponse();
+                if( cause instanceof RejectedExecutionException ){
+                    resp.setHeader( "Retry-After", "1" );
+                    resp.sendError( HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Server is busy, try again" );
+                } else {
+                    req.getServletContext().log( "Failed to load " + req.getServletPath(), cause );
+                    resp.sendError( HttpServletResponse.SC_INTERNAL_SERVER_ERROR );
+                }
+                async.complete();
+            } catch( IOException | IllegalStateException e ) {
+                //the container already ended the request, most likely it timed out
+                req.getServletContext().log( "Could not answer " + req.getServletPath(), e );
+            }
+        } );
+    }
+
+    private static int limitOf( Integer limitParam ) {
+        return limitParam == null ? DEFAULT_PAGE_SIZE : Math.max( 1, Math.min( limitParam, MAX_PAGE_SIZE ) );
+    }
+
+    private static List<List<?>> setCursors( HttpServletRequest req, List<List<?>> rows, Integer before, Integer after,
+            Integer limitParam ) {
+        int limit = limitOf( limitParam );
+        if( !rows.isEmpty() ){
+            boolean full = rows.size() == limit;
+            boolean hasPrevious = before != null ? full : after != null;
+            boolean hasNext = before != null || full;
+            //first column of every table is the id
+            if( hasPrevious ){
+                req.setAttribute( "prevCursor", rows.get( 0 ).get( 0 ) );
+            }
+            if( hasNext ){
+                req.setAttribute( "nextCursor", rows.get( rows.size() - 1 ).get( 0 ) );
+            }
+        }
+        if( limitParam != null ){
+            req.setAttribute( "pageLimit", limit );
+        }
+        return rows;
+    }
+
+    private static Integer parseInt( String value ) {
+        if( value == null || value.isEmpty() ){
+            return null;
+        }
+        try {
+            return Integer.valueOf( value );
+        } catch( NumberFormatException ex ) {
+            return null;
+        }
+    }
+}
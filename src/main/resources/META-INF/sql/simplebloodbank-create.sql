@@ -56,6 +56,7 @@ CREATE TABLE IF NOT EXISTS `simplebloodbank`.`blood_donation` (
   `blood_group` ENUM('A', 'B', 'AB', 'O') NOT NULL,
   `rhd` ENUM('+', '-') NOT NULL,
   `created` DATETIME NOT NULL,
+  `expired` TINYINT(1) NOT NULL DEFAULT 0,
   PRIMARY KEY (`donation_id`),
   INDEX `fk_blood_donation_blood_bank1_idx` (`bank_id` ASC) VISIBLE,
   UNIQUE INDEX `donation_id_UNIQUE` (`donation_id` ASC) VISIBLE,
@@ -105,4 +106,17 @@ CREATE TABLE IF NOT EXISTS `simplebloodbank`.`account` (
   PRIMARY KEY (`id`),
   UNIQUE INDEX `name_UNIQUE` (`name` ASC) VISIBLE,
   UNIQUE INDEX `username_UNIQUE` (`username` ASC) VISIBLE)
-ENGINE = InnoDB;
\ No newline at end of file
+ENGINE = InnoDB;
+
+
+-- -----------------------------------------------------
+-- Table `simplebloodbank`.`id_sequence`
+-- one row per entity, used by the opt-in pooled id generator
+-- (META-INF/orm-pooled-ids.xml). last_val is the last id
+-- reserved, the next block starts right after it.
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `simplebloodbank`.`id_sequence` (
+  `sequence_name` VARCHAR(45) NOT NULL,
+  `last_val` BIGINT NOT NULL,
+  PRIMARY KEY (`sequence_name`))
+ENGINE = InnoDB;
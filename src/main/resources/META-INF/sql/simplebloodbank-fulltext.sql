@@ -0,0 +1,16 @@
+-- -----------------------------------------------------
+-- FULLTEXT indexes used when the search backend is FULLTEXT, see the
+-- searchBackend context-param in web.xml. run once after simplebloodbank-create.sql.
+--
+-- the ngram parser splits text in groups of ngram_token_size characters (2 by
+-- default) so a phrase search finds text inside words, like LIKE '%text%' does.
+-- turn off the stopword list before creating the indexes, otherwise every ngram
+-- that is also a stopword ("an", "at", ...) is left out of the index:
+--   SET GLOBAL innodb_ft_enable_stopword = OFF;
+-- -----------------------------------------------------
+USE `simplebloodbank` ;
+
+CREATE FULLTEXT INDEX `ft_person_search` ON `simplebloodbank`.`person` (`first_name`, `last_name`, `phone`) WITH PARSER ngram;
+CREATE FULLTEXT INDEX `ft_account_search` ON `simplebloodbank`.`account` (`name`, `nickname`, `username`) WITH PARSER ngram;
+CREATE FULLTEXT INDEX `ft_blood_bank_search` ON `simplebloodbank`.`blood_bank` (`name`) WITH PARSER ngram;
+CREATE FULLTEXT INDEX `ft_donation_record_search` ON `simplebloodbank`.`donation_record` (`administrator`, `hospital`) WITH PARSER ngram;
@@ -11,4 +11,12 @@ INSERT INTO `simplebloodbank`.`blood_donation` (`donation_id`, `bank_id`, `milli
 INSERT INTO `simplebloodbank`.`blood_donation` (`donation_id`, `bank_id`, `milliliters`, `blood_group`, `rhd`, `created`) VALUES ('2', '2', '3000', 'O', '-', '2021-03-15 12:12:12');
 
 INSERT INTO `simplebloodbank`.`donation_record` (`record_id`, `person_id`, `donation_id`, `tested`, `administrator`, `hospital`, `created`) VALUES ('1', '1', '1', b'1', 'Shawn', 'Waverly Hills Sanatorium', '1910-07-26 12:00:00');
-INSERT INTO `simplebloodbank`.`donation_record` (`record_id`, `person_id`, `donation_id`, `tested`, `administrator`, `hospital`, `created`) VALUES ('2', null, null, b'0', 'Shawn', 'Waverly Hills Sanatorium', '1910-07-26 12:00:00');
\ No newline at end of file
+INSERT INTO `simplebloodbank`.`donation_record` (`record_id`, `person_id`, `donation_id`, `tested`, `administrator`, `hospital`, `created`) VALUES ('2', null, null, b'0', 'Shawn', 'Waverly Hills Sanatorium', '1910-07-26 12:00:00');
+
+-- move every id sequence past the ids already in use. runs on every start so ids
+-- created through AUTO_INCREMENT before switching to pooled ids are never reused.
+INSERT INTO `simplebloodbank`.`id_sequence` (`sequence_name`, `last_val`) SELECT 'person', COALESCE(MAX(`id`), 0) FROM `simplebloodbank`.`person` ON DUPLICATE KEY UPDATE `last_val` = GREATEST(`last_val`, VALUES(`last_val`));
+INSERT INTO `simplebloodbank`.`id_sequence` (`sequence_name`, `last_val`) SELECT 'blood_bank', COALESCE(MAX(`bank_id`), 0) FROM `simplebloodbank`.`blood_bank` ON DUPLICATE KEY UPDATE `last_val` = GREATEST(`last_val`, VALUES(`last_val`));
+INSERT INTO `simplebloodbank`.`id_sequence` (`sequence_name`, `last_val`) SELECT 'blood_donation', COALESCE(MAX(`donation_id`), 0) FROM `simplebloodbank`.`blood_donation` ON DUPLICATE KEY UPDATE `last_val` = GREATEST(`last_val`, VALUES(`last_val`));
+INSERT INTO `simplebloodbank`.`id_sequence` (`sequence_name`, `last_val`) SELECT 'donation_record', COALESCE(MAX(`record_id`), 0) FROM `simplebloodbank`.`donation_record` ON DUPLICATE KEY UPDATE `last_val` = GREATEST(`last_val`, VALUES(`last_val`));
+INSERT INTO `simplebloodbank`.`id_sequence` (`sequence_name`, `last_val`) SELECT 'account', COALESCE(MAX(`id`), 0) FROM `simplebloodbank`.`account` ON DUPLICATE KEY UPDATE `last_val` = GREATEST(`last_val`, VALUES(`last_val`));
\ No newline at end of file
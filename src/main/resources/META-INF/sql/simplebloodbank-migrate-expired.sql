@@ -0,0 +1,11 @@
+-- -----------------------------------------------------
+-- adds the expired flag of blood_donation, set by the expiry tracker, to a DB
+-- made by simplebloodbank-create.sql before the column existed. the create script
+-- only runs CREATE TABLE IF NOT EXISTS so it leaves an existing table as it is.
+-- run once before deploying, MySQL fails with "Duplicate column name" if the
+-- column is already there. every donation starts unexpired, the tracker marks the
+-- ones past their shelf life on its first tick.
+-- -----------------------------------------------------
+USE `simplebloodbank` ;
+
+ALTER TABLE `simplebloodbank`.`blood_donation` ADD COLUMN `expired` TINYINT(1) NOT NULL DEFAULT 0 AFTER `created`;
@@ -99,6 +99,22 @@
                 </tr>
             </table>
         </form>
+        <div style="text-align: center;">
+            <c:if test="${not empty prevCursor}">
+                <c:url var="prevUrl" value="${title}">
+                    <c:param name="before" value="${prevCursor}"/>
+                    <c:if test="${not empty pageLimit}"><c:param name="limit" value="${pageLimit}"/></c:if>
+                </c:url>
+                <a href="${prevUrl}">&laquo; Previous</a>
+            </c:if>
+            <c:if test="${not empty nextCursor}">
+                <c:url var="nextUrl" value="${title}">
+                    <c:param name="after" value="${nextCursor}"/>
+                    <c:if test="${not empty pageLimit}"><c:param name="limit" value="${pageLimit}"/></c:if>
+                </c:url>
+                <a href="${nextUrl}">Next &raquo;</a>
+            </c:if>
+        </div>
         <div style="text-align: center;">
             <pre>${path}</br>${request}${message}</pre>
         </div>
@@ -34,8 +34,19 @@
     <body>
         <div style="display: flex; text-align: left;flex-direction: column; margin: 0 50px">
             <form action="DonateBloodForm" method="post">
+                <c:if test="${not empty errorMessage}">
+                    <p class="error">${fn:escapeXml(errorMessage)}</p>
+                </c:if>
                 <div class="entity">
                     <h3>Person</h3>
+                    <fieldset class="field">
+                        <!--a returning donor is picked by name, phone or id and checked against their last donation,
+                        the fields below are only used for a new donor -->
+                        <label for="${DonationRecordLogic.PERSON_ID}" class="lf">Returning donor</label>
+                        <input type="text" name="${DonationRecordLogic.PERSON_ID}" list="donors" data-suggest="Person" data-suggest-value="id" placeholder="new donor" class="lfi"/>
+                        <datalist id="donors"></datalist>
+                    </fieldset>
+
                     <fieldset class="field">
                         <label for="${PersonLogic.FIRST_NAME}" class="lf">First name</label>
                         <input type="text" name="${PersonLogic.FIRST_NAME}" value="Mickey" class="lfi" />
@@ -98,13 +109,9 @@
                         <label for="${BloodDonationLogic.CREATED}" class="lf">Date</label>
                         <input type="datetime-local" step="1" name="${BloodDonationLogic.CREATED}" min="1900-01-01" class="lfi">
                         <label for="bloodbank" class="lf">Blood Bank</label>
-                        <select name="${BloodBankLogic.NAME}" class="lfi">
-                            <!--For each bloodbank get all we create an option with the name? -->
-                            <c:forEach var="bb" items="${banks}">                                
-                                <option>${bb.getName()}</option>
-                            </c:forEach>
-                            
-                        </select>
+                        <!--names are suggested while typing, see script/suggest.js -->
+                        <input type="text" name="${BloodBankLogic.NAME}" list="bloodbanks" data-suggest="BloodBank" class="lfi"/>
+                        <datalist id="bloodbanks"></datalist>
                     </fieldset>
 
                 </div>
@@ -114,5 +121,6 @@
             </form>
             <pre>Submitted keys and values:</pre>
         </div>
+        <script src="script/suggest.js"></script>
     </body>
 </html>
@@ -0,0 +1,60 @@
+/*
+ * typeahead for form fields, uses the /suggest/{entity} endpoint of SuggestView.
+ *
+ * <input name="owner_id" list="owners" data-suggest="Person" data-suggest-value="id">
+ * <datalist id="owners"></datalist>
+ *
+ * while the user types the datalist of the input is filled with the matching entities. the option value is the id of
+ * the entity when data-suggest-value is "id", otherwise its label.
+ */
+( function () {
+    "use strict";
+
+    var DELAY = 100;
+    var base = document.currentScript.src.replace( /script\/suggest\.js.*$/, "" );
+
+    function attach( input ) {
+        var list = document.getElementById( input.getAttribute( "list" ) );
+        var useId = input.getAttribute( "data-suggest-value" ) === "id";
+        var url = base + "suggest/" + encodeURIComponent( input.getAttribute( "data-suggest" ) ) + "?q=";
+        var timer = null;
+        var request = null;
+        if( !list ){
+            return;
+        }
+        input.setAttribute( "autocomplete", "off" );
+        input.addEventListener( "input", function () {
+            clearTimeout( timer );
+            timer = setTimeout( function () {
+                var prefix = input.value.trim();
+                if( request ){
+                    request.abort();
+                }
+                if( !prefix ){
+                    list.innerHTML = "";
+                    return;
+                }
+                request = new XMLHttpRequest();
+                request.open( "GET", url + encodeURIComponent( prefix ) );
+                request.responseType = "json";
+                request.onload = function () {
+                    if( request.status !== 200 || !request.response ){
+                        return;
+                    }
+                    list.innerHTML = "";
+                    request.response.forEach( function ( suggestion ) {
+                        var option = document.createElement( "option" );
+                        option.value = useId ? suggestion.id : suggestion.label;
+                        if( useId ){
+                            option.label = suggestion.label;
+                        }
+                        list.appendChild( option );
+                    } );
+                };
+                request.send();
+            }, DELAY );
+        } );
+    }
+
+    document.querySelectorAll( "input[data-suggest]" ).forEach( attach );
+}() );
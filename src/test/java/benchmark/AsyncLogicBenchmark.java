@@ -0,0 +1,239 @@
+package benchmark;
+
+import common.EMFactory;
+import common.EntityManagerFilter;
+import common.ServletListener;
+import dal.SortOrder;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import logic.BloodDonationLogic;
+import logic.LogicFactory;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.jasper.servlet.JasperInitializer;
+import org.apache.tomcat.util.descriptor.web.FilterDef;
+import org.apache.tomcat.util.descriptor.web.FilterMap;
+import org.apache.tomcat.util.scan.StandardJarScanner;
+import org.h2.api.Trigger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import view.BloodDonationTableViewJSP;
+
+/**
+ * load test of the table views with a slow DB, through the real servlets in an embedded Tomcat. async asks
+ * {@link BloodDonationTableViewJSP} for the first page, which reads it on the executor of the application and dispatches
+ * to the JSP. blocking asks a servlet that reads the same page on the container thread and forwards to the same JSP, as
+ * the table views did before they were async.
+ * <p>
+ * the application is started by {@link ServletListener} with the default context-params except persistenceUnit, so the
+ * executor is the one of LogicFactory.startAsync with its default size and the DB is the in process H2 of
+ * {@link H2Database}. every select of blood_donation waits latency milliseconds in an H2 trigger first, like MySQL
+ * during a spike. one operation is a burst of {@value #REQUESTS} requests sent at once over HTTP, multiply the score by
+ * it for requests per second.
+ *
+ * <pre>
+ * mvn -P benchmark test -Dbenchmark.include=AsyncLogicBenchmark -Dbenchmark.args="-p latency=50"
+ * </pre>
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1 )
+public class AsyncLogicBenchmark {
+
+    private static final int REQUESTS = 64;
+
+    private static final int PAGE_SIZE = 50;
+
+    private static final String JSP = "/jsp/ShowTable-Entity.jsp";
+    private static final String ASYNC_PATH = "/BloodDonationTableJSP";
+    private static final String BLOCKING_PATH = "/BlockingDonationTable";
+
+    /**
+     * time in milliseconds the DB waits before every select of blood_donation
+     */
+    @Param( { "0", "50" } )
+    private long latency;
+
+    /**
+     * maxThreads of the connector, 200 is the default of Tomcat
+     */
+    @Param( { "8", "200" } )
+    private int containerThreads;
+
+    private Tomcat tomcat;
+    private HttpClient client;
+    private HttpRequest async;
+    private HttpRequest blocking;
+
+    /**
+     * H2 trigger sleeping before the select it is fired for
+     */
+    public static class SlowSelect implements Trigger {
+
+        private static volatile long delay;
+
+        @Override
+        public void init( Connection conn, String schemaName, String triggerName, String tableName, boolean before,
+                int type ) {
+        }
+
+        @Override
+        public void fire( Connection conn, Object[] oldRow, Object[] newRow ) {
+            try {
+                Thread.sleep( delay );
+            } catch( InterruptedException ex ) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void remove() {
+        }
+    }
+
+    /**
+     * the first page of BloodDonationTableJSP read on the container thread
+     */
+    public static class BlockingTableView extends HttpServlet {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void doGet( HttpServletRequest req, HttpServletResponse resp ) throws ServletException, IOException {
+            BloodDonationLogic logic = LogicFactory.getFor( "BloodDonation" );
+            req.setAttribute( "columnName", logic.getColumnNames() );
+            req.setAttribute( "columnCode", logic.getColumnCodes() );
+            req.setAttribute( "entities", logic.getRows( null, PAGE_SIZE, SortOrder.ASCENDING ) );
+            req.setAttribute( "request", Collections.emptyMap() );
+            req.setAttribute( "path", ASYNC_PATH );
+            req.setAttribute( "title", ASYNC_PATH.substring( 1 ) );
+            req.getRequestDispatcher( JSP ).forward( req, resp );
+        }
+    }
+
+    @Setup( Level.Trial )
+    public void setUp() throws IOException, LifecycleException {
+        H2Database.start();
+        Random random = new Random( 8288 );
+        H2Database.addDonations( 1000, H2Database.addBanks( 10, random ), random );
+        SlowSelect.delay = latency;
+        if( latency > 0 ){
+            EntityManager em = EMFactory.getEMF().createEntityManager();
+            em.getTransaction().begin();
+            em.createNativeQuery( "CREATE TRIGGER simplebloodbank.slow_select BEFORE SELECT"
+                    + " ON simplebloodbank.blood_donation CALL \"" + SlowSelect.class.getName() + "\"" ).executeUpdate();
+            em.getTransaction().commit();
+            em.close();
+        }
+
+        Path base = Files.createTempDirectory( "tomcat" );
+        tomcat = new Tomcat();
+        tomcat.setBaseDir( base.toString() );
+        tomcat.setPort( 0 );
+        tomcat.getConnector().setProperty( "maxThreads", Integer.toString( containerThreads ) );
+        Context context = tomcat.addContext( "", Paths.get( "src/main/webapp" ).toAbsolutePath().toString() );
+        //the EntityManagerFactory is already open on H2, the listener only sets up the rest of the application
+        context.addParameter( ServletListener.PERSISTENCE_UNIT_PARAM, H2Database.PU );
+        context.addApplicationListener( ServletListener.class.getName() );
+        context.addServletContainerInitializer( new JasperInitializer(), null );
+        //the taglibs are found on the class path, some jars name missing jars in their manifest
+        ( (StandardJarScanner)context.getJarScanner() ).setScanManifest( false );
+        Tomcat.initWebappDefaults( context );
+        FilterDef filter = new FilterDef();
+        filter.setFilterName( "EntityManagerFilter" );
+        filter.setFilterClass( EntityManagerFilter.class.getName() );
+        filter.setAsyncSupported( "true" );
+        context.addFilterDef( filter );
+        FilterMap filterMap = new FilterMap();
+        filterMap.setFilterName( "EntityManagerFilter" );
+        filterMap.addURLPattern( "/*" );
+        context.addFilterMap( filterMap );
+        Tomcat.addServlet( context, "BloodDonationTableJSP", new BloodDonationTableViewJSP() ).setAsyncSupported(
+                true );
+        context.addServletMappingDecoded( ASYNC_PATH, "BloodDonationTableJSP" );
+        Tomcat.addServlet( context, "BlockingDonationTable", new BlockingTableView() );
+        context.addServletMappingDecoded( BLOCKING_PATH, "BlockingDonationTable" );
+        tomcat.start();
+
+        String root = "http://localhost:" + tomcat.getConnector().getLocalPort();
+        client = HttpClient.newBuilder().version( HttpClient.Version.HTTP_1_1 ).build();
+        async = HttpRequest.newBuilder( URI.create( root + ASYNC_PATH ) ).build();
+        blocking = HttpRequest.newBuilder( URI.create( root + BLOCKING_PATH ) ).build();
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() throws LifecycleException {
+        //closes the EntityManagerFactory through ServletListener
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    /**
+     * each request reads its page on the container thread
+     */
+    @Benchmark
+    public int blocking() {
+        return burst( blocking );
+    }
+
+    /**
+     * each request starts the read on the executor and gives its container thread back until the page is read
+     */
+    @Benchmark
+    public int async() {
+        return burst( async );
+    }
+
+    private int burst( HttpRequest request ) {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>( REQUESTS );
+        for( int i = 0; i < REQUESTS; i++ ) {
+            responses.add( client.sendAsync( request, HttpResponse.BodyHandlers.discarding() ) );
+        }
+        int ok = 0;
+        for( CompletableFuture<HttpResponse<Void>> response: responses ) {
+            int status = response.join().statusCode();
+            if( status != HttpServletResponse.SC_OK ){
+                throw new IllegalStateException( request.uri() + " answered " + status );
+            }
+            ok++;
+        }
+        return ok;
+    }
+}
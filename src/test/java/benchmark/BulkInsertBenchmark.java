@@ -0,0 +1,98 @@
+package benchmark;
+
+import common.EMFactory;
+import common.TomcatStartUp;
+import entity.Person;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import logic.LogicFactory;
+import logic.PersonLogic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * compares inserting rows one transaction at a time with {@link logic.Logic#add} against the batched
+ * {@link logic.Logic#addAll}. results are reported per inserted row.
+ *
+ * needs the same DB as the tests in src/test/java/logic.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 2 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class BulkInsertBenchmark {
+
+    private static final int ROWS = 1000;
+    private static final String MARKER = "BulkInsertBenchmark";
+
+    @Param( { "50" } )
+    private int batchSize;
+
+    private PersonLogic logic;
+    private List<Person> people;
+
+    @Setup( Level.Trial )
+    public void startUp() throws Exception {
+        TomcatStartUp.createTomcat( "/SimpleBloodBank", "common.ServletListener", "simplebloodbank-PU-test" );
+        logic = LogicFactory.getFor( "Person" );
+    }
+
+    @Setup( Level.Invocation )
+    public void createPeople() {
+        //entities can only be persisted once, so every invocation needs new ones
+        people = new ArrayList<>( ROWS );
+        Date birth = new Date();
+        for( int i = 0; i < ROWS; i++ ) {
+            Person person = new Person();
+            person.setFirstName( "Bulk" + i );
+            person.setLastName( MARKER );
+            person.setPhone( "613-555-0000" );
+            person.setAddress( "1385 Woodroffe Ave" );
+            person.setBirth( birth );
+            people.add( person );
+        }
+    }
+
+    @TearDown( Level.Iteration )
+    public void deletePeople() {
+        EntityManager em = EMFactory.getEMF().createEntityManager();
+        em.getTransaction().begin();
+        em.createQuery( "DELETE FROM Person p WHERE p.lastName = :marker" ).setParameter( "marker", MARKER ).executeUpdate();
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    @TearDown( Level.Trial )
+    public void shutDown() throws Exception {
+        TomcatStartUp.stopAndDestroyTomcat();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( ROWS )
+    public void addOneByOne() {
+        people.forEach( logic::add );
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( ROWS )
+    public void addAllBatched() {
+        logic.addAll( people, batchSize );
+    }
+}
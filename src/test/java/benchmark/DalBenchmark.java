@@ -0,0 +1,122 @@
+package benchmark;
+
+import dal.SortOrder;
+import entity.BloodBank;
+import entity.BloodDonation;
+import entity.Person;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import logic.BloodDonationLogic;
+import logic.LogicFactory;
+import logic.PersonLogic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * round trips through logic and DAL to an in process H2 DB, see {@link H2Database}. Person is in the second level cache
+ * and BloodDonation is not, so byId shows both a cache hit and a query. the numbers include hibernate and JDBC but not
+ * the network, compare them between releases, not with MySQL.
+ *
+ * <pre>
+ * mvn -P benchmark test -Dbenchmark.include=DalBenchmark -Dbenchmark.args="-p rows=100000"
+ * </pre>
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = "-Xmx2g" )
+public class DalBenchmark {
+
+    private static final int PAGE = 50;
+    private static final int BANKS = 20;
+
+    /**
+     * people and donations in the DB
+     */
+    @Param( { "10000" } )
+    private int rows;
+
+    private PersonLogic people;
+    private BloodDonationLogic donations;
+    private int firstPerson;
+    private int firstDonation;
+    private Random random;
+
+    @Setup( Level.Trial )
+    public void setUp() {
+        H2Database.start();
+        random = new Random( 8288 );
+        people = LogicFactory.getFor( Person.class );
+        donations = LogicFactory.getFor( BloodDonation.class );
+        firstPerson = H2Database.addPeople( rows, random ).get( 0 ).getId();
+        List<BloodBank> banks = H2Database.addBanks( BANKS, random );
+        firstDonation = H2Database.addDonations( rows, banks, random ).get( 0 ).getId();
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() {
+        H2Database.stop();
+    }
+
+    @Benchmark
+    public Object personById() {
+        return people.getWithId( firstPerson + random.nextInt( rows ) );
+    }
+
+    @Benchmark
+    public Object donationById() {
+        return donations.getWithId( firstDonation + random.nextInt( rows ) );
+    }
+
+    /**
+     * one page of the table view, only the displayed columns
+     */
+    @Benchmark
+    public Object donationRows() {
+        return donations.getRows( firstDonation + random.nextInt( rows - PAGE ), PAGE, SortOrder.ASCENDING );
+    }
+
+    /**
+     * the same page as entities
+     */
+    @Benchmark
+    public Object donationPage() {
+        return donations.getPage( firstDonation + random.nextInt( rows - PAGE ), PAGE, SortOrder.ASCENDING );
+    }
+
+    @Benchmark
+    public Object personSearch() {
+        return people.search( "Last" + random.nextInt( rows ) );
+    }
+
+    /**
+     * one transaction to insert and one to delete, the table keeps its size
+     */
+    @Benchmark
+    public Object addAndDelete() {
+        Person person = new Person();
+        person.setFirstName( "Bench" );
+        person.setLastName( "Mark" );
+        person.setPhone( "613-555-0000" );
+        person.setAddress( "1385 Woodroffe Ave" );
+        person.setBirth( new Date() );
+        people.add( person );
+        people.delete( person );
+        return person;
+    }
+}
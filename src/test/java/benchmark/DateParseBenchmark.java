@@ -0,0 +1,79 @@
+package benchmark;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import logic.LogicFactory;
+import logic.PersonLogic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * cost of {@link PersonLogic#convertStringToDate(String)}, shared by every logic, for the formats the forms send: a date
+ * picker value, a datetime-local value and the format of the tables. every createEntity with a date field calls it.
+ * simpleDateFormat is the SimpleDateFormat code it replaced, with one formatter per thread since the shared ones were
+ * not thread safe. use -t to see how both scale with threads.
+ *
+ * <pre>
+ * mvn -P benchmark test -Dbenchmark.include=DateParseBenchmark -Dbenchmark.args="-t 4"
+ * </pre>
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class DateParseBenchmark {
+
+    @Param( { "2021-04-01", "2021-04-01T10:15:30", "2021-04-01 10:15:30" } )
+    private String text;
+
+    private PersonLogic logic;
+    private Date date;
+    private SimpleDateFormat formatter;
+    private SimpleDateFormat simpleDate;
+
+    @Setup( Level.Trial )
+    public void setUp() {
+        logic = LogicFactory.getFor( "Person" );
+        date = logic.convertStringToDate( text );
+        formatter = new SimpleDateFormat( "yyyy-MM-dd kk:mm:ss" );
+        simpleDate = new SimpleDateFormat( "yyyy-MM-dd" );
+    }
+
+    @Benchmark
+    public Date convertStringToDate() {
+        return logic.convertStringToDate( text );
+    }
+
+    @Benchmark
+    public Date simpleDateFormat() throws ParseException {
+        String value = text;
+        if( value.length() < 11 ){
+            value = formatter.format( simpleDate.parse( value ) );
+        }
+        return formatter.parse( value.replace( "T", " " ) );
+    }
+
+    @Benchmark
+    public String convertDateToString() {
+        return logic.convertDateToString( date );
+    }
+
+    @Benchmark
+    public String simpleDateFormatToString() {
+        return formatter.format( date );
+    }
+}
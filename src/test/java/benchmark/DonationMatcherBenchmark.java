@@ -0,0 +1,110 @@
+package benchmark;
+
+import entity.BloodDonation;
+import entity.BloodGroup;
+import entity.RhesusFactor;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import logic.BloodType;
+import logic.DonationMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * latency of finding compatible donations with {@link DonationMatcher} against filtering and sorting a list of
+ * {@link BloodDonation} entities, which is what the logic would do with the result of findAll. donations are spread
+ * over 20 banks and the last 60 days, so about a third of them have expired. no DB is needed.
+ *
+ * <pre>
+ * mvn -P benchmark test -Dbenchmark.include=DonationMatcherBenchmark -Dbenchmark.args="-p donations=1000000"
+ * </pre>
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-Xmx4g" )
+public class DonationMatcherBenchmark {
+
+    private static final int BANKS = 20;
+    private static final long DAY = TimeUnit.DAYS.toMillis( 1 );
+    private static final long SHELF_LIFE = 42 * DAY;
+
+    @Param( { "100000", "1000000" } )
+    private int donations;
+
+    /**
+     * units asked for each recipient
+     */
+    @Param( { "4" } )
+    private int units;
+
+    private DonationMatcher matcher;
+    private List<BloodDonation> entities;
+    private int[] recipients;
+    private long now;
+
+    @Setup( Level.Trial )
+    public void setUp() {
+        Random random = new Random( 8288 );
+        now = System.currentTimeMillis();
+        matcher = new DonationMatcher();
+        entities = new ArrayList<>( donations );
+        List<long[]> rows = new ArrayList<>( donations );
+        for( int id = 1; id <= donations; id++ ) {
+            int type = random.nextInt( BloodType.COUNT );
+            long created = now - (long)( random.nextDouble() * 60 * DAY );
+            int bank = 1 + random.nextInt( BANKS );
+            rows.add( new long[]{ id, bank, type, created + SHELF_LIFE } );
+            BloodDonation donation = new BloodDonation( id, 450, BloodType.group( type ), BloodType.rhesus( type ),
+                    new Date( created ) );
+            entities.add( donation );
+        }
+        matcher.load( rows );
+        recipients = new int[ 100 ];
+        for( int i = 0; i < recipients.length; i++ ) {
+            recipients[ i ] = random.nextInt( BloodType.COUNT );
+        }
+    }
+
+    @Benchmark
+    public int[] matchONegative() {
+        return matcher.match( 0, units, now );
+    }
+
+    @Benchmark
+    public int[] matchABPositive() {
+        return matcher.match( BloodType.COUNT - 1, units, now );
+    }
+
+    @Benchmark
+    public int[][] matchAll100Recipients() {
+        return matcher.matchAll( recipients, units, now );
+    }
+
+    @Benchmark
+    public List<BloodDonation> scanEntitiesONegative() {
+        return entities.stream()
+                .filter( d -> d.getBloodGroup() == BloodGroup.O && d.getRhd() == RhesusFactor.Negative )
+                .filter( d -> d.getCreated().getTime() + SHELF_LIFE > now )
+                .sorted( Comparator.comparing( BloodDonation::getCreated ) )
+                .limit( units )
+                .collect( Collectors.toList() );
+    }
+}
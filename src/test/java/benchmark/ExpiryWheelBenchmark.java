@@ -0,0 +1,77 @@
+package benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import logic.ExpiryWheel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * cost of {@link ExpiryWheel} with millions of donations spread over a 42 day shelf life and one minute ticks.
+ * schedule and cancel should not depend on the number of ids. advance moves one tick and schedules the ids that fired
+ * again 42 days later, so the wheel stays the same size, like a bank receiving as much blood as expires.
+ *
+ * <pre>
+ * mvn -P benchmark test -Dbenchmark.include=ExpiryWheelBenchmark -Dbenchmark.args="-p units=2000000"
+ * </pre>
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-Xmx4g" )
+public class ExpiryWheelBenchmark {
+
+    private static final long TICK = TimeUnit.MINUTES.toMillis( 1 );
+    private static final long SHELF_LIFE = TimeUnit.DAYS.toMillis( 42 );
+
+    @Param( { "100000", "2000000" } )
+    private int units;
+
+    private ExpiryWheel wheel;
+    private Random random;
+    private long now;
+    private int nextId;
+
+    private final ExpiryWheel.Handler again = ( id, deadline, tag ) -> wheel.schedule( id, deadline + SHELF_LIFE, tag );
+
+    @Setup( Level.Trial )
+    public void setUp() {
+        random = new Random( 8288 );
+        now = 0;
+        wheel = new ExpiryWheel( TICK, now );
+        for( int id = 0; id < units; id++ ) {
+            wheel.schedule( id, (long)( random.nextDouble() * SHELF_LIFE ), 0 );
+        }
+        nextId = units;
+    }
+
+    @Benchmark
+    public boolean scheduleAndCancel() {
+        int id = nextId++;
+        wheel.schedule( id, now + (long)( random.nextDouble() * SHELF_LIFE ), 0 );
+        return wheel.cancel( id );
+    }
+
+    @Benchmark
+    public void reschedule() {
+        wheel.schedule( random.nextInt( units ), now + (long)( random.nextDouble() * SHELF_LIFE ), 0 );
+    }
+
+    @Benchmark
+    public int advanceOneTick() {
+        now += TICK;
+        return wheel.advance( now, again );
+    }
+}
@@ -0,0 +1,110 @@
+package benchmark;
+
+import common.EMFactory;
+import entity.BloodBank;
+import entity.BloodDonation;
+import entity.BloodGroup;
+import entity.Person;
+import entity.RhesusFactor;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import logic.BloodBankLogic;
+import logic.BloodDonationLogic;
+import logic.LogicFactory;
+import logic.PersonLogic;
+
+/**
+ * in process H2 DB for the benchmarks that read or write through the DAL, see the simplebloodbank-PU-h2 persistence
+ * unit in src/test/resources. rows are made from a fixed seed so every run reads the same data.
+ */
+final class H2Database {
+
+    static final String PU = "simplebloodbank-PU-h2";
+
+    private static final int BATCH_SIZE = 50;
+    private static final long DAY = TimeUnit.DAYS.toMillis( 1 );
+    private static final long START = 1_600_000_000_000L;
+
+    private H2Database() {
+    }
+
+    /**
+     * create the EntityManagerFactory on an empty H2 DB. call it once per fork, before anything uses a logic.
+     */
+    static void start() {
+        EMFactory.setPUName( PU );
+        EMFactory.initializeEMF();
+    }
+
+    static void stop() {
+        EMFactory.closeEMF();
+    }
+
+    /**
+     * @param count - number of people to insert
+     * @param random - source of the values
+     * @return the people, ids set
+     */
+    static List<Person> addPeople( int count, Random random ) {
+        List<Person> people = new ArrayList<>( count );
+        for( int i = 0; i < count; i++ ) {
+            Person person = new Person();
+            person.setFirstName( "First" + random.nextInt( count ) );
+            person.setLastName( "Last" + i );
+            person.setPhone( String.format( "613-555-%04d", random.nextInt( 10_000 ) ) );
+            person.setAddress( i + " Woodroffe Ave" );
+            person.setBirth( new Date( START - random.nextInt( 30_000 ) * DAY ) );
+            people.add( person );
+        }
+        PersonLogic logic = LogicFactory.getFor( Person.class );
+        logic.addAll( people, BATCH_SIZE );
+        return people;
+    }
+
+    /**
+     * @param count - number of banks to insert, names are unique
+     * @param random - source of the values
+     * @return the banks, ids set
+     */
+    static List<BloodBank> addBanks( int count, Random random ) {
+        List<BloodBank> banks = new ArrayList<>( count );
+        for( int i = 0; i < count; i++ ) {
+            BloodBank bank = new BloodBank();
+            bank.setName( "Bank " + i );
+            bank.setEmployeeCount( random.nextInt( 500 ) );
+            bank.setEstablished( new Date( START - random.nextInt( 20_000 ) * DAY ) );
+            bank.setPrivatelyOwned( random.nextBoolean() );
+            banks.add( bank );
+        }
+        BloodBankLogic logic = LogicFactory.getFor( BloodBank.class );
+        logic.addAll( banks, BATCH_SIZE );
+        return banks;
+    }
+
+    /**
+     * @param count - number of donations to insert
+     * @param banks - banks the donations are spread over
+     * @param random - source of the values
+     * @return the donations, ids set
+     */
+    static List<BloodDonation> addDonations( int count, List<BloodBank> banks, Random random ) {
+        List<BloodDonation> donations = new ArrayList<>( count );
+        BloodGroup[] groups = BloodGroup.values();
+        RhesusFactor[] factors = RhesusFactor.values();
+        for( int i = 0; i < count; i++ ) {
+            BloodDonation donation = new BloodDonation();
+            donation.setBloodBank( banks.get( random.nextInt( banks.size() ) ) );
+            donation.setBloodGroup( groups[ random.nextInt( groups.length ) ] );
+            donation.setRhd( factors[ random.nextInt( factors.length ) ] );
+            donation.setMilliliters( 450 );
+            donation.setCreated( new Date( START - random.nextInt( 60 ) * DAY ) );
+            donations.add( donation );
+        }
+        BloodDonationLogic logic = LogicFactory.getFor( BloodDonation.class );
+        logic.addAll( donations, BATCH_SIZE );
+        return donations;
+    }
+}
@@ -0,0 +1,113 @@
+package benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import logic.AccountLogic;
+import logic.BloodBankLogic;
+import logic.BloodDonationLogic;
+import logic.DonationRecordLogic;
+import logic.Logic;
+import logic.LogicFactory;
+import logic.PersonLogic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * cost of turning a submitted form into an entity with createEntity and an entity into a table row with
+ * extractDataAsList, for each logic. these run once per row of every form and table, no DB is needed.
+ *
+ * <pre>
+ * mvn -P benchmark test -Dbenchmark.include=LogicBenchmark -Dbenchmark.args="-p entityName=Person"
+ * </pre>
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class LogicBenchmark {
+
+    @Param( { "Account", "BloodBank", "BloodDonation", "DonationRecord", "Person" } )
+    private String entityName;
+
+    private Logic<Object> logic;
+    private Map<String, String[]> form;
+    private Object entity;
+
+    @Setup( Level.Trial )
+    public void setUp() {
+        logic = LogicFactory.getFor( entityName );
+        form = formOf( entityName );
+        entity = logic.createEntity( form );
+    }
+
+    @Benchmark
+    public Object createEntity() {
+        return logic.createEntity( form );
+    }
+
+    @Benchmark
+    public Object extractDataAsList() {
+        return logic.extractDataAsList( entity );
+    }
+
+    /**
+     * parameters as the create forms send them
+     */
+    static Map<String, String[]> formOf( String entityName ) {
+        Map<String, String[]> form = new HashMap<>();
+        switch( entityName ) {
+            case "Account":
+                form.put( AccountLogic.ID, new String[]{ "7" } );
+                form.put( AccountLogic.NAME, new String[]{ "Shawn Emami" } );
+                form.put( AccountLogic.NICKNAME, new String[]{ "shawn" } );
+                form.put( AccountLogic.USERNAME, new String[]{ "cst8288" } );
+                form.put( AccountLogic.PASSWORD, new String[]{ "8288" } );
+                break;
+            case "BloodBank":
+                form.put( BloodBankLogic.ID, new String[]{ "7" } );
+                form.put( BloodBankLogic.NAME, new String[]{ "Ottawa General" } );
+                form.put( BloodBankLogic.EMPLOYEE_COUNT, new String[]{ "120" } );
+                form.put( BloodBankLogic.ESTABLISHED, new String[]{ "1998-05-14 09:30:00" } );
+                form.put( BloodBankLogic.PRIVATELY_OWNED, new String[]{ "true" } );
+                break;
+            case "BloodDonation":
+                form.put( BloodDonationLogic.ID, new String[]{ "7" } );
+                form.put( BloodDonationLogic.BLOOD_GROUP, new String[]{ "AB" } );
+                form.put( BloodDonationLogic.RHESUS_FACTOR, new String[]{ "+" } );
+                form.put( BloodDonationLogic.MILLILITERS, new String[]{ "450" } );
+                form.put( BloodDonationLogic.CREATED, new String[]{ "2021-04-01T10:15:30" } );
+                break;
+            case "DonationRecord":
+                form.put( DonationRecordLogic.ID, new String[]{ "7" } );
+                form.put( DonationRecordLogic.TESTED, new String[]{ "true" } );
+                form.put( DonationRecordLogic.ADMINISTRATOR, new String[]{ "Dr. Smith" } );
+                form.put( DonationRecordLogic.HOSPITAL, new String[]{ "Queensway Carleton" } );
+                form.put( DonationRecordLogic.CREATED, new String[]{ "2021-04-01T10:15:30" } );
+                break;
+            case "Person":
+                form.put( PersonLogic.ID, new String[]{ "7" } );
+                form.put( PersonLogic.FIRST_NAME, new String[]{ "Jane" } );
+                form.put( PersonLogic.LAST_NAME, new String[]{ "Doe" } );
+                form.put( PersonLogic.PHONE, new String[]{ "613-555-0100" } );
+                form.put( PersonLogic.ADDRESS, new String[]{ "1385 Woodroffe Ave" } );
+                form.put( PersonLogic.BIRTH, new String[]{ "1990-06-21" } );
+                break;
+            default:
+                throw new IllegalArgumentException( "No form for entity: " + entityName );
+        }
+        return form;
+    }
+}
@@ -0,0 +1,56 @@
+package benchmark;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.TimeUnit;
+import logic.LogicFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * compares the {@link LogicFactory} registry with the reflective lookup it replaced, which resolved the class by name
+ * and created a new logic on every call. no DB is needed as creating a logic does not touch the EntityManager.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class LogicFactoryBenchmark {
+
+    @Param( { "Person", "DonationRecord" } )
+    private String entityName;
+
+    @Benchmark
+    public Object registry() {
+        return LogicFactory.getFor( entityName );
+    }
+
+    @Benchmark
+    public Object reflective() throws ReflectiveOperationException {
+        return reflectiveGetFor( entityName );
+    }
+
+    /**
+     * the lookup LogicFactory used to do
+     */
+    private static Object reflectiveGetFor( String entityName ) throws ReflectiveOperationException {
+        Class<?> type = Class.forName( "logic." + entityName + "Logic" );
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible( true );
+            return constructor.newInstance();
+        } catch( InvocationTargetException ex ) {
+            throw new IllegalStateException( ex.getCause() );
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import logic.NGramIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * search latency of {@link NGramIndex} against a scan of every row, which is what a LIKE '%text%' query does. rows look
+ * like the person table, first name, last name and a phone number, made from a fixed seed so every run searches the
+ * same data. no DB is needed.
+ *
+ * <pre>
+ * mvn -P benchmark test -Dbenchmark.include=NGramSearchBenchmark -Dbenchmark.args="-p rows=1000000"
+ * </pre>
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-Xmx4g" )
+public class NGramSearchBenchmark {
+
+    private static final String[] SYLLABLES = { "an", "be", "ca", "da", "el", "fa", "go", "ha", "is", "jo", "ka", "li",
+        "ma", "no", "or", "pa", "qu", "ra", "si", "ta", "ul", "va", "we", "xe", "yo", "zu" };
+
+    @Param( { "100000", "1000000" } )
+    private int rows;
+
+    /**
+     * text searched for, a last name shared by a few rows or part of one phone number
+     */
+    @Param( { "quzuxe", "5550123" } )
+    private String search;
+
+    private NGramIndex index;
+    private String[] values;
+
+    @Setup( Level.Trial )
+    public void setUp() {
+        Random random = new Random( 8288 );
+        index = new NGramIndex();
+        values = new String[ rows ];
+        for( int id = 1; id <= rows; id++ ) {
+            String first = name( random, 2 );
+            String last = name( random, 3 );
+            String phone = String.format( "613%07d", random.nextInt( 10_000_000 ) );
+            index.put( id, first, last, phone );
+            values[ id - 1 ] = ( first + '\u0000' + last + '\u0000' + phone ).toLowerCase();
+        }
+    }
+
+    private static String name( Random random, int syllables ) {
+        StringBuilder name = new StringBuilder();
+        for( int i = 0; i < syllables; i++ ) {
+            name.append( SYLLABLES[ random.nextInt( SYLLABLES.length ) ] );
+        }
+        return name.toString();
+    }
+
+    @Benchmark
+    public int[] index() {
+        return index.search( search );
+    }
+
+    @Benchmark
+    public int scan() {
+        int found = 0;
+        for( String value: values ) {
+            if( value.contains( search ) ){
+                found++;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,76 @@
+package benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import logic.PrefixTrie;
+import logic.Suggestion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * typeahead latency of {@link PrefixTrie} with rows shaped like the person list, "first last" and a phone number.
+ * short prefixes match most of the rows, long ones only a few. lookups run on 4 threads as several users type at once.
+ *
+ * <pre>
+ * mvn -P benchmark test -Dbenchmark.include=PrefixTrieBenchmark -Dbenchmark.args="-p rows=1000000"
+ * </pre>
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-Xmx4g" )
+@Threads( 4 )
+public class PrefixTrieBenchmark {
+
+    private static final String[] SYLLABLES = { "an", "be", "ca", "da", "el", "fa", "go", "ha", "is", "jo", "ka", "li",
+        "ma", "no", "or", "pa", "qu", "ra", "si", "ta", "ul", "va", "we", "xe", "yo", "zu" };
+
+    @Param( { "100000", "1000000" } )
+    private int rows;
+
+    @Param( { "m", "mali", "malino", "613555" } )
+    private String prefix;
+
+    @Param( { "10" } )
+    private int limit;
+
+    private PrefixTrie trie;
+
+    @Setup( Level.Trial )
+    public void setUp() {
+        Random random = new Random( 8288 );
+        trie = new PrefixTrie();
+        for( int id = 1; id <= rows; id++ ) {
+            String name = name( random, 2 ) + " " + name( random, 3 );
+            String phone = String.format( "613%07d", random.nextInt( 10_000_000 ) );
+            trie.put( id, name, name, phone );
+        }
+    }
+
+    private static String name( Random random, int syllables ) {
+        StringBuilder name = new StringBuilder();
+        for( int i = 0; i < syllables; i++ ) {
+            name.append( SYLLABLES[ random.nextInt( SYLLABLES.length ) ] );
+        }
+        return name.toString();
+    }
+
+    @Benchmark
+    public List<Suggestion> suggest() {
+        return trie.suggest( prefix, limit );
+    }
+}
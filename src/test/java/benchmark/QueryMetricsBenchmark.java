@@ -0,0 +1,46 @@
+package benchmark;
+
+import dal.QueryMetrics;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * cost that {@link QueryMetrics} adds to every DAL call: the nanoTime of the start and the record, compared with
+ * the nanoTime alone. run it with more threads, -t 8, to see that threads recording the same query do not wait on each
+ * other.
+ *
+ * <pre>
+ * mvn -P benchmark test -Dbenchmark.include=QueryMetricsBenchmark -Dbenchmark.args="-t 8"
+ * </pre>
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1 )
+public class QueryMetricsBenchmark {
+
+    private static final String[] QUERIES = { "Person.findById", "Person.findByFirstName", "BloodDonation.findById",
+        "BloodBank.findByName", "Account.findByUsername", "transaction.begin", "transaction.commit", "Person.save" };
+
+    @Benchmark
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Benchmark
+    public void record() {
+        String query = QUERIES[ ThreadLocalRandom.current().nextInt( QUERIES.length ) ];
+        QueryMetrics.record( query, System.nanoTime(), null, false );
+    }
+}
@@ -0,0 +1,91 @@
+package benchmark;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import view.BloodBankTableView;
+
+/**
+ * time to render the whole BloodBank table with {@link BloodBankTableView}, reading every bank from an in process H2
+ * DB (see {@link H2Database}) and printing the HTML to a writer that drops it. no container is started, the request and
+ * response are stubs.
+ *
+ * <pre>
+ * mvn -P benchmark test -Dbenchmark.include=TableViewBenchmark -Dbenchmark.args="-p banks=10000"
+ * </pre>
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = "-Xmx2g" )
+public class TableViewBenchmark {
+
+    @Param( { "100", "1000" } )
+    private int banks;
+
+    private View view;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+
+    /**
+     * processRequest is protected
+     */
+    private static class View extends BloodBankTableView {
+
+        void render( HttpServletRequest request, HttpServletResponse response ) throws Exception {
+            processRequest( request, response );
+        }
+    }
+
+    @Setup( Level.Trial )
+    public void setUp() throws ServletException {
+        H2Database.start();
+        H2Database.addBanks( banks, new Random( 8288 ) );
+        view = new View();
+        request = (HttpServletRequest)Proxy.newProxyInstance( getClass().getClassLoader(),
+                new Class<?>[]{ HttpServletRequest.class }, ( proxy, method, args ) -> {
+                    if( "getParameterMap".equals( method.getName() ) ){
+                        return Collections.emptyMap();
+                    }
+                    return null;
+                } );
+        response = (HttpServletResponse)Proxy.newProxyInstance( getClass().getClassLoader(),
+                new Class<?>[]{ HttpServletResponse.class }, ( proxy, method, args ) -> {
+                    if( "getWriter".equals( method.getName() ) ){
+                        return new PrintWriter( Writer.nullWriter() );
+                    }
+                    return null;
+                } );
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() {
+        H2Database.stop();
+    }
+
+    @Benchmark
+    public void processRequest() throws Exception {
+        view.render( request, response );
+    }
+}
@@ -0,0 +1,102 @@
+package benchmark;
+
+import entity.BloodBank;
+import entity.BloodDonation;
+import entity.Person;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import logic.BloodDonationLogic;
+import logic.LogicFactory;
+import logic.PersonLogic;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * latency of queries through the DAL with the SQL, bind parameter and DAL parameter logging of log4j2.xml off and on.
+ * the loggers of log4j2-benchmark.xml have the same async queue and burst filters as log4j2.xml and write to
+ * target/benchmark-trace.log. run it with more threads, -t 8, to see the cost under load.
+ *
+ * <pre>
+ * mvn -P benchmark test -Dbenchmark.include=TracingBenchmark -Dbenchmark.args="-t 8"
+ * </pre>
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = "-Xmx2g" )
+public class TracingBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final int BANKS = 20;
+
+    /**
+     * loggers and their level when tracing is on, log4j2.xml has them on
+     */
+    private static final String[][] LOGGERS = {
+        { "org.hibernate.SQL", "DEBUG" },
+        { "org.hibernate.type.descriptor.sql", "TRACE" },
+        { "dal", "TRACE" } };
+
+    @Param( { "off", "on" } )
+    private String tracing;
+
+    private PersonLogic people;
+    private BloodDonationLogic donations;
+    private int firstDonation;
+
+    @Setup( Level.Trial )
+    public void setUp() {
+        H2Database.start();
+        Random random = new Random( 8288 );
+        people = LogicFactory.getFor( Person.class );
+        donations = LogicFactory.getFor( BloodDonation.class );
+        H2Database.addPeople( ROWS, random );
+        List<BloodBank> banks = H2Database.addBanks( BANKS, random );
+        firstDonation = H2Database.addDonations( ROWS, banks, random ).get( 0 ).getId();
+        boolean on = "on".equals( tracing );
+        Map<String, org.apache.logging.log4j.Level> levels = new HashMap<>();
+        for( String[] logger: LOGGERS ) {
+            levels.put( logger[ 0 ], org.apache.logging.log4j.Level.toLevel( on ? logger[ 1 ] : "WARN" ) );
+        }
+        Configurator.setLevel( levels );
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() {
+        H2Database.stop();
+    }
+
+    /**
+     * named query with one parameter, BloodDonation is not in the second level cache
+     */
+    @Benchmark
+    public Object donationById() {
+        return donations.getWithId( firstDonation + ThreadLocalRandom.current().nextInt( ROWS ) );
+    }
+
+    /**
+     * search query with its LIKE parameters
+     */
+    @Benchmark
+    public Object personSearch() {
+        return people.search( "Last" + ThreadLocalRandom.current().nextInt( ROWS ) );
+    }
+}
@@ -1,6 +1,7 @@
 package common;
 
 import java.io.File;
+import java.nio.file.Paths;
 import org.apache.catalina.Context;
 import org.apache.catalina.LifecycleException;
 import org.apache.catalina.startup.Tomcat;
@@ -60,7 +61,7 @@ public class EmbededTomcatBuilder {
         EmbededTomcatBuilder tomcat = new EmbededTomcatBuilder();
         return tomcat.enableNaming()
                 .setPort(8080)
-                .addWebApp( context, "src\\main\\webapp")
+                .addWebApp( context, Paths.get( "src", "main", "webapp" ).toString() )
                 .setEntityManagerFactoryListener(contextListenerPath)
                 .init()
                 .build();
@@ -9,10 +9,15 @@ import org.apache.catalina.startup.Tomcat;
  */
 public class TomcatStartUp {
 
+    /**
+     * system property naming a persistence unit to use instead of the one asked by the test, set by the h2 profile
+     */
+    public static final String PU_PROPERTY = "test.persistenceUnit";
+
     private static Tomcat tomcat;
 
     public static void createTomcat( String context, String contextListenerPath, String puName ) throws Exception {
-        EMFactory.setPUName( puName );
+        EMFactory.setPUName( System.getProperty( PU_PROPERTY, puName ) );
         if( tomcat == null ){
             tomcat = EmbededTomcatBuilder.defaultNetbeansBuild( context, contextListenerPath );
         }
@@ -0,0 +1,101 @@
+package dal;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.sql.SQLException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.apache.tomcat.jdbc.pool.DataSource;
+import org.apache.tomcat.jdbc.pool.PoolProperties;
+import org.junit.jupiter.api.Test;
+
+class PoolMetricsTest {
+
+    @Test
+    final void testAdvise() {
+        assertNull( PoolMetrics.advise( 0, 0 ) );
+        PoolMetrics.Advice advice = PoolMetrics.advise( 8, 2.3 );
+        assertEquals( 3, advice.getMinIdle() );
+        assertEquals( 8, advice.getMaxIdle() );
+        assertEquals( 12, advice.getMaxActive() );
+        advice = PoolMetrics.advise( 1, 0.01 );
+        assertEquals( "minIdle=1, maxIdle=1, maxActive=2", advice.toString() );
+    }
+
+    /**
+     * the gauges of a tomcat pool on H2 opened with initialSize connections, as context.xml configures it
+     */
+    @Test
+    final void testPoolGauges() throws SQLException {
+        PoolProperties properties = new PoolProperties();
+        properties.setUrl( "jdbc:h2:mem:pool" );
+        properties.setDriverClassName( "org.h2.Driver" );
+        properties.setInitialSize( 3 );
+        properties.setMinIdle( 3 );
+        properties.setMaxIdle( 4 );
+        properties.setMaxActive( 4 );
+        DataSource pool = new DataSource( properties );
+        PoolMetrics.register( pool );
+        try {
+            pool.getConnection().close();
+            StringWriter text = new StringWriter();
+            PoolMetrics.writePrometheus( new PrintWriter( text ) );
+            String metrics = text.toString();
+            assertTrue( metrics.contains( "\ndb_pool_idle 3.0\n" ), metrics );
+            assertTrue( metrics.contains( "\ndb_pool_active 0.0\n" ), metrics );
+            assertTrue( metrics.contains( "\ndb_pool_min_idle 3.0\n" ), metrics );
+            assertTrue( metrics.contains( "\ndb_pool_max_active 4.0\n" ), metrics );
+        } finally {
+            PoolMetrics.register( null );
+            pool.close();
+        }
+    }
+
+    @Test
+    final void testCheckouts() {
+        int peak = PoolMetrics.peakInUse();
+        long start = System.nanoTime();
+        PoolMetrics.checkedOut( start );
+        PoolMetrics.checkedOut( start );
+        PoolMetrics.checkedOut( start );
+        PoolMetrics.checkedIn();
+        PoolMetrics.checkedIn();
+        PoolMetrics.checkedIn();
+        PoolMetrics.checkoutFailed( start );
+        assertTrue( PoolMetrics.peakInUse() >= Math.max( 3, peak ) );
+        assertTrue( PoolMetrics.averageInUse() >= 0 );
+        StringWriter text = new StringWriter();
+        PoolMetrics.writePrometheus( new PrintWriter( text ) );
+        String metrics = text.toString();
+        assertTrue( metrics.contains( "# TYPE db_pool_wait_seconds histogram\n" ), metrics );
+        assertTrue( metrics.contains( "\ndb_pool_checkout_failures_total 1\n" ), metrics );
+        assertTrue( metrics.contains( "\ndb_pool_advised_max_active " ), metrics );
+    }
+
+    /**
+     * only requests that took a connection are counted, also when it was taken on another thread
+     */
+    @Test
+    final void testRequests() throws InterruptedException {
+        long requests = PoolMetrics.requests();
+        PoolMetrics.RequestUsage idle = PoolMetrics.requestStarted();
+        PoolMetrics.setCurrentRequest( null );
+        PoolMetrics.requestDone( idle );
+        assertEquals( requests, PoolMetrics.requests() );
+
+        PoolMetrics.RequestUsage async = PoolMetrics.requestStarted();
+        PoolMetrics.setCurrentRequest( null );
+        Thread executor = new Thread( () -> {
+            PoolMetrics.setCurrentRequest( async );
+            PoolMetrics.checkedOut( System.nanoTime() );
+            PoolMetrics.checkedIn();
+            PoolMetrics.setCurrentRequest( null );
+        } );
+        executor.start();
+        executor.join();
+        PoolMetrics.requestDone( async );
+        assertEquals( requests + 1, PoolMetrics.requests() );
+        assertNull( PoolMetrics.currentRequest() );
+    }
+}
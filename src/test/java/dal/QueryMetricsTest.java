@@ -0,0 +1,46 @@
+package dal;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class QueryMetricsTest {
+
+    @Test
+    final void testBuckets() {
+        assertEquals( 0, LatencyHistogram.bucket( 0 ) );
+        assertEquals( 0, LatencyHistogram.bucket( 1024 ) );
+        assertEquals( 1, LatencyHistogram.bucket( 1025 ) );
+        assertEquals( 1, LatencyHistogram.bucket( 2048 ) );
+        assertEquals( 2, LatencyHistogram.bucket( 2049 ) );
+        assertEquals( 10, LatencyHistogram.bucket( 1L << 20 ) );
+        assertEquals( LatencyHistogram.BUCKETS - 2, LatencyHistogram.bucket( 1L << 34 ) );
+        assertEquals( LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucket( ( 1L << 34 ) + 1 ) );
+        assertEquals( LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucket( Long.MAX_VALUE ) );
+    }
+
+    /**
+     * buckets are cumulative, the count is the +Inf bucket and errors have their own counter
+     */
+    @Test
+    final void testPrometheus() {
+        long now = System.nanoTime();
+        QueryMetrics.record( "Test.fast", now, null, false );
+        QueryMetrics.record( "Test.fast", now, null, true );
+        QueryMetrics.record( "Test.slow", now - TimeUnit.SECONDS.toNanos( 60 ), null, false );
+        StringWriter text = new StringWriter();
+        QueryMetrics.writePrometheus( new PrintWriter( text ) );
+        String metrics = text.toString();
+        assertTrue( metrics.contains( "# TYPE dal_operation_seconds histogram\n" ), metrics );
+        assertTrue( metrics.contains( "dal_operation_seconds_bucket{operation=\"Test.fast\",le=\"+Inf\"} 2\n" ) );
+        assertTrue( metrics.contains( "dal_operation_seconds_count{operation=\"Test.fast\"} 2\n" ) );
+        assertTrue( metrics.contains( "dal_operation_errors_total{operation=\"Test.fast\"} 1\n" ) );
+        assertTrue( metrics.contains( "dal_operation_seconds_bucket{operation=\"Test.slow\",le=\"17.179869184\"} 0\n" ) );
+        assertTrue( metrics.contains( "dal_operation_seconds_bucket{operation=\"Test.slow\",le=\"+Inf\"} 1\n" ) );
+        assertTrue( metrics.contains( "dal_operation_errors_total{operation=\"Test.slow\"} 0\n" ) );
+        assertTrue( metrics.indexOf( "operation=\"Test.fast\"" ) < metrics.indexOf( "operation=\"Test.slow\"" ) );
+    }
+}
@@ -296,6 +296,8 @@ class AccountLogicTest {
         fillMap.accept( sampleMap );
         sampleMap.replace( AccountLogic.NICKNAME, new String[]{ "" } );
         assertThrows( ValidationException.class, () -> logic.createEntity( sampleMap ) );
+        sampleMap.replace( AccountLogic.NICKNAME, new String[]{ "   " } );
+        assertThrows( ValidationException.class, () -> logic.createEntity( sampleMap ) );
         sampleMap.replace( AccountLogic.NICKNAME, new String[]{ generateString.apply( 46 ) } );
         assertThrows( ValidationException.class, () -> logic.createEntity( sampleMap ) );
 
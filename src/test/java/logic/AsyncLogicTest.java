@@ -0,0 +1,102 @@
+package logic;
+
+import dal.EntityManagerContext;
+import dal.SortOrder;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link AsyncLogic} over a stub {@link Logic}, no DB is needed.
+ */
+class AsyncLogicTest {
+
+    private static final long TIMEOUT = 5;
+
+    private BoundedExecutor executor;
+    private CountDownLatch gate;
+    private volatile String caller;
+
+    @BeforeEach
+    final void setUp() throws Exception {
+        executor = BoundedExecutor.platform( 2, 1 );
+        gate = new CountDownLatch( 0 );
+    }
+
+    @AfterEach
+    final void tearDown() throws Exception {
+        gate.countDown();
+        assertTrue( executor.shutdown( TimeUnit.SECONDS.toMillis( TIMEOUT ) ) );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private Logic<String> stub() {
+        return (Logic<String>)Proxy.newProxyInstance( Logic.class.getClassLoader(), new Class<?>[]{ Logic.class },
+                ( proxy, method, args ) -> {
+                    caller = Thread.currentThread().getName();
+                    gate.await();
+                    switch( method.getName() ) {
+                        case "getWithId":
+                            return "entity" + args[ 0 ];
+                        case "getRows":
+                            return Collections.singletonList( Arrays.asList( args[ 0 ], args[ 1 ], args[ 2 ] ) );
+                        case "search":
+                            throw new IllegalArgumentException( (String)args[ 0 ] );
+                        default:
+                            return null;
+                    }
+                } );
+    }
+
+    @Test
+    final void testRunsOnExecutor() throws Exception {
+        AsyncLogic<String> async = new AsyncLogic<>( stub(), executor );
+        assertEquals( "entity7", async.getWithIdAsync( 7 ).get( TIMEOUT, TimeUnit.SECONDS ) );
+        assertNotEquals( Thread.currentThread().getName(), caller );
+        assertTrue( caller.startsWith( "logic-async-" ) );
+        assertEquals( Collections.singletonList( Arrays.asList( 3, 10, SortOrder.DESCENDING ) ),
+                async.getRowsAsync( 3, 10, SortOrder.DESCENDING ).get( TIMEOUT, TimeUnit.SECONDS ) );
+        assertFalse( EntityManagerContext.isActive() );
+    }
+
+    @Test
+    final void testFailurePassedOn() throws Exception {
+        AsyncLogic<String> async = new AsyncLogic<>( stub(), executor );
+        ExecutionException ex = assertThrows( ExecutionException.class,
+                () -> async.searchAsync( "bad" ).get( TIMEOUT, TimeUnit.SECONDS ) );
+        assertTrue( ex.getCause() instanceof IllegalArgumentException );
+    }
+
+    @Test
+    final void testRejectsWhenFull() throws Exception {
+        gate = new CountDownLatch( 1 );
+        AsyncLogic<String> async = new AsyncLogic<>( stub(), executor );
+        //2 threads and 1 queued
+        List<CompletableFuture<String>> held = Arrays.asList( async.getWithIdAsync( 1 ), async.getWithIdAsync( 2 ),
+                async.getWithIdAsync( 3 ) );
+        CompletableFuture<String> rejected = async.getWithIdAsync( 4 );
+        assertTrue( rejected.isCompletedExceptionally() );
+        ExecutionException ex = assertThrows( ExecutionException.class, rejected::get );
+        assertTrue( ex.getCause() instanceof RejectedExecutionException );
+        assertEquals( 3, executor.pending() );
+
+        gate.countDown();
+        for( int i = 0; i < held.size(); i++ ) {
+            assertEquals( "entity" + ( i + 1 ), held.get( i ).get( TIMEOUT, TimeUnit.SECONDS ) );
+        }
+    }
+}
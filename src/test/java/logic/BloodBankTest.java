@@ -408,7 +408,7 @@ public class BloodBankTest {
         fillMap.accept( sampleMap );
         sampleMap.replace( BloodBankLogic.NAME, new String[]{ "" } );
         assertThrows( common.ValidationException.class, () -> logic.createEntity( sampleMap ) );
-        sampleMap.replace( BloodBankLogic.NAME, new String[]{ generateString.apply( 46 ) } );
+        sampleMap.replace( BloodBankLogic.NAME, new String[]{ generateString.apply( 101 ) } );
         assertThrows( common.ValidationException.class, () -> logic.createEntity( sampleMap ) );
         
         // Test EMPLOYEE_COUNT with bad string lengths
@@ -13,12 +13,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import javax.persistence.EntityManager;
 import javax.validation.ValidationException;
 import org.hibernate.Hibernate;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -391,4 +393,65 @@ class BloodDonationTest {
         assertEquals( expectedEntity.getRhd(), list.get( 4 ) );
         assertEquals( expectedEntity.getCreated(), list.get( 5 ) );
     }
-}
\ No newline at end of file
+
+    @Test
+    final void testUpdateKeepsExpired() {
+        //the form was read before the expiry tracker marked the donation
+        BloodDonation stale = logic.getWithId( expectedEntity.getId() );
+        EntityManager em = EMFactory.getEMF().createEntityManager();
+        em.getTransaction().begin();
+        em.createNamedQuery( "BloodDonation.markExpired" ).setParameter( "ids", Arrays.asList( expectedEntity.getId() ) )
+                .executeUpdate();
+        em.getTransaction().commit();
+        em.close();
+
+        stale.setMilliliters( testMilliliters + 1 );
+        logic.update( stale );
+
+        BloodDonation returnedDonation = logic.getWithId( expectedEntity.getId() );
+        assertTrue( returnedDonation.isExpired() );
+        assertEquals( testMilliliters + 1, returnedDonation.getMilliliters() );
+    }
+
+    @Test
+    final void testGetCompatible() {
+        BloodDonation donation = new BloodDonation();
+        donation.setMilliliters( testMilliliters );
+        donation.setBloodGroup( BloodGroup.O );
+        donation.setRhd( RhesusFactor.Negative );
+        donation.setCreated( new Date() );
+        donation.setBloodBank( EMFactory.getEMF().createEntityManager().find( BloodBank.class, bbId ) );
+        UnitOfWork.run( () -> {
+            logic.add( donation );
+            //the matcher only changes once the donation is committed
+            assertFalse( compatibleIds( BloodGroup.AB, RhesusFactor.Positive ).contains( donation.getId() ) );
+        } );
+        int id = donation.getId();
+        //O- can be given to anyone, AB+ only to AB+
+        assertTrue( compatibleIds( BloodGroup.AB, RhesusFactor.Positive ).contains( id ) );
+        assertTrue( compatibleIds( BloodGroup.O, RhesusFactor.Negative ).contains( id ) );
+        assertTrue( logic.getCompatible( new int[]{ BloodType.of( BloodGroup.A, RhesusFactor.Negative ) }, 1000 )
+                .get( 0 ).stream().anyMatch( d -> d.getId() == id ) );
+
+        BloodDonation changed = logic.getWithId( id );
+        changed.setBloodGroup( BloodGroup.AB );
+        changed.setRhd( RhesusFactor.Positive );
+        logic.update( changed );
+        assertFalse( compatibleIds( BloodGroup.O, RhesusFactor.Negative ).contains( id ) );
+        assertTrue( compatibleIds( BloodGroup.AB, RhesusFactor.Positive ).contains( id ) );
+
+        //past its shelf life the donation is no longer offered
+        changed = logic.getWithId( id );
+        changed.setCreated( testDate );
+        logic.update( changed );
+        assertFalse( compatibleIds( BloodGroup.AB, RhesusFactor.Positive ).contains( id ) );
+
+        logic.delete( changed );
+        assertFalse( compatibleIds( BloodGroup.AB, RhesusFactor.Positive ).contains( id ) );
+    }
+
+    private List<Integer> compatibleIds( BloodGroup group, RhesusFactor rhd ) {
+        return logic.getCompatible( bbId, group, rhd, 1000 ).stream().map( BloodDonation::getId )
+                .collect( Collectors.toList() );
+    }
+}
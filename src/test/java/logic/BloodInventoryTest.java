@@ -0,0 +1,62 @@
+package logic;
+
+import entity.BloodGroup;
+import entity.RhesusFactor;
+import java.util.Arrays;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BloodInventoryTest {
+
+    private BloodInventory inventory;
+
+    @BeforeEach
+    final void setUp() throws Exception {
+        inventory = new BloodInventory();
+        //rows as returned by the BloodDonation.inventory query
+        inventory.load( Arrays.asList(
+                new Object[]{ 1, BloodGroup.A, RhesusFactor.Positive, 1000L, 2L },
+                new Object[]{ 1, BloodGroup.O, RhesusFactor.Negative, 450L, 1L },
+                new Object[]{ 2, BloodGroup.A, RhesusFactor.Positive, 300L, 1L } ) );
+    }
+
+    @Test
+    final void testBloodTypeCodes() {
+        for( int code = 0; code < BloodType.COUNT; code++ ) {
+            assertEquals( code, BloodType.of( BloodType.group( code ), BloodType.rhesus( code ) ) );
+        }
+        assertEquals( 0, BloodType.of( BloodGroup.O, RhesusFactor.Negative ) );
+        assertEquals( 7, BloodType.of( BloodGroup.AB, RhesusFactor.Positive ) );
+        assertEquals( "AB+", BloodType.name( 7 ) );
+    }
+
+    @Test
+    final void testLoad() {
+        assertTrue( inventory.isLoaded() );
+        assertEquals( 1000, inventory.getMilliliters( 1, BloodGroup.A, RhesusFactor.Positive ) );
+        assertEquals( 2, inventory.getUnits( 1, BloodGroup.A, RhesusFactor.Positive ) );
+        assertEquals( 1450, inventory.getMilliliters( 1 ) );
+        assertEquals( 1300, inventory.getTotalMilliliters( BloodGroup.A, RhesusFactor.Positive ) );
+        assertEquals( 0, inventory.getMilliliters( 3 ) );
+    }
+
+    @Test
+    final void testAddAndTakeAway() {
+        int oNegative = BloodType.of( BloodGroup.O, RhesusFactor.Negative );
+        inventory.add( 2, oNegative, 500, 1 );
+        inventory.add( 1, oNegative, -450, -1 );
+        assertEquals( 0, inventory.getUnits( 1, BloodGroup.O, RhesusFactor.Negative ) );
+        assertEquals( 500, inventory.getMilliliters( 2, BloodGroup.O, RhesusFactor.Negative ) );
+        assertEquals( 500, inventory.getTotalMilliliters( BloodGroup.O, RhesusFactor.Negative ) );
+    }
+
+    @Test
+    final void testLoadReplacesCounters() {
+        inventory.load( Arrays.<Object[]>asList( new Object[]{ 2, BloodGroup.B, RhesusFactor.Negative, 200L, 1L } ) );
+        assertEquals( 0, inventory.getMilliliters( 1 ) );
+        assertEquals( 0, inventory.getTotalMilliliters( BloodGroup.A, RhesusFactor.Positive ) );
+        assertEquals( 200, inventory.getMilliliters( 2 ) );
+    }
+}
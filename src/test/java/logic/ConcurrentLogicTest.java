@@ -0,0 +1,90 @@
+package logic;
+
+import common.TomcatStartUp;
+import dal.EntityManagerContext;
+import entity.Person;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * shares one {@link PersonLogic} between many threads to make sure transactions of different threads never use each
+ * other's EntityManager.
+ */
+class ConcurrentLogicTest {
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 25;
+    private static final String MARKER = "ConcurrentLogicTest";
+
+    @BeforeAll
+    final static void setUpBeforeClass() throws Exception {
+        TomcatStartUp.createTomcat( "/SimpleBloodBank", "common.ServletListener", "simplebloodbank-PU-test" );
+    }
+
+    @AfterAll
+    final static void tearDownAfterClass() throws Exception {
+        TomcatStartUp.stopAndDestroyTomcat();
+    }
+
+    @Test
+    final void testSharedLogic() throws Exception {
+        //a single instance used by every thread, like a servlet would
+        PersonLogic logic = LogicFactory.getFor( "Person" );
+        ExecutorService pool = Executors.newFixedThreadPool( THREADS );
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>( THREADS );
+            for( int t = 0; t < THREADS; t++ ) {
+                final int thread = t;
+                tasks.add( () -> {
+                    int done = 0;
+                    for( int round = 0; round < ROUNDS; round++ ) {
+                        String name = "T" + thread + "R" + round;
+                        Person person = new Person();
+                        person.setFirstName( name );
+                        person.setLastName( MARKER );
+                        person.setPhone( "613-555-0000" );
+                        person.setAddress( "1385 Woodroffe Ave" );
+                        person.setBirth( new Date() );
+                        logic.add( person );
+                        assertNotNull( person.getId() );
+
+                        //another thread must never see or change this row
+                        Person found = logic.getWithId( person.getId() );
+                        assertEquals( name, found.getFirstName() );
+
+                        found.setAddress( name );
+                        logic.update( found );
+                        assertEquals( name, logic.getWithId( person.getId() ).getAddress() );
+
+                        logic.delete( found );
+                        assertNull( logic.getWithId( person.getId() ) );
+                        assertFalse( EntityManagerContext.isActive() );
+                        done++;
+                    }
+                    return done;
+                } );
+            }
+            for( Future<Integer> result: pool.invokeAll( tasks ) ) {
+                assertEquals( ROUNDS, result.get() );
+            }
+        } finally {
+            pool.shutdown();
+            assertTrue( pool.awaitTermination( 1, TimeUnit.MINUTES ) );
+        }
+        assertTrue( logic.getAll().stream().noneMatch( p -> MARKER.equals( p.getLastName() ) ) );
+    }
+}
@@ -0,0 +1,110 @@
+package logic;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.Test;
+
+class DateParserTest {
+
+    private static final String PATTERN = "yyyy-MM-dd kk:mm:ss";
+
+    /**
+     * random dates, printed and read back by SimpleDateFormat and by DateParser
+     */
+    @Test
+    final void testSameAsSimpleDateFormat() throws ParseException {
+        SimpleDateFormat formatter = new SimpleDateFormat( PATTERN );
+        SimpleDateFormat simpleDate = new SimpleDateFormat( "yyyy-MM-dd" );
+        Random random = new Random( 8288 );
+        for( int i = 0; i < 10_000; i++ ) {
+            String text = formatter.format( randomDate( random ) );
+            Date expected = formatter.parse( text );
+            assertEquals( expected, DateParser.parse( text ), text );
+            assertEquals( expected, DateParser.parse( text.replace( ' ', 'T' ) ), text );
+            assertEquals( text, DateParser.format( expected ) );
+            String day = text.substring( 0, 10 );
+            assertEquals( simpleDate.parse( day ), DateParser.parse( day ), day );
+        }
+    }
+
+    @Test
+    final void testShapes() throws ParseException {
+        SimpleDateFormat formatter = new SimpleDateFormat( PATTERN );
+        assertEquals( formatter.parse( "2021-04-01 10:15:00" ), DateParser.parse( "2021-04-01T10:15" ) );
+        assertEquals( formatter.parse( "2020-03-01 24:00:00" ), DateParser.parse( "2020-3-1" ) );
+        assertEquals( formatter.parse( "2020-03-01 09:05:07" ), DateParser.parse( " 2020-3-1 9:5:7 " ) );
+        assertEquals( formatter.parse( "2020-03-01 09:05:07" ).getTime() + 250,
+                DateParser.parse( "2020-03-01T09:05:07.25" ).getTime() );
+        //"kk" prints midnight as 24 of the same day
+        assertEquals( formatter.parse( "1212-12-12 24:00:00" ), DateParser.parse( "1212-12-12 24:00:00" ) );
+        assertEquals( "1212-12-12 24:00:00", DateParser.format( DateParser.parse( "1212-12-12" ) ) );
+        assertEquals( formatter.parse( "2020-02-29 13:00:00" ), DateParser.parse( "2020-02-29 13:00:00" ) );
+    }
+
+    @Test
+    final void testInvalid() {
+        for( String text: new String[]{ "", "2021", "not a date", "2021-13-01", "2021-04-31", "2021-02-29",
+            "2021-04-01 25:00:00", "2021-04-01 10:60:00", "2021-04-01 10:15:61", "2021-04-01X10:15:30",
+            "2021/04/01", "2021-04-01 10:15:30 PM" } ) {
+            assertNull( DateParser.parse( text ), text );
+        }
+    }
+
+    /**
+     * many threads parse and print the same random dates, each result is compared with the single thread one
+     */
+    @Test
+    final void testConcurrent() throws Exception {
+        SimpleDateFormat formatter = new SimpleDateFormat( PATTERN );
+        Random random = new Random( 8288 );
+        String[] texts = new String[ 2_000 ];
+        Date[] expected = new Date[ texts.length ];
+        for( int i = 0; i < texts.length; i++ ) {
+            texts[ i ] = formatter.format( randomDate( random ) );
+            expected[ i ] = formatter.parse( texts[ i ] );
+        }
+        ExecutorService executor = Executors.newFixedThreadPool( 8 );
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for( int t = 0; t < 16; t++ ) {
+                int offset = t;
+                tasks.add( () -> {
+                    int checked = 0;
+                    for( int round = 0; round < 10; round++ ) {
+                        for( int i = 0; i < texts.length; i++ ) {
+                            int n = ( i + offset * 97 ) % texts.length;
+                            assertEquals( expected[ n ], DateParser.parse( texts[ n ] ), texts[ n ] );
+                            assertEquals( texts[ n ], DateParser.format( expected[ n ] ) );
+                            checked++;
+                        }
+                    }
+                    return checked;
+                } );
+            }
+            for( Future<Integer> result: executor.invokeAll( tasks ) ) {
+                assertEquals( texts.length * 10, result.get() );
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * seconds from year 1000 to 2999, old enough to cross the julian cutover
+     */
+    private static Date randomDate( Random random ) {
+        long from = -30610224000L;
+        long to = 32503680000L;
+        return new Date( ( from + (long)( random.nextDouble() * ( to - from ) ) ) * 1000 );
+    }
+}
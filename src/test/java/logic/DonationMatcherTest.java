@@ -0,0 +1,79 @@
+package logic;
+
+import java.util.Arrays;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DonationMatcherTest {
+
+    private static final int O_NEG = 0;
+    private static final int A_POS = BloodType.A | BloodType.RHD;
+    private static final int AB_POS = BloodType.A | BloodType.B | BloodType.RHD;
+    private static final long NOW = 1_000_000L;
+
+    private DonationMatcher matcher;
+
+    @BeforeEach
+    final void setUp() throws Exception {
+        matcher = new DonationMatcher();
+        //id, bank, type, expiry
+        matcher.load( Arrays.asList(
+                new long[]{ 1, 1, O_NEG, NOW + 300 },
+                new long[]{ 2, 1, A_POS, NOW + 100 },
+                new long[]{ 3, 2, O_NEG, NOW + 200 },
+                new long[]{ 4, 2, AB_POS, NOW + 50 },
+                new long[]{ 5, 2, A_POS, NOW - 10 } ) );
+    }
+
+    @Test
+    final void testCompatibility() {
+        assertEquals( 0x01, BloodType.donorsOf( O_NEG ) );
+        assertEquals( 0xFF, BloodType.donorsOf( AB_POS ) );
+        assertTrue( BloodType.canGive( O_NEG, A_POS ) );
+        assertFalse( BloodType.canGive( A_POS, O_NEG ) );
+        assertFalse( BloodType.canGive( BloodType.B, A_POS ) );
+        assertTrue( BloodType.canGive( BloodType.A, A_POS ) );
+    }
+
+    @Test
+    final void testMatchNearestExpiryFirst() {
+        assertTrue( matcher.isLoaded() );
+        assertArrayEquals( new int[]{ 4, 2, 3, 1 }, matcher.match( AB_POS, 10, NOW ) );
+        assertArrayEquals( new int[]{ 2, 3 }, matcher.match( A_POS, 2, NOW ) );
+        assertArrayEquals( new int[]{ 3, 1 }, matcher.match( O_NEG, 10, NOW ) );
+        assertArrayEquals( new int[]{ 3 }, matcher.match( 2, O_NEG, 10, NOW ) );
+        assertArrayEquals( new int[ 0 ], matcher.match( 3, O_NEG, 10, NOW ) );
+    }
+
+    @Test
+    final void testExpiredAreSkipped() {
+        assertArrayEquals( new int[]{ 5, 2, 3, 1 }, matcher.match( A_POS, 10, NOW - 20 ) );
+        assertArrayEquals( new int[]{ 1 }, matcher.match( AB_POS, 10, NOW + 250 ) );
+        assertEquals( 4, matcher.removeExpired( NOW + 250 ) );
+        assertEquals( 1, matcher.size() );
+    }
+
+    @Test
+    final void testPutMovesAndRemove() {
+        matcher.put( 1, 2, A_POS, NOW + 10 );
+        assertArrayEquals( new int[]{ 1, 3 }, matcher.match( 2, A_POS, 10, NOW ) );
+        assertArrayEquals( new int[]{ 3 }, matcher.match( O_NEG, 10, NOW ) );
+        matcher.remove( 3 );
+        matcher.remove( 42 );
+        assertArrayEquals( new int[ 0 ], matcher.match( O_NEG, 10, NOW ) );
+        assertEquals( 4, matcher.size() );
+    }
+
+    @Test
+    final void testMatchAllGivesEachUnitOnce() {
+        //the AB+ recipient asks first, but the O- one must still get the O- units
+        int[][] found = matcher.matchAll( new int[]{ AB_POS, O_NEG, A_POS }, 2, NOW );
+        assertArrayEquals( new int[]{ 3, 1 }, found[ 1 ] );
+        assertArrayEquals( new int[]{ 2 }, found[ 2 ] );
+        assertArrayEquals( new int[]{ 4 }, found[ 0 ] );
+    }
+}
@@ -18,6 +18,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.IntFunction;
 import javax.persistence.EntityManager;
@@ -206,6 +207,13 @@ public class DonationRecordTest {
         }
     }     
     
+    @Test
+    final void testGetNextEligibleLocked() {
+        int personId = expectedEntity.getPerson().getId();
+        long next = UnitOfWork.execute( () -> logic.getNextEligibleLocked( personId ) );
+        assertEquals( expectedEntity.getCreated().getTime() + TimeUnit.DAYS.toMillis( DonationRecordLogic.DAYS_BETWEEN_DONATIONS ), next );
+    }
+
     @Test
     final void testGetDonationRecordWithHospital() {
          List<DonationRecord> returnedDonationRecord = logic.getDonationRecordWithHospital( expectedEntity.getHospital());
@@ -0,0 +1,93 @@
+package logic;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DonorEligibilityTest {
+
+    private static final long INTERVAL = 56;
+    private static final long NOW = 1_000_000L;
+
+    private DonorEligibility eligibility;
+
+    @BeforeEach
+    final void setUp() throws Exception {
+        eligibility = new DonorEligibility( INTERVAL );
+        //rows as returned by the DonationRecord.lastByPerson query
+        eligibility.load( Arrays.asList(
+                new Object[]{ 1, new Date( NOW - 10 ) },
+                new Object[]{ 2, new Date( NOW - 100 ) } ) );
+    }
+
+    @Test
+    final void testEligibility() {
+        assertTrue( eligibility.isLoaded() );
+        assertFalse( eligibility.isEligible( 1, NOW ) );
+        assertEquals( NOW + 46, eligibility.getNextEligible( 1 ) );
+        assertTrue( eligibility.isEligible( 1, NOW + 46 ) );
+        assertTrue( eligibility.isEligible( 2, NOW ) );
+        assertTrue( eligibility.isEligible( 3, NOW ) );
+        assertEquals( -1, eligibility.getLastDonation( 3 ) );
+        assertEquals( 0, eligibility.getNextEligible( 3 ) );
+    }
+
+    @Test
+    final void testKeepsLatestDonation() {
+        eligibility.record( 2, NOW );
+        eligibility.record( 2, NOW - 500 );
+        assertEquals( NOW, eligibility.getLastDonation( 2 ) );
+        assertFalse( eligibility.isEligible( 2, NOW ) );
+        //a reload with older rows does not lose the donation recorded since
+        eligibility.load( Arrays.<Object[]>asList( new Object[]{ 2, new Date( NOW - 100 ) } ) );
+        assertEquals( NOW, eligibility.getLastDonation( 2 ) );
+        assertEquals( 2, eligibility.size() );
+    }
+
+    /**
+     * random puts and removes, compared with a HashMap. the IntIntMap gets the same calls with the low half of each
+     * value.
+     */
+    @Test
+    final void testMapAgainstHashMap() {
+        Random random = new Random( 8288 );
+        IntLongMap map = new IntLongMap();
+        IntIntMap ints = new IntIntMap();
+        Map<Integer, Long> expected = new HashMap<>();
+        for( int i = 0; i < 200_000; i++ ) {
+            int key = random.nextInt( 3_000 ) - 10;
+            switch( random.nextInt( 3 ) ) {
+                case 0:
+                    assertEquals( expected.getOrDefault( key, -1L ).longValue(), map.remove( key, -1 ) );
+                    assertEquals( (int)expected.getOrDefault( key, -1L ).longValue(), ints.remove( key, -1 ) );
+                    expected.remove( key );
+                    break;
+                case 1:
+                    long value = random.nextLong();
+                    map.put( key, value );
+                    ints.put( key, (int)value );
+                    expected.put( key, value );
+                    break;
+                default:
+                    assertEquals( expected.getOrDefault( key, -1L ).longValue(), map.get( key, -1 ) );
+                    assertEquals( (int)expected.getOrDefault( key, -1L ).longValue(), ints.get( key, -1 ) );
+            }
+            assertEquals( expected.size(), map.size() );
+            assertEquals( expected.size(), ints.size() );
+        }
+        int[] keys = map.keys();
+        Arrays.sort( keys );
+        assertArrayEquals( expected.keySet().stream().mapToInt( Integer::intValue ).sorted().toArray(), keys );
+        keys = ints.keys();
+        Arrays.sort( keys );
+        assertArrayEquals( expected.keySet().stream().mapToInt( Integer::intValue ).sorted().toArray(), keys );
+    }
+}
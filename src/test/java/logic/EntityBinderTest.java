@@ -0,0 +1,125 @@
+package logic;
+
+import common.ValidationException;
+import entity.BloodDonation;
+import entity.BloodGroup;
+import entity.DonationRecord;
+import entity.Person;
+import entity.RhesusFactor;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class EntityBinderTest {
+
+    private static final EntityBinder<Person> PERSON = EntityBinder.of( Person.class, Person::new )
+            .id( PersonLogic.ID, Person::setId )
+            .text( PersonLogic.FIRST_NAME, "firstName", Person::setFirstName )
+            .text( PersonLogic.LAST_NAME, "lastName", Person::setLastName )
+            .text( PersonLogic.PHONE, "phone", Person::setPhone )
+            .text( PersonLogic.ADDRESS, "address", Person::setAddress )
+            .dateOrNow( PersonLogic.BIRTH, "birth", Person::setBirth )
+            .build();
+
+    private static Map<String, String[]> personForm() {
+        Map<String, String[]> form = new HashMap<>();
+        form.put( PersonLogic.ID, new String[]{ "7" } );
+        form.put( PersonLogic.FIRST_NAME, new String[]{ "Jane" } );
+        form.put( PersonLogic.LAST_NAME, new String[]{ "Doe" } );
+        form.put( PersonLogic.PHONE, new String[]{ "613-555-0100" } );
+        form.put( PersonLogic.ADDRESS, new String[]{ "1385 Woodroffe Ave" } );
+        form.put( PersonLogic.BIRTH, new String[]{ "1990-06-21" } );
+        return form;
+    }
+
+    /**
+     * every wrong value is in the exception, with the limits of the annotations on Person
+     */
+    @Test
+    final void testCollectsAllErrors() {
+        Map<String, String[]> form = personForm();
+        form.put( PersonLogic.ID, new String[]{ "12b" } );
+        form.put( PersonLogic.FIRST_NAME, new String[]{ "a".repeat( 51 ) } );
+        form.put( PersonLogic.PHONE, new String[]{ " " } );
+        form.put( PersonLogic.ADDRESS, new String[]{ "a".repeat( 100 ) } );
+        ValidationException ex = assertThrows( ValidationException.class, () -> PERSON.create( form ) );
+        assertEquals( Arrays.asList( PersonLogic.ID, PersonLogic.FIRST_NAME, PersonLogic.PHONE ),
+                Arrays.asList( ex.getErrors().keySet().toArray() ) );
+        assertEquals( "length is 51 > 50", ex.getErrors().get( PersonLogic.FIRST_NAME ) );
+        assertTrue( ex.getMessage().contains( PersonLogic.PHONE + ": cannot be empty" ), ex.getMessage() );
+
+        form.put( PersonLogic.ID, new String[]{ "7" } );
+        form.put( PersonLogic.FIRST_NAME, new String[]{ "Jane" } );
+        form.put( PersonLogic.PHONE, new String[]{ "a".repeat( 15 ) } );
+        Person person = PERSON.create( form );
+        assertEquals( 7, person.getId() );
+        assertEquals( "a".repeat( 100 ), person.getAddress() );
+
+        //a broken form is not a validation error
+        form.remove( PersonLogic.LAST_NAME );
+        assertThrows( NullPointerException.class, () -> PERSON.create( form ) );
+        form.put( PersonLogic.LAST_NAME, new String[]{} );
+        assertThrows( IndexOutOfBoundsException.class, () -> PERSON.create( form ) );
+    }
+
+    /**
+     * update changes the values in the form only and keeps a date it cannot read
+     */
+    @Test
+    final void testUpdate() {
+        Person person = PERSON.create( personForm() );
+        Date birth = person.getBirth();
+        Map<String, String[]> form = new HashMap<>();
+        form.put( PersonLogic.ID, new String[]{ "8" } );
+        form.put( PersonLogic.LAST_NAME, new String[]{ "Roe" } );
+        //what the table shows for a date
+        form.put( PersonLogic.BIRTH, new String[]{ birth.toString() } );
+        PERSON.update( form, person );
+        assertEquals( 7, person.getId() );
+        assertEquals( "Jane", person.getFirstName() );
+        assertEquals( "Roe", person.getLastName() );
+        assertEquals( birth, person.getBirth() );
+
+        form.put( PersonLogic.LAST_NAME, new String[]{ "" } );
+        assertThrows( ValidationException.class, () -> PERSON.update( form, person ) );
+    }
+
+    @Test
+    final void testChoicesAndBooleans() {
+        Map<String, String[]> form = new HashMap<>();
+        form.put( BloodDonationLogic.BLOOD_GROUP, new String[]{ "AB" } );
+        form.put( BloodDonationLogic.RHESUS_FACTOR, new String[]{ "-" } );
+        form.put( BloodDonationLogic.MILLILITERS, new String[]{ "450" } );
+        form.put( BloodDonationLogic.CREATED, new String[]{ "" } );
+        BloodDonationLogic donations = LogicFactory.getFor( "BloodDonation" );
+        BloodDonation donation = donations.createEntity( form );
+        assertEquals( BloodGroup.AB, donation.getBloodGroup() );
+        assertEquals( RhesusFactor.Negative, donation.getRhd() );
+        assertEquals( 450, donation.getMilliliters() );
+        assertTrue( donation.getCreated().getTime() > System.currentTimeMillis() - 60_000 );
+
+        form.put( BloodDonationLogic.BLOOD_GROUP, new String[]{ "C" } );
+        form.put( BloodDonationLogic.MILLILITERS, new String[]{ "lots" } );
+        ValidationException ex = assertThrows( ValidationException.class,
+                () -> donations.createEntity( form ) );
+        assertEquals( 2, ex.getErrors().size() );
+
+        Map<String, String[]> record = new HashMap<>();
+        record.put( DonationRecordLogic.TESTED, new String[]{ "Positive" } );
+        record.put( DonationRecordLogic.ADMINISTRATOR, new String[]{ "Dr. Smith" } );
+        record.put( DonationRecordLogic.HOSPITAL, new String[]{ "Queensway Carleton" } );
+        record.put( DonationRecordLogic.CREATED, new String[]{ "2021-04-01T10:15:30" } );
+        DonationRecordLogic logic = LogicFactory.getFor( "DonationRecord" );
+        DonationRecord entity = logic.createEntity( record );
+        assertTrue( entity.getTested() );
+        record.put( DonationRecordLogic.TESTED, new String[]{ "false" } );
+        assertEquals( false, logic.createEntity( record ).getTested() );
+        record.put( DonationRecordLogic.TESTED, new String[]{ "maybe" } );
+        assertThrows( ValidationException.class, () -> logic.createEntity( record ) );
+    }
+}
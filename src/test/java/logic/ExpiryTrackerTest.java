@@ -0,0 +1,111 @@
+package logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ExpiryTrackerTest {
+
+    private static final long TICK = 1000;
+    private static final long WINDOW = 10 * TICK;
+    private static final long NOW = 1_600_000_000_000L;
+
+    private ExpiryTracker tracker;
+    private List<String> events;
+
+    @BeforeEach
+    final void setUp() throws Exception {
+        tracker = new ExpiryTracker( TICK, WINDOW );
+        events = new ArrayList<>();
+        tracker.addListener( new ExpiryTracker.Listener() {
+            @Override
+            public void nearExpiry( int[] ids ) {
+                events.add( "near " + Arrays.toString( Arrays.stream( ids ).sorted().toArray() ) );
+            }
+
+            @Override
+            public void expired( int[] ids ) {
+                events.add( "expired " + Arrays.toString( Arrays.stream( ids ).sorted().toArray() ) );
+            }
+        } );
+        //id, expiry
+        tracker.load( Arrays.asList(
+                new long[]{ 1, NOW + 30 * TICK },
+                new long[]{ 2, NOW + 15 * TICK },
+                new long[]{ 3, NOW + 5 * TICK },
+                new long[]{ 4, NOW - TICK } ), NOW );
+    }
+
+    @Test
+    final void testLoadReportsWhatIsAlreadyDue() {
+        tracker.tick( NOW + TICK );
+        assertEquals( Arrays.asList( "near [3, 4]" ), events );
+        tracker.tick( NOW + 2 * TICK );
+        assertEquals( Arrays.asList( "near [3, 4]", "expired [4]" ), events );
+        assertArrayEquals( new int[]{ 3 }, tracker.getNearExpiry() );
+        assertEquals( 3, tracker.size() );
+    }
+
+    @Test
+    final void testNearThenExpired() {
+        //ids of one tick come together, in no given order
+        tracker.tick( NOW + 5 * TICK );
+        assertEquals( Arrays.asList( "near [2, 3, 4]", "expired [3, 4]" ), events );
+        events.clear();
+        tracker.tick( NOW + 20 * TICK );
+        assertEquals( Arrays.asList( "near [1]", "expired [2]" ), events );
+        assertArrayEquals( new int[]{ 1 }, tracker.getNearExpiry() );
+        assertEquals( NOW + 30 * TICK, tracker.getExpiry( 1 ) );
+        assertEquals( -1, tracker.getExpiry( 2 ) );
+    }
+
+    @Test
+    final void testTrackAndUntrack() {
+        tracker.untrack( 1 );
+        tracker.track( 2, NOW + 100 * TICK );
+        tracker.track( 5, NOW + 12 * TICK );
+        assertEquals( NOW + 12 * TICK, tracker.getExpiry( 5 ) );
+        tracker.tick( NOW + 40 * TICK );
+        assertEquals( Arrays.asList( "near [3, 4, 5]", "expired [3, 4, 5]" ), events );
+        assertArrayEquals( new int[ 0 ], tracker.getNearExpiry() );
+        assertEquals( 1, tracker.size() );
+    }
+
+    @Test
+    final void testNearExpiryIsSortedByExpiry() {
+        tracker.track( 7, NOW + 8 * TICK );
+        tracker.track( 6, NOW + 9 * TICK );
+        tracker.tick( NOW + TICK );
+        assertArrayEquals( new int[]{ 4, 3, 7, 6 }, tracker.getNearExpiry() );
+        tracker.untrack( 7 );
+        assertArrayEquals( new int[]{ 4, 3, 6 }, tracker.getNearExpiry() );
+    }
+
+    @Test
+    final void testFailedExpiryIsRetried() {
+        int[] failures = { 1 };
+        tracker.addListener( new ExpiryTracker.Listener() {
+            @Override
+            public void expired( int[] ids ) {
+                if( failures[ 0 ]-- > 0 ){
+                    throw new IllegalStateException( "DB is down" );
+                }
+            }
+        } );
+        tracker.tick( NOW + 5 * TICK );
+        assertEquals( Arrays.asList( "near [2, 3, 4]", "expired [3, 4]" ), events );
+        events.clear();
+        //3 was tracked again after it failed, it keeps its new expiry
+        tracker.track( 3, NOW + 100 * TICK );
+        tracker.tick( NOW + 6 * TICK );
+        assertEquals( Arrays.asList( "expired [4]" ), events );
+        events.clear();
+        tracker.tick( NOW + 7 * TICK );
+        assertEquals( Arrays.asList(), events );
+        assertEquals( NOW + 100 * TICK, tracker.getExpiry( 3 ) );
+    }
+}
@@ -0,0 +1,121 @@
+package logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ExpiryWheelTest {
+
+    private static final long TICK = 1000;
+    private static final long START = 1_600_000_000_000L;
+
+    private ExpiryWheel wheel;
+    private List<Integer> fired;
+
+    @BeforeEach
+    final void setUp() throws Exception {
+        wheel = new ExpiryWheel( TICK, START );
+        fired = new ArrayList<>();
+    }
+
+    private int advance( long ticks ) {
+        return wheel.advance( START + ticks * TICK, ( id, deadline, tag ) -> fired.add( id ) );
+    }
+
+    @Test
+    final void testFiresInOrderOfDeadline() {
+        wheel.schedule( 1, START + 5 * TICK, 0 );
+        wheel.schedule( 2, START + 2 * TICK - 1, 0 );
+        wheel.schedule( 3, START + 70 * TICK, 0 );
+        wheel.schedule( 4, START + 5_000 * TICK, 0 );
+        assertEquals( 0, advance( 1 ) );
+        assertEquals( 1, advance( 2 ) );
+        assertEquals( 1, advance( 69 ) );
+        assertEquals( Arrays.asList( 2, 1 ), fired );
+        assertEquals( 1, advance( 70 ) );
+        assertEquals( 1, advance( 5_000 ) );
+        assertEquals( Arrays.asList( 2, 1, 3, 4 ), fired );
+        assertEquals( 0, wheel.size() );
+    }
+
+    @Test
+    final void testCancelAndReschedule() {
+        wheel.schedule( 1, START + 10 * TICK, 0 );
+        wheel.schedule( 2, START + 10 * TICK, 0 );
+        wheel.schedule( 3, START + 10 * TICK, 0 );
+        assertTrue( wheel.cancel( 2 ) );
+        assertFalse( wheel.cancel( 2 ) );
+        wheel.schedule( 3, START + 300_000 * TICK, 5 );
+        assertEquals( START + 300_000 * TICK, wheel.deadline( 3 ) );
+        assertEquals( 5, wheel.tag( 3 ) );
+        advance( 10 );
+        assertEquals( Arrays.asList( 1 ), fired );
+        advance( 299_999 );
+        assertEquals( 1, wheel.size() );
+        advance( 300_000 );
+        assertEquals( Arrays.asList( 1, 3 ), fired );
+        assertEquals( -1, wheel.deadline( 3 ) );
+    }
+
+    @Test
+    final void testPastDeadlineFiresOnNextTick() {
+        advance( 100 );
+        wheel.schedule( 1, START, 0 );
+        assertEquals( 0, advance( 100 ) );
+        assertEquals( 1, advance( 101 ) );
+    }
+
+    @Test
+    final void testHandlerCanReschedule() {
+        wheel.schedule( 1, START + 3 * TICK, 0 );
+        List<String> events = new ArrayList<>();
+        wheel.advance( START + 10 * TICK, ( id, deadline, tag ) -> {
+            events.add( tag + "@" + ( deadline - START ) / TICK );
+            if( tag == 0 ){
+                wheel.schedule( id, deadline + 4 * TICK, 1 );
+            }
+        } );
+        assertEquals( Arrays.asList( "0@3", "1@7" ), events );
+    }
+
+    /**
+     * random schedules and cancels over all levels, compared with a map of deadlines
+     */
+    @Test
+    final void testAgainstMap() {
+        Random random = new Random( 8288 );
+        Map<Integer, Long> expected = new HashMap<>();
+        long now = 0;
+        for( int step = 0; step < 2_000; step++ ) {
+            for( int i = 0; i < 50; i++ ) {
+                int id = random.nextInt( 5_000 );
+                if( random.nextInt( 4 ) == 0 ){
+                    assertEquals( expected.remove( id ) != null, wheel.cancel( id ) );
+                } else {
+                    //up to level 3, a few in the past
+                    long ticks = now - 5 + (long)Math.pow( 2, random.nextDouble() * 20 );
+                    wheel.schedule( id, START + ticks * TICK, 0 );
+                    expected.put( id, Math.max( ticks, now + 1 ) );
+                }
+            }
+            now += 1 + random.nextInt( 500 );
+            long until = now;
+            fired.clear();
+            advance( now );
+            int[] due = expected.entrySet().stream().filter( e -> e.getValue() <= until )
+                    .mapToInt( Map.Entry::getKey ).sorted().toArray();
+            due = Arrays.stream( due ).peek( expected::remove ).toArray();
+            assertArrayEquals( due, fired.stream().mapToInt( Integer::intValue ).sorted().toArray(), "step " + step );
+            assertEquals( expected.size(), wheel.size() );
+        }
+    }
+}
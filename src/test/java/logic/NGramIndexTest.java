@@ -0,0 +1,78 @@
+package logic;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * checks that {@link NGramIndex} finds the same rows a LIKE '%text%' query over utf8mb4_0900_ai_ci columns would.
+ */
+class NGramIndexTest {
+
+    private NGramIndex index;
+
+    @BeforeEach
+    final void setUp() throws Exception {
+        index = new NGramIndex();
+        index.put( 1, "Shawn", "Emami", "1234567890" );
+        index.put( 2, "Student", "S.", "9876543210" );
+        index.put( 3, "Zoë", "Hannah", null );
+    }
+
+    @Test
+    final void testSearch() {
+        assertArrayEquals( new int[]{ 3 }, index.search( "ann" ) );
+        assertArrayEquals( new int[]{ 1 }, index.search( "shawn" ) );
+        assertArrayEquals( new int[]{ 1 }, index.search( "3456" ) );
+        assertArrayEquals( new int[ 0 ], index.search( "xyz" ) );
+    }
+
+    @Test
+    final void testCaseAndAccents() {
+        assertArrayEquals( new int[]{ 3 }, index.search( "ZOE" ) );
+        assertArrayEquals( new int[]{ 1 }, index.search( "émam" ) );
+    }
+
+    @Test
+    final void testShortSearch() {
+        assertArrayEquals( new int[]{ 1, 3 }, index.search( "h" ) );
+        assertArrayEquals( new int[]{ 1, 2, 3 }, index.search( "" ) );
+    }
+
+    @Test
+    final void testNGramsMustBeInOrder() {
+        //"abc" and "bcd" are both in the index but never next to each other
+        index.put( 4, "abcxbcd" );
+        index.put( 5, "abc", "bcd" );
+        assertArrayEquals( new int[ 0 ], index.search( "abcd" ) );
+        index.put( 6, "xabcd" );
+        assertArrayEquals( new int[]{ 6 }, index.search( "abcd" ) );
+    }
+
+    @Test
+    final void testPutAndRemove() {
+        index.put( 1, "Jose", "Emami", "1234567890" );
+        assertArrayEquals( new int[ 0 ], index.search( "shawn" ) );
+        assertArrayEquals( new int[]{ 1 }, index.search( "jos" ) );
+        index.remove( 1 );
+        assertArrayEquals( new int[ 0 ], index.search( "emami" ) );
+        assertEquals( 2, index.size() );
+    }
+
+    @Test
+    final void testLoadKeepsNewerChanges() {
+        NGramIndex fresh = new NGramIndex();
+        fresh.put( 5, "Marie" );
+        fresh.remove( 6 );
+        //rows read from the DB before the changes above were made
+        fresh.load( 5, "Maria" );
+        fresh.load( 6, "Andre" );
+        fresh.load( 7, "Anna" );
+        fresh.loaded();
+        assertArrayEquals( new int[]{ 5 }, fresh.search( "marie" ) );
+        assertArrayEquals( new int[]{ 7 }, fresh.search( "an" ) );
+        assertThrows( IllegalStateException.class, () -> fresh.load( 8, "Hannah" ) );
+    }
+}
@@ -302,25 +302,25 @@ class PersonTest {
         fillMap.accept( sampleMap );
         sampleMap.replace( PersonLogic.FIRST_NAME, new String[]{ "" } );
         assertThrows( ValidationException.class, () -> logic.createEntity( sampleMap ) );
-        sampleMap.replace( PersonLogic.FIRST_NAME, new String[]{ generateString.apply( 46 ) } );
+        sampleMap.replace( PersonLogic.FIRST_NAME, new String[]{ generateString.apply( 51 ) } );
         assertThrows( ValidationException.class, () -> logic.createEntity( sampleMap ) );
 
         fillMap.accept( sampleMap );
         sampleMap.replace( PersonLogic.LAST_NAME, new String[]{ "" } );
         assertThrows( ValidationException.class, () -> logic.createEntity( sampleMap ) );
-        sampleMap.replace( PersonLogic.LAST_NAME, new String[]{ generateString.apply( 46 ) } );
+        sampleMap.replace( PersonLogic.LAST_NAME, new String[]{ generateString.apply( 51 ) } );
         assertThrows( ValidationException.class, () -> logic.createEntity( sampleMap ) );
 
         fillMap.accept( sampleMap );
         sampleMap.replace( PersonLogic.PHONE, new String[]{ "" } );
         assertThrows( ValidationException.class, () -> logic.createEntity( sampleMap ) );
-        sampleMap.replace( PersonLogic.PHONE, new String[]{ generateString.apply( 46 ) } );
+        sampleMap.replace( PersonLogic.PHONE, new String[]{ generateString.apply( 16 ) } );
         assertThrows( ValidationException.class, () -> logic.createEntity( sampleMap ) );
 
         fillMap.accept( sampleMap );
         sampleMap.replace( PersonLogic.ADDRESS, new String[]{ "" } );
         assertThrows( ValidationException.class, () -> logic.createEntity( sampleMap ) );
-        sampleMap.replace( PersonLogic.ADDRESS, new String[]{ generateString.apply( 46 ) } );
+        sampleMap.replace( PersonLogic.ADDRESS, new String[]{ generateString.apply( 101 ) } );
         assertThrows( ValidationException.class, () -> logic.createEntity( sampleMap ) );
         
 
@@ -354,10 +354,10 @@ class PersonTest {
 
         sampleMap = new HashMap<>();
         sampleMap.put( PersonLogic.ID, new String[]{ Integer.toString( 1 ) } );
-        sampleMap.put( PersonLogic.FIRST_NAME, new String[]{ generateString.apply( 45 ) } );
-        sampleMap.put( PersonLogic.LAST_NAME, new String[]{ generateString.apply( 45 ) } );
-        sampleMap.put( PersonLogic.PHONE, new String[]{ generateString.apply( 45 ) } );
-        sampleMap.put( PersonLogic.ADDRESS, new String[]{ generateString.apply( 45 ) } );
+        sampleMap.put( PersonLogic.FIRST_NAME, new String[]{ generateString.apply( 50 ) } );
+        sampleMap.put( PersonLogic.LAST_NAME, new String[]{ generateString.apply( 50 ) } );
+        sampleMap.put( PersonLogic.PHONE, new String[]{ generateString.apply( 15 ) } );
+        sampleMap.put( PersonLogic.ADDRESS, new String[]{ generateString.apply( 100 ) } );
         sampleMap.put( PersonLogic.BIRTH, new String[]{ logic.convertDateToString(new Date(100)) } );
 
         //idealy every test should be in its own method
@@ -0,0 +1,77 @@
+package logic;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PrefixTrieTest {
+
+    private PrefixTrie trie;
+
+    @BeforeEach
+    final void setUp() throws Exception {
+        trie = new PrefixTrie();
+        trie.put( 1, "Shawn Emami", "Shawn Emami", "1234567890" );
+        trie.put( 2, "Student S.", "Student S.", "9876543210" );
+        trie.put( 3, "Waverly Hills Sanatorium", "Waverly Hills Sanatorium" );
+        trie.put( 4, "Shannon Éclair", "Shannon Éclair" );
+    }
+
+    private List<Integer> ids( String prefix, int limit ) {
+        return trie.suggest( prefix, limit ).stream().map( Suggestion::getId ).collect( Collectors.toList() );
+    }
+
+    @Test
+    final void testPrefix() {
+        assertEquals( List.of( 4, 1 ), ids( "sha", 10 ) );
+        assertEquals( List.of( 1 ), ids( "shaw", 10 ) );
+        assertEquals( List.of( 2 ), ids( "98", 10 ) );
+        assertEquals( List.of(), ids( "shx", 10 ) );
+        assertEquals( List.of(), ids( "", 10 ) );
+    }
+
+    @Test
+    final void testWordsCaseAndAccents() {
+        assertEquals( List.of( 3 ), ids( "HILL", 10 ) );
+        assertEquals( List.of( 1 ), ids( "emam", 10 ) );
+        assertEquals( List.of( 4 ), ids( "ecl", 10 ) );
+        assertEquals( "Shannon Éclair", trie.suggest( "ecl", 1 ).get( 0 ).getLabel() );
+    }
+
+    @Test
+    final void testLimit() {
+        //Student is found by "s." and by "student s.", still only listed once. keys are in order, "." is before "a"
+        assertEquals( List.of( 2, 3, 4, 1 ), ids( "s", 10 ) );
+        assertEquals( List.of( 2, 3 ), ids( "s", 2 ) );
+    }
+
+    @Test
+    final void testPutAndRemove() {
+        trie.put( 1, "Jose Emami", "Jose Emami" );
+        assertEquals( List.of( 4 ), ids( "sha", 10 ) );
+        assertEquals( List.of( 1 ), ids( "jo", 10 ) );
+        trie.remove( 1 );
+        trie.remove( 4 );
+        assertEquals( List.of(), ids( "emami", 10 ) );
+        assertEquals( List.of(), ids( "sha", 10 ) );
+        assertEquals( List.of( 2 ), ids( "stu", 10 ) );
+        assertEquals( 2, trie.size() );
+    }
+
+    @Test
+    final void testLoadKeepsNewerChanges() {
+        PrefixTrie fresh = new PrefixTrie();
+        fresh.put( 5, "Marie", "Marie" );
+        fresh.remove( 6 );
+        fresh.load( 5, "Maria", "Maria" );
+        fresh.load( 6, "Andre", "Andre" );
+        fresh.loaded();
+        assertEquals( "Marie", fresh.suggest( "mar", 10 ).get( 0 ).getLabel() );
+        assertTrue( fresh.suggest( "and", 10 ).isEmpty() );
+        assertThrows( IllegalStateException.class, () -> fresh.load( 7, "Anna", "Anna" ) );
+    }
+}
@@ -0,0 +1,110 @@
+package logic;
+
+import common.TomcatStartUp;
+import dal.EntityManagerContext;
+import entity.Person;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.persistence.RollbackException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class UnitOfWorkTest {
+
+    private static final String MARKER = "UnitOfWorkTest";
+
+    private PersonLogic logic;
+
+    @BeforeAll
+    final static void setUpBeforeClass() throws Exception {
+        TomcatStartUp.createTomcat( "/SimpleBloodBank", "common.ServletListener", "simplebloodbank-PU-test" );
+    }
+
+    @AfterAll
+    final static void tearDownAfterClass() throws Exception {
+        TomcatStartUp.stopAndDestroyTomcat();
+    }
+
+    @BeforeEach
+    final void setUp() throws Exception {
+        logic = LogicFactory.getFor( "Person" );
+    }
+
+    @AfterEach
+    final void tearDown() throws Exception {
+        markedPeople().forEach( logic::delete );
+        assertFalse( EntityManagerContext.isActive() );
+    }
+
+    private List<Person> markedPeople() {
+        return logic.getAll().stream().filter( p -> MARKER.equals( p.getLastName() ) ).collect( Collectors.toList() );
+    }
+
+    private Person createPerson() {
+        Person person = new Person();
+        person.setFirstName( "Unit" );
+        person.setLastName( MARKER );
+        person.setPhone( "613-555-0000" );
+        person.setAddress( "1385 Woodroffe Ave" );
+        person.setBirth( new Date() );
+        return person;
+    }
+
+    @Test
+    final void testCommit() {
+        Person added = UnitOfWork.execute( () -> {
+            Person person = createPerson();
+            logic.add( person );
+            logic.add( createPerson() );
+            //reads in the unit see its own uncommitted rows
+            assertNotNull( logic.getWithId( person.getId() ) );
+            return person;
+        } );
+        assertNotNull( logic.getWithId( added.getId() ) );
+        assertEquals( 2, markedPeople().size() );
+    }
+
+    @Test
+    final void testRollback() {
+        assertThrows( IllegalStateException.class, () -> UnitOfWork.run( () -> {
+            logic.add( createPerson() );
+            logic.add( createPerson() );
+            throw new IllegalStateException( "fail after the inserts" );
+        } ) );
+        assertTrue( markedPeople().isEmpty() );
+    }
+
+    @Test
+    final void testNestedFailureRollsBackOuter() {
+        assertThrows( RollbackException.class, () -> UnitOfWork.run( () -> {
+            logic.add( createPerson() );
+            try {
+                UnitOfWork.run( () -> {
+                    throw new IllegalStateException( "inner failure" );
+                } );
+            } catch( IllegalStateException ex ) {
+                //ignored on purpose, the outer unit must still roll back
+            }
+        } ) );
+        assertTrue( markedPeople().isEmpty() );
+    }
+
+    @Test
+    final void testStreamAllRefusedInUnit() {
+        assertThrows( IllegalStateException.class, () -> UnitOfWork.run( () -> {
+            logic.add( createPerson() );
+            logic.streamAll( 10, person -> {
+            } );
+        } ) );
+        assertTrue( markedPeople().isEmpty() );
+    }
+}
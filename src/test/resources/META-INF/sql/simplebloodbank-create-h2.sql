@@ -0,0 +1,109 @@
+-- -----------------------------------------------------
+-- simplebloodbank-create.sql for the in process H2 DB of the
+-- simplebloodbank-PU-h2 persistence unit. H2 runs in MySQL
+-- mode, so the tables and types are the same, only what H2
+-- cannot read is left out: USE, VISIBLE on indexes, engine,
+-- character set and collation. index names are unique per
+-- schema in H2, so name_UNIQUE of account is account_name_UNIQUE.
+-- keep it in sync with simplebloodbank-create.sql.
+-- -----------------------------------------------------
+CREATE SCHEMA IF NOT EXISTS `simplebloodbank`;
+
+-- -----------------------------------------------------
+-- Table `simplebloodbank`.`person`
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `simplebloodbank`.`person` (
+  `id` INT NOT NULL AUTO_INCREMENT,
+  `first_name` VARCHAR(50) NOT NULL,
+  `last_name` VARCHAR(50) NOT NULL,
+  `phone` VARCHAR(15) NOT NULL,
+  `address` VARCHAR(100) NOT NULL,
+  `birth` DATETIME NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE INDEX `id_UNIQUE` (`id` ASC));
+
+
+-- -----------------------------------------------------
+-- Table `simplebloodbank`.`blood_bank`
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `simplebloodbank`.`blood_bank` (
+  `bank_id` INT NOT NULL AUTO_INCREMENT,
+  `owner` INT NULL,
+  `name` VARCHAR(100) NOT NULL,
+  `privately_owned` BIT(1) NOT NULL,
+  `established` DATETIME NOT NULL,
+  `employee_count` INT NOT NULL,
+  PRIMARY KEY (`bank_id`),
+  UNIQUE INDEX `name_UNIQUE` (`name` ASC),
+  UNIQUE INDEX `bank_id_UNIQUE` (`bank_id` ASC),
+  INDEX `fk_blood_bank_person1_idx` (`owner` ASC),
+  CONSTRAINT `fk_blood_bank_person1`
+    FOREIGN KEY (`owner`)
+    REFERENCES `simplebloodbank`.`person` (`id`)
+    ON DELETE NO ACTION
+    ON UPDATE NO ACTION);
+
+
+-- -----------------------------------------------------
+-- Table `simplebloodbank`.`blood_donation`
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `simplebloodbank`.`blood_donation` (
+  `donation_id` INT NOT NULL AUTO_INCREMENT,
+  `bank_id` INT NULL,
+  `milliliters` INT NOT NULL,
+  `blood_group` ENUM('A', 'B', 'AB', 'O') NOT NULL,
+  `rhd` ENUM('+', '-') NOT NULL,
+  `created` DATETIME NOT NULL,
+  `expired` TINYINT(1) NOT NULL DEFAULT 0,
+  PRIMARY KEY (`donation_id`),
+  INDEX `fk_blood_donation_blood_bank1_idx` (`bank_id` ASC),
+  UNIQUE INDEX `donation_id_UNIQUE` (`donation_id` ASC),
+  CONSTRAINT `fk_blood_donation_blood_bank1`
+    FOREIGN KEY (`bank_id`)
+    REFERENCES `simplebloodbank`.`blood_bank` (`bank_id`));
+
+
+-- -----------------------------------------------------
+-- Table `simplebloodbank`.`donation_record`
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `simplebloodbank`.`donation_record` (
+  `record_id` INT NOT NULL AUTO_INCREMENT,
+  `person_id` INT NULL DEFAULT NULL,
+  `donation_id` INT NULL DEFAULT NULL,
+  `tested` BIT(1) NOT NULL,
+  `administrator` VARCHAR(100) NOT NULL,
+  `hospital` VARCHAR(100) NOT NULL,
+  `created` DATETIME NOT NULL,
+  PRIMARY KEY (`record_id`),
+  UNIQUE INDEX `record_id_UNIQUE` (`record_id` ASC),
+  INDEX `fk_donation_record_person1_idx` (`person_id` ASC),
+  INDEX `fk_donation_record_blood_donation1_idx` (`donation_id` ASC),
+  CONSTRAINT `fk_donation_record_blood_donation1`
+    FOREIGN KEY (`donation_id`)
+    REFERENCES `simplebloodbank`.`blood_donation` (`donation_id`),
+  CONSTRAINT `fk_donation_record_person1`
+    FOREIGN KEY (`person_id`)
+    REFERENCES `simplebloodbank`.`person` (`id`));
+
+
+-- -----------------------------------------------------
+-- Table `simplebloodbank`.`account`
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `simplebloodbank`.`account` (
+  `id` INT NOT NULL AUTO_INCREMENT,
+  `name` VARCHAR(45) NOT NULL,
+  `nickname` VARCHAR(45) NULL,
+  `username` VARCHAR(45) NOT NULL,
+  `password` VARCHAR(45) NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE INDEX `account_name_UNIQUE` (`name` ASC),
+  UNIQUE INDEX `username_UNIQUE` (`username` ASC));
+
+
+-- -----------------------------------------------------
+-- Table `simplebloodbank`.`id_sequence`
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `simplebloodbank`.`id_sequence` (
+  `sequence_name` VARCHAR(45) NOT NULL,
+  `last_val` BIGINT NOT NULL,
+  PRIMARY KEY (`sequence_name`));
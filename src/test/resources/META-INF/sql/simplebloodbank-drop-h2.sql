@@ -0,0 +1,4 @@
+-- -----------------------------------------------------
+-- simplebloodbank-drop.sql for the in process H2 DB
+-- -----------------------------------------------------
+DROP SCHEMA IF EXISTS `simplebloodbank` CASCADE;